@@ -0,0 +1,36 @@
+package com.pa.spring.prueba1.pa_prueba1.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.bloqueo-barbero")
+public class BloqueoBarberoConfigProperties {
+
+    /**
+     * Número de cerrojos entre los que se reparten los barberos (más franjas, menos colisiones)
+     */
+    private int franjas = 64;
+
+    /**
+     * Tiempo máximo en milisegundos que una reserva espera el cerrojo de su barbero
+     */
+    private long esperaMaximaMs = 3000;
+
+    // Getters y Setters
+    public int getFranjas() {
+        return franjas;
+    }
+
+    public void setFranjas(int franjas) {
+        this.franjas = franjas;
+    }
+
+    public long getEsperaMaximaMs() {
+        return esperaMaximaMs;
+    }
+
+    public void setEsperaMaximaMs(long esperaMaximaMs) {
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+}
@@ -0,0 +1,50 @@
+package com.pa.spring.prueba1.pa_prueba1.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.bloqueo-tareas")
+public class BloqueoTareasConfigProperties {
+
+    /**
+     * Duración del bloqueo de una tarea programada; si la instancia muere, otra puede tomarlo al vencer
+     */
+    private long duracionSegundos = 60;
+
+    /**
+     * Cada cuánto renueva el bloqueo la instancia que ejecuta la tarea
+     */
+    private long renovacionSegundos = 20;
+
+    /**
+     * Tiempo mínimo que se mantiene el bloqueo aunque la tarea termine antes, para
+     * que otra instancia con el reloj algo desfasado no la repita en el mismo ciclo
+     */
+    private long retencionMinimaSegundos = 30;
+
+    // Getters y Setters
+    public long getDuracionSegundos() {
+        return duracionSegundos;
+    }
+
+    public void setDuracionSegundos(long duracionSegundos) {
+        this.duracionSegundos = duracionSegundos;
+    }
+
+    public long getRenovacionSegundos() {
+        return renovacionSegundos;
+    }
+
+    public void setRenovacionSegundos(long renovacionSegundos) {
+        this.renovacionSegundos = renovacionSegundos;
+    }
+
+    public long getRetencionMinimaSegundos() {
+        return retencionMinimaSegundos;
+    }
+
+    public void setRetencionMinimaSegundos(long retencionMinimaSegundos) {
+        this.retencionMinimaSegundos = retencionMinimaSegundos;
+    }
+}
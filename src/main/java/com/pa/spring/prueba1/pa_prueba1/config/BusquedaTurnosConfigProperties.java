@@ -0,0 +1,88 @@
+package com.pa.spring.prueba1.pa_prueba1.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.turnos.busqueda")
+public class BusquedaTurnosConfigProperties {
+
+    /**
+     * Hilos del pool que busca en paralelo en cada barbero
+     */
+    private int hilos = 4;
+
+    /**
+     * Búsquedas por barbero que pueden esperar en cola; si se llena, busca el hilo de la petición
+     */
+    private int capacidadCola = 100;
+
+    /**
+     * Opciones devueltas si el cliente no indica cuántas quiere
+     */
+    private int resultadosPorDefecto = 5;
+
+    /**
+     * Máximo de opciones que se pueden pedir en una búsqueda
+     */
+    private int resultadosMaximos = 20;
+
+    /**
+     * Tamaño máximo de la ventana de búsqueda en días
+     */
+    private int ventanaMaximaDias = 14;
+
+    /**
+     * Tiempo máximo que espera la petición a las búsquedas por barbero
+     */
+    private int timeoutSegundos = 10;
+
+    // Getters y Setters
+    public int getHilos() {
+        return hilos;
+    }
+
+    public void setHilos(int hilos) {
+        this.hilos = hilos;
+    }
+
+    public int getCapacidadCola() {
+        return capacidadCola;
+    }
+
+    public void setCapacidadCola(int capacidadCola) {
+        this.capacidadCola = capacidadCola;
+    }
+
+    public int getResultadosPorDefecto() {
+        return resultadosPorDefecto;
+    }
+
+    public void setResultadosPorDefecto(int resultadosPorDefecto) {
+        this.resultadosPorDefecto = resultadosPorDefecto;
+    }
+
+    public int getResultadosMaximos() {
+        return resultadosMaximos;
+    }
+
+    public void setResultadosMaximos(int resultadosMaximos) {
+        this.resultadosMaximos = resultadosMaximos;
+    }
+
+    public int getVentanaMaximaDias() {
+        return ventanaMaximaDias;
+    }
+
+    public void setVentanaMaximaDias(int ventanaMaximaDias) {
+        this.ventanaMaximaDias = ventanaMaximaDias;
+    }
+
+    public int getTimeoutSegundos() {
+        return timeoutSegundos;
+    }
+
+    public void setTimeoutSegundos(int timeoutSegundos) {
+        this.timeoutSegundos = timeoutSegundos;
+    }
+}
@@ -0,0 +1,49 @@
+package com.pa.spring.prueba1.pa_prueba1.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.catalogo.cache")
+public class CatalogoCacheConfigProperties {
+
+    /**
+     * Si es false las listas del catálogo se leen siempre de la base de datos
+     */
+    private boolean habilitada = true;
+
+    /**
+     * Segundos que vive una lista en caché aunque nadie la invalide
+     */
+    private int ttlSegundos = 600;
+
+    /**
+     * Número máximo de listas en caché
+     */
+    private int tamanoMaximo = 16;
+
+    // Getters y Setters
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    public void setHabilitada(boolean habilitada) {
+        this.habilitada = habilitada;
+    }
+
+    public int getTtlSegundos() {
+        return ttlSegundos;
+    }
+
+    public void setTtlSegundos(int ttlSegundos) {
+        this.ttlSegundos = ttlSegundos;
+    }
+
+    public int getTamanoMaximo() {
+        return tamanoMaximo;
+    }
+
+    public void setTamanoMaximo(int tamanoMaximo) {
+        this.tamanoMaximo = tamanoMaximo;
+    }
+}
@@ -0,0 +1,47 @@
+package com.pa.spring.prueba1.pa_prueba1.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "app.consultas")
+public class ConsultasConfigProperties {
+
+    /**
+     * Qué hacer cuando se llama a findAll() sin paginar sobre una entidad grande:
+     * PERMITIR, REGISTRAR (aviso y métrica) o FALLAR (IllegalStateException)
+     */
+    private ModoFindAll modoFindAll = ModoFindAll.REGISTRAR;
+
+    /**
+     * Entidades (nombre simple de la clase) cuyas tablas crecen sin límite
+     */
+    private List<String> entidadesGrandes = new ArrayList<>(
+        List.of("Reserva", "Turno", "Notificacion", "CorreoPendiente", "RecordatorioEnviado"));
+
+    // Getters y Setters
+    public ModoFindAll getModoFindAll() {
+        return modoFindAll;
+    }
+
+    public void setModoFindAll(ModoFindAll modoFindAll) {
+        this.modoFindAll = modoFindAll;
+    }
+
+    public List<String> getEntidadesGrandes() {
+        return entidadesGrandes;
+    }
+
+    public void setEntidadesGrandes(List<String> entidadesGrandes) {
+        this.entidadesGrandes = entidadesGrandes;
+    }
+
+    public enum ModoFindAll {
+        PERMITIR,
+        REGISTRAR,
+        FALLAR
+    }
+}
@@ -0,0 +1,128 @@
+package com.pa.spring.prueba1.pa_prueba1.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.correo")
+public class CorreoConfigProperties {
+
+    /**
+     * URL pública de la aplicación, para los enlaces de los correos
+     */
+    private String urlBase = "http://localhost:8586";
+
+    /**
+     * Hilos que envían correos; cada uno usa su propia conexión SMTP
+     */
+    private int hilos = 2;
+
+    /**
+     * Correos que un hilo envía por una misma conexión SMTP
+     */
+    private int mensajesPorConexion = 20;
+
+    /**
+     * Lotes de envío que pueden esperar en cola; si se llena, el resto espera al siguiente sondeo
+     */
+    private int capacidadCola = 100;
+
+    /**
+     * Correos que se leen de la bandeja de salida en cada pasada
+     */
+    private int tamanoLote = 50;
+
+    /**
+     * Intentos antes de marcar el correo como FALLIDO
+     */
+    private int maxIntentos = 5;
+
+    /**
+     * Espera antes del primer reintento; se duplica en cada fallo
+     */
+    private long esperaBaseSegundos = 30;
+
+    /**
+     * Tope de la espera entre reintentos
+     */
+    private long esperaMaximaSegundos = 3600;
+
+    /**
+     * Tiempo que un lote tiene reservados sus correos; se renueva al empezar a
+     * enviarlo y debe cubrir el envío de mensajes-por-conexion correos
+     */
+    private long reservaEnvioSegundos = 120;
+
+    // Getters y Setters
+    public String getUrlBase() {
+        return urlBase;
+    }
+
+    public void setUrlBase(String urlBase) {
+        this.urlBase = urlBase;
+    }
+
+    public int getHilos() {
+        return hilos;
+    }
+
+    public void setHilos(int hilos) {
+        this.hilos = hilos;
+    }
+
+    public int getMensajesPorConexion() {
+        return mensajesPorConexion;
+    }
+
+    public void setMensajesPorConexion(int mensajesPorConexion) {
+        this.mensajesPorConexion = mensajesPorConexion;
+    }
+
+    public int getCapacidadCola() {
+        return capacidadCola;
+    }
+
+    public void setCapacidadCola(int capacidadCola) {
+        this.capacidadCola = capacidadCola;
+    }
+
+    public int getTamanoLote() {
+        return tamanoLote;
+    }
+
+    public void setTamanoLote(int tamanoLote) {
+        this.tamanoLote = tamanoLote;
+    }
+
+    public int getMaxIntentos() {
+        return maxIntentos;
+    }
+
+    public void setMaxIntentos(int maxIntentos) {
+        this.maxIntentos = maxIntentos;
+    }
+
+    public long getEsperaBaseSegundos() {
+        return esperaBaseSegundos;
+    }
+
+    public void setEsperaBaseSegundos(long esperaBaseSegundos) {
+        this.esperaBaseSegundos = esperaBaseSegundos;
+    }
+
+    public long getEsperaMaximaSegundos() {
+        return esperaMaximaSegundos;
+    }
+
+    public void setEsperaMaximaSegundos(long esperaMaximaSegundos) {
+        this.esperaMaximaSegundos = esperaMaximaSegundos;
+    }
+
+    public long getReservaEnvioSegundos() {
+        return reservaEnvioSegundos;
+    }
+
+    public void setReservaEnvioSegundos(long reservaEnvioSegundos) {
+        this.reservaEnvioSegundos = reservaEnvioSegundos;
+    }
+}
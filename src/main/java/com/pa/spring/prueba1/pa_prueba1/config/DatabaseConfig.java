@@ -1,17 +1,20 @@
 package com.pa.spring.prueba1.pa_prueba1.config;
 
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
-import javax.sql.DataSource;
 import java.util.Properties;
 
 /**
@@ -30,17 +33,41 @@ public class DatabaseConfig {
     private Environment env;
 
     /**
-     * Define el bean de DataSource que establece la conexión con la base de datos.
+     * Fábrica de beans de Spring, usada por Hibernate para instanciar los entity listeners
+     * (por ejemplo el que mantiene el índice de disponibilidad de turnos)
+     */
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    /**
+     * Define el bean de DataSource: un pool HikariCP que reutiliza las conexiones
+     * físicas a MySQL en lugar de abrir una nueva en cada préstamo.
+     *
+     * El tamaño del pool, los tiempos de espera y la detección de fugas se leen de
+     * spring.datasource.hikari.* (Spring los aplica sobre el bean al crearlo). Las
+     * estadísticas del pool (hikaricp.connections.active, idle, pending, acquire...)
+     * las publica Actuator en /actuator/metrics.
      *
      * @return DataSource configurado con las propiedades del archivo de configuración.
      */
     @Bean
-    public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource dataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
         dataSource.setDriverClassName(env.getProperty("spring.datasource.driver-class-name"));
-        dataSource.setUrl(env.getProperty("spring.datasource.url"));
+        dataSource.setJdbcUrl(env.getProperty("spring.datasource.url"));
         dataSource.setUsername(env.getProperty("spring.datasource.username"));
         dataSource.setPassword(env.getProperty("spring.datasource.password"));
+
+        // Caché de sentencias preparadas en el driver de MySQL (se puede ajustar en
+        // spring.datasource.hikari.data-source-properties.*)
+        dataSource.addDataSourceProperty("cachePrepStmts", "true");
+        dataSource.addDataSourceProperty("prepStmtCacheSize", "250");
+        dataSource.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        dataSource.addDataSourceProperty("useServerPrepStmts", "true");
+
+        // Un lote JDBC se envía como un único INSERT multi-fila en lugar de N sentencias
+        dataSource.addDataSourceProperty("rewriteBatchedStatements", "true");
         return dataSource;
     }
 
@@ -70,8 +97,18 @@ public class DatabaseConfig {
         properties.put("hibernate.show_sql", env.getProperty("spring.jpa.show-sql"));
         properties.put("hibernate.format_sql", env.getProperty("spring.jpa.properties.hibernate.format_sql"));
 
+        // Escritura por lotes: los INSERT/UPDATE de un flush se agrupan por entidad en lotes JDBC
+        properties.put("hibernate.jdbc.batch_size", env.getProperty("spring.jpa.properties.hibernate.jdbc.batch_size", "50"));
+        properties.put("hibernate.order_inserts", env.getProperty("spring.jpa.properties.hibernate.order_inserts", "true"));
+        properties.put("hibernate.order_updates", env.getProperty("spring.jpa.properties.hibernate.order_updates", "true"));
+        properties.put("hibernate.jdbc.batch_versioned_data",
+            env.getProperty("spring.jpa.properties.hibernate.jdbc.batch_versioned_data", "true"));
+
         em.setJpaProperties(properties);
 
+        // Permite inyectar dependencias en los @EntityListeners
+        em.getJpaPropertyMap().put(AvailableSettings.BEAN_CONTAINER, new SpringBeanContainer(beanFactory));
+
         return em;
     }
 
@@ -0,0 +1,56 @@
+package com.pa.spring.prueba1.pa_prueba1.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.disponibilidad")
+public class DisponibilidadConfigProperties {
+
+    /**
+     * MATERIALIZADO: la disponibilidad sale de las filas de Turno generadas de antemano.
+     * VIRTUAL: se calcula al vuelo con el horario del barbero, ausencias y reservas;
+     * solo se crean filas de Turno para los horarios que se reservan.
+     */
+    private ModoDisponibilidad modo = ModoDisponibilidad.MATERIALIZADO;
+
+    /**
+     * Si es true, la búsqueda de turnos consecutivos se responde desde el índice en memoria
+     */
+    private boolean indiceHabilitado = true;
+
+    /**
+     * Número de días hacia adelante que mantiene el índice por barbero
+     */
+    private int horizonteDias = 31;
+
+    // Getters y Setters
+    public ModoDisponibilidad getModo() {
+        return modo;
+    }
+
+    public void setModo(ModoDisponibilidad modo) {
+        this.modo = modo;
+    }
+
+    public boolean isIndiceHabilitado() {
+        return indiceHabilitado;
+    }
+
+    public void setIndiceHabilitado(boolean indiceHabilitado) {
+        this.indiceHabilitado = indiceHabilitado;
+    }
+
+    public int getHorizonteDias() {
+        return horizonteDias;
+    }
+
+    public void setHorizonteDias(int horizonteDias) {
+        this.horizonteDias = horizonteDias;
+    }
+
+    public enum ModoDisponibilidad {
+        MATERIALIZADO,
+        VIRTUAL
+    }
+}
@@ -0,0 +1,36 @@
+package com.pa.spring.prueba1.pa_prueba1.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.estadisticas")
+public class EstadisticasConfigProperties {
+
+    /**
+     * Días hacia atrás que recalcula la reconciliación nocturna
+     */
+    private int diasReconciliacionAtras = 400;
+
+    /**
+     * Días hacia adelante (reservas futuras) que recalcula la reconciliación nocturna
+     */
+    private int diasReconciliacionAdelante = 90;
+
+    // Getters y Setters
+    public int getDiasReconciliacionAtras() {
+        return diasReconciliacionAtras;
+    }
+
+    public void setDiasReconciliacionAtras(int diasReconciliacionAtras) {
+        this.diasReconciliacionAtras = diasReconciliacionAtras;
+    }
+
+    public int getDiasReconciliacionAdelante() {
+        return diasReconciliacionAdelante;
+    }
+
+    public void setDiasReconciliacionAdelante(int diasReconciliacionAdelante) {
+        this.diasReconciliacionAdelante = diasReconciliacionAdelante;
+    }
+}
@@ -0,0 +1,49 @@
+package com.pa.spring.prueba1.pa_prueba1.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.turnos.generacion")
+public class GeneracionTurnosConfigProperties {
+
+    /**
+     * Número de turnos que se envían por cada lote JDBC en la generación masiva
+     */
+    private int tamanoLote = 500;
+
+    /**
+     * Si es true, una tarea programada mantiene generados los turnos futuros de todos los barberos activos
+     */
+    private boolean programadaHabilitada = true;
+
+    /**
+     * Días hacia adelante que la tarea programada mantiene generados
+     */
+    private int horizonteDias = 30;
+
+    // Getters y Setters
+    public int getTamanoLote() {
+        return tamanoLote;
+    }
+
+    public void setTamanoLote(int tamanoLote) {
+        this.tamanoLote = tamanoLote;
+    }
+
+    public boolean isProgramadaHabilitada() {
+        return programadaHabilitada;
+    }
+
+    public void setProgramadaHabilitada(boolean programadaHabilitada) {
+        this.programadaHabilitada = programadaHabilitada;
+    }
+
+    public int getHorizonteDias() {
+        return horizonteDias;
+    }
+
+    public void setHorizonteDias(int horizonteDias) {
+        this.horizonteDias = horizonteDias;
+    }
+}
@@ -0,0 +1,50 @@
+package com.pa.spring.prueba1.pa_prueba1.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.idempotencia")
+public class IdempotenciaConfigProperties {
+
+    /**
+     * Número máximo de claves recordadas; al llegar a él se descartan las más antiguas
+     * ya terminadas y, si todas siguen en curso, se rechazan las claves nuevas
+     */
+    private int capacidad = 10000;
+
+    /**
+     * Segundos durante los que se recuerda el resultado de una clave
+     */
+    private int ttlSegundos = 600;
+
+    /**
+     * Segundos que espera una petición repetida a que termine la original
+     */
+    private int esperaMaximaSegundos = 30;
+
+    // Getters y Setters
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    public void setCapacidad(int capacidad) {
+        this.capacidad = capacidad;
+    }
+
+    public int getTtlSegundos() {
+        return ttlSegundos;
+    }
+
+    public void setTtlSegundos(int ttlSegundos) {
+        this.ttlSegundos = ttlSegundos;
+    }
+
+    public int getEsperaMaximaSegundos() {
+        return esperaMaximaSegundos;
+    }
+
+    public void setEsperaMaximaSegundos(int esperaMaximaSegundos) {
+        this.esperaMaximaSegundos = esperaMaximaSegundos;
+    }
+}
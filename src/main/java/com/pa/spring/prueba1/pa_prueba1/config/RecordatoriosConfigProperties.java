@@ -0,0 +1,23 @@
+package com.pa.spring.prueba1.pa_prueba1.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.recordatorios")
+public class RecordatoriosConfigProperties {
+
+    /**
+     * Reservas que se leen y encolan por transacción
+     */
+    private int tamanoLote = 100;
+
+    // Getters y Setters
+    public int getTamanoLote() {
+        return tamanoLote;
+    }
+
+    public void setTamanoLote(int tamanoLote) {
+        this.tamanoLote = tamanoLote;
+    }
+}
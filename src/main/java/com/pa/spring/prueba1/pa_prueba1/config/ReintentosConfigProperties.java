@@ -0,0 +1,49 @@
+package com.pa.spring.prueba1.pa_prueba1.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.reintentos")
+public class ReintentosConfigProperties {
+
+    /**
+     * Intentos totales (incluido el primero) ante un conflicto de bloqueo optimista
+     */
+    private int maxIntentos = 3;
+
+    /**
+     * Espera base en milisegundos; se duplica en cada reintento
+     */
+    private long esperaBaseMs = 50;
+
+    /**
+     * Tope de la espera entre reintentos en milisegundos
+     */
+    private long esperaMaximaMs = 1000;
+
+    // Getters y Setters
+    public int getMaxIntentos() {
+        return maxIntentos;
+    }
+
+    public void setMaxIntentos(int maxIntentos) {
+        this.maxIntentos = maxIntentos;
+    }
+
+    public long getEsperaBaseMs() {
+        return esperaBaseMs;
+    }
+
+    public void setEsperaBaseMs(long esperaBaseMs) {
+        this.esperaBaseMs = esperaBaseMs;
+    }
+
+    public long getEsperaMaximaMs() {
+        return esperaMaximaMs;
+    }
+
+    public void setEsperaMaximaMs(long esperaMaximaMs) {
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+}
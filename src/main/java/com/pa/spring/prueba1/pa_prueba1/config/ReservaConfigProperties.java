@@ -21,6 +21,11 @@ public class ReservaConfigProperties {
      * Tiempo mínimo en horas que debe pasar entre reservas
      */
     private int cooldownHoras = 0;
+    
+    /**
+     * Segundos que se retienen los turnos elegidos por un cliente mientras confirma la reserva
+     */
+    private int retencionSegundos = 300;
 
     // Getters y Setters
     public int getMaxPendientes() {
@@ -46,4 +51,12 @@ public class ReservaConfigProperties {
     public void setCooldownHoras(int cooldownHoras) {
         this.cooldownHoras = cooldownHoras;
     }
-}
\ No newline at end of file
+
+    public int getRetencionSegundos() {
+        return retencionSegundos;
+    }
+
+    public void setRetencionSegundos(int retencionSegundos) {
+        this.retencionSegundos = retencionSegundos;
+    }
+}
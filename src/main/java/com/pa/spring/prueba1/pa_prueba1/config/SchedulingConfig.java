@@ -0,0 +1,16 @@
+package com.pa.spring.prueba1.pa_prueba1.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas @Scheduled de la aplicación (generación de turnos,
+ * recordatorios por email).
+ *
+ * Usa el planificador de Spring Boot con spring.task.scheduling.pool.size hilos
+ * (application.properties), así una tarea larga no retrasa a las demás.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
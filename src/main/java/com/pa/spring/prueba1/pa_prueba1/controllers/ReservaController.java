@@ -1,21 +1,33 @@
 package com.pa.spring.prueba1.pa_prueba1.controllers;
 
+import com.pa.spring.prueba1.pa_prueba1.dto.ReservaResumen;
+import com.pa.spring.prueba1.pa_prueba1.dto.ResumenCliente;
+import com.pa.spring.prueba1.pa_prueba1.dto.TotalPorMes;
+import com.pa.spring.prueba1.pa_prueba1.dto.TotalPorNombre;
 import com.pa.spring.prueba1.pa_prueba1.model.*;
+import com.pa.spring.prueba1.pa_prueba1.repository.ReservaAgregadosRepository;
 import com.pa.spring.prueba1.pa_prueba1.service.*;
 import com.pa.spring.prueba1.pa_prueba1.service.barbero.BarberoService;
+import com.pa.spring.prueba1.pa_prueba1.service.concurrencia.BloqueoPorBarbero;
+import com.pa.spring.prueba1.pa_prueba1.service.concurrencia.RegistroIdempotencia;
+import com.pa.spring.prueba1.pa_prueba1.service.disponibilidad.RetencionTurnos;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.servlet.mvc.support.RedirectAttributesModelMap;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.TextStyle;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Controller
 @RequestMapping("/reserva")
@@ -37,7 +49,13 @@ public class ReservaController {
     private ClienteService clienteService;
 
     @Autowired
-    private EmailService emailService;
+    private RegistroIdempotencia registroIdempotencia;
+
+    @Autowired
+    private BloqueoPorBarbero bloqueoPorBarbero;
+
+    @Autowired
+    private ReservaAgregadosRepository reservaAgregadosRepository;
 
     @GetMapping
     public String mostrarPaginaReserva(Model model, @AuthenticationPrincipal User user) {
@@ -92,20 +110,76 @@ public class ReservaController {
         return turnos;
     }
 
+    // Retener los turnos del horario elegido mientras el cliente confirma
+    @PostMapping("/retener")
+    @ResponseBody
+    public ResponseEntity<?> retenerTurnos(
+            @RequestParam Long corteId,
+            @RequestParam Long barberoId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaHoraTurno,
+            @AuthenticationPrincipal User user) {
+
+        Cliente cliente = clienteService.obtenerPorCorreo(user.getUsername());
+
+        try {
+            RetencionTurnos.Retencion retencion =
+                    reservaService.retenerTurnos(cliente.getIdCliente(), barberoId, corteId, fechaHoraTurno);
+            return ResponseEntity.ok(Map.of(
+                    "retenido", true,
+                    "expira", retencion.getExpira().toString()));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "retenido", false,
+                    "error", e.getMessage()));
+        }
+    }
+
     // Confirmar reserva (usa PRG para evitar duplicados)
+    // Con claveIdempotencia, un envío repetido (doble clic, reintento) recibe el resultado del primero
     @PostMapping("/confirmar")
     public String confirmarReserva(
             @RequestParam Long corteId,
             @RequestParam Long barberoId,
-            @RequestParam Long turnoId,
+            @RequestParam(required = false) Long turnoId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaHoraTurno,
             @RequestParam(required = false) String comentarios,
+            @RequestParam(required = false) String claveIdempotencia,
             @AuthenticationPrincipal User user,
             RedirectAttributes redirectAttributes) {
 
+        String clave = claveIdempotencia != null ? "confirmar:" + user.getUsername() + ":" + claveIdempotencia : null;
+
+        ResultadoConfirmacion resultado = registroIdempotencia.ejecutar(clave, () -> {
+            RedirectAttributesModelMap atributos = new RedirectAttributesModelMap();
+            String vista = procesarConfirmacion(corteId, barberoId, turnoId, fechaHoraTurno, comentarios, user, atributos);
+            return new ResultadoConfirmacion(vista, new HashMap<>(atributos.getFlashAttributes()));
+        });
+
+        resultado.atributos.forEach(redirectAttributes::addFlashAttribute);
+        return resultado.vista;
+    }
+
+    private String procesarConfirmacion(Long corteId, Long barberoId, Long turnoId, LocalDateTime fechaHoraTurno,
+            String comentarios, User user, RedirectAttributes redirectAttributes) {
+
         Cliente cliente = clienteService.obtenerPorCorreo(user.getUsername());
 
+        // En modo virtual los turnos llegan sin ID: se materializan al confirmar, con
+        // el cerrojo del barbero para no cruzarse con otra confirmación o reserva
+        if (turnoId == null && fechaHoraTurno != null) {
+            Turno turno;
+            try {
+                turno = bloqueoPorBarbero.ejecutar(barberoId,
+                        () -> turnoService.obtenerOMaterializarTurno(barberoId, fechaHoraTurno));
+            } catch (IllegalStateException e) {
+                redirectAttributes.addFlashAttribute("error", e.getMessage());
+                return "redirect:/reserva";
+            }
+            turnoId = turno != null ? turno.getIdTurno() : null;
+        }
+
         // Verificar si el turno sigue disponible
-        if (!turnoService.esTurnoDisponible(turnoId)) {
+        if (turnoId == null || !turnoService.esTurnoDisponible(turnoId)) {
             redirectAttributes.addFlashAttribute("error",
                     "El turno seleccionado ya no está disponible. Intenta con otro horario.");
             return "redirect:/reserva";
@@ -129,14 +203,7 @@ public class ReservaController {
                 return "redirect:/reserva";
             }
 
-            // ✅ ENVIAR EMAIL DE CONFIRMACIÓN
-            try {
-                emailService.notificarConfirmacionReserva(cliente, reserva);
-                System.out.println("✅ Email de confirmación enviado a: " + cliente.getCorreo());
-            } catch (Exception e) {
-                System.err.println("⚠️ No se pudo enviar el email de confirmación: " + e.getMessage());
-                // La reserva ya está creada, solo falló el email
-            }
+            // El email de confirmación quedó en la bandeja de salida con la reserva
 
             // Pasar datos a la vista de confirmación usando redirect
             redirectAttributes.addFlashAttribute("mensaje", "¡Reserva confirmada con éxito! Revisa tu email.");
@@ -173,20 +240,25 @@ public class ReservaController {
         Cliente cliente = clienteService.obtenerPorCorreo(user.getUsername());
 
         // Obtener reservas activas (pendientes)
-        List<Reserva> reservasActivas = reservaService.obtenerPorClienteYEstado(
+        List<ReservaResumen> reservasActivas = reservaService.listarResumenesPorClienteYEstado(
                 cliente.getIdCliente(),
                 Reserva.EstadoReserva.PENDIENTE);
 
         // Obtener historial (reservas completadas)
-        List<Reserva> historial = reservaService.obtenerPorClienteYEstado(
+        List<ReservaResumen> historial = reservaService.listarResumenesPorClienteYEstado(
                 cliente.getIdCliente(),
                 Reserva.EstadoReserva.COMPLETADA);
 
+        // Estadísticas y gráficos salen de una sola consulta agregada (últimos 6 meses en el gráfico)
+        ResumenCliente resumen = ResumenCliente.de(
+                reservaAgregadosRepository.actividadDeCliente(cliente.getIdCliente()),
+                YearMonth.now().minusMonths(5));
+
         // Calcular estadísticas
-        Map<String, Object> estadisticas = calcularEstadisticas(cliente.getIdCliente(), historial);
+        Map<String, Object> estadisticas = calcularEstadisticas(resumen);
 
         // Calcular datos para gráficos
-        Map<String, Object> graficos = calcularDatosGraficos(historial);
+        Map<String, Object> graficos = calcularDatosGraficos(resumen);
 
         model.addAttribute("usuario", cliente);
         model.addAttribute("reservas", reservasActivas);
@@ -198,85 +270,56 @@ public class ReservaController {
     }
 
     // ✅ NUEVO: Método para calcular estadísticas del cliente
-    private Map<String, Object> calcularEstadisticas(Long clienteId, List<Reserva> historial) {
+    private Map<String, Object> calcularEstadisticas(ResumenCliente resumen) {
         Map<String, Object> stats = new HashMap<>();
 
         // Total de visitas completadas
-        stats.put("totalVisitas", historial.size());
+        stats.put("totalVisitas", resumen.getCompletadas());
 
         // Total gastado
-        double totalGastado = historial.stream()
-                .filter(r -> r.getCorte() != null)
-                .mapToDouble(r -> r.getCorte().getPrecio())
-                .sum();
+        double totalGastado = resumen.getGastado();
         stats.put("totalGastado", String.format("%.2f", totalGastado));
 
         // Promedio de gasto
-        double promedioGasto = historial.isEmpty() ? 0 : totalGastado / historial.size();
+        double promedioGasto = resumen.getCompletadas() == 0 ? 0 : totalGastado / resumen.getCompletadas();
         stats.put("promedioGasto", String.format("%.2f", promedioGasto));
 
         // Reservas pendientes
-        long reservasPendientes = reservaService.contarPorClienteYEstado(
-                clienteId,
-                Reserva.EstadoReserva.PENDIENTE);
-        stats.put("reservasPendientes", reservasPendientes);
-
-        // Barbero favorito (el que más ha atendido)
-        Map<String, Long> conteoBarberos = historial.stream()
-                .filter(r -> r.getBarbero() != null)
-                .collect(Collectors.groupingBy(
-                        r -> r.getBarbero().getNombre(),
-                        Collectors.counting()));
-
-        String barberoFavorito = conteoBarberos.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse("N/A");
-        stats.put("barberoFavorito", barberoFavorito);
-
-        // Servicio favorito
-        Map<String, Long> conteoServicios = historial.stream()
-                .filter(r -> r.getCorte() != null)
-                .collect(Collectors.groupingBy(
-                        r -> r.getCorte().getNombre(),
-                        Collectors.counting()));
-
-        String servicioFavorito = conteoServicios.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse("N/A");
-        stats.put("servicioFavorito", servicioFavorito);
+        stats.put("reservasPendientes", resumen.getPendientes());
+
+        // Barbero favorito (el que más ha atendido; la lista ya viene ordenada)
+        List<TotalPorNombre> barberos = resumen.getBarberos();
+        stats.put("barberoFavorito", barberos.isEmpty() ? "N/A" : barberos.get(0).getNombre());
+
+        // Servicio favorito (la lista ya viene ordenada por uso)
+        List<TotalPorNombre> servicios = resumen.getServicios();
+        stats.put("servicioFavorito", servicios.isEmpty() ? "N/A" : servicios.get(0).getNombre());
 
         return stats;
     }
 
     // ✅ NUEVO: Método para calcular datos de gráficos
-    private Map<String, Object> calcularDatosGraficos(List<Reserva> historial) {
+    private Map<String, Object> calcularDatosGraficos(ResumenCliente resumen) {
         Map<String, Object> graficos = new HashMap<>();
 
-        // Datos para gráfico de gastos mensuales (últimos 6 meses)
-        Map<String, Double> gastosPorMes = historial.stream()
-                .filter(r -> r.getCorte() != null && r.getFechaHoraTurno() != null)
-                .collect(Collectors.groupingBy(
-                        r -> r.getFechaHoraTurno().getMonth().getDisplayName(TextStyle.SHORT, new Locale("es", "ES")),
-                        Collectors.summingDouble(r -> r.getCorte().getPrecio())));
-
-        // Convertir a arrays para Chart.js
-        List<String> mesesLabels = new ArrayList<>(gastosPorMes.keySet());
-        List<Double> mesesData = new ArrayList<>(gastosPorMes.values());
+        // Datos para gráfico de gastos mensuales (últimos 6 meses, en orden)
+        List<String> mesesLabels = new ArrayList<>();
+        List<Double> mesesData = new ArrayList<>();
+        for (TotalPorMes mes : resumen.getMeses()) {
+            mesesLabels.add(mes.getMes().getMonth().getDisplayName(TextStyle.SHORT, new Locale("es", "ES")));
+            mesesData.add(mes.getImporte());
+        }
 
         graficos.put("gastosLabels", mesesLabels);
         graficos.put("gastosData", mesesData);
 
         // Datos para gráfico de servicios más usados
-        Map<String, Long> serviciosCount = historial.stream()
-                .filter(r -> r.getCorte() != null)
-                .collect(Collectors.groupingBy(
-                        r -> r.getCorte().getNombre(),
-                        Collectors.counting()));
-
-        List<String> serviciosLabels = new ArrayList<>(serviciosCount.keySet());
-        List<Long> serviciosData = new ArrayList<>(serviciosCount.values());
+        List<String> serviciosLabels = new ArrayList<>();
+        List<Long> serviciosData = new ArrayList<>();
+        for (TotalPorNombre servicio : resumen.getServicios()) {
+            serviciosLabels.add(servicio.getNombre());
+            serviciosData.add(servicio.getCantidad());
+        }
 
         graficos.put("serviciosLabels", serviciosLabels);
         graficos.put("serviciosData", serviciosData);
@@ -313,14 +356,6 @@ public class ReservaController {
                 return "redirect:/reserva/mis-reservas";
             }
 
-            // ✅ ENVIAR EMAIL DE CANCELACIÓN
-            try {
-                emailService.notificarCancelacionReserva(cliente, reservaCancelada);
-                System.out.println("✅ Email de cancelación enviado a: " + cliente.getCorreo());
-            } catch (Exception e) {
-                System.err.println("⚠️ No se pudo enviar el email de cancelación: " + e.getMessage());
-            }
-
             redirectAttributes.addFlashAttribute("mensaje",
                     "Reserva cancelada con éxito. Se ha enviado un email de confirmación.");
 
@@ -331,4 +366,19 @@ public class ReservaController {
 
         return "redirect:/reserva/mis-reservas";
     }
-}
\ No newline at end of file
+
+    /**
+     * Vista de redirección y atributos flash de una confirmación, para repetirlos
+     * si llega de nuevo la misma clave de idempotencia
+     */
+    private static class ResultadoConfirmacion {
+
+        private final String vista;
+        private final Map<String, ?> atributos;
+
+        ResultadoConfirmacion(String vista, Map<String, ?> atributos) {
+            this.vista = vista;
+            this.atributos = atributos;
+        }
+    }
+}
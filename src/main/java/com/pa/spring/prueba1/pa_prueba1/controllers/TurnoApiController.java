@@ -1,15 +1,24 @@
 package com.pa.spring.prueba1.pa_prueba1.controllers;
 
+import com.pa.spring.prueba1.pa_prueba1.config.BusquedaTurnosConfigProperties;
 import com.pa.spring.prueba1.pa_prueba1.model.Barbero;
+import com.pa.spring.prueba1.pa_prueba1.model.Cliente;
 import com.pa.spring.prueba1.pa_prueba1.model.Turno;
 import com.pa.spring.prueba1.pa_prueba1.model.CorteDeCabello;
+import com.pa.spring.prueba1.pa_prueba1.service.ClienteService;
 import com.pa.spring.prueba1.pa_prueba1.service.TurnoService;
 import com.pa.spring.prueba1.pa_prueba1.service.barbero.BarberoService;
+import com.pa.spring.prueba1.pa_prueba1.service.concurrencia.RegistroIdempotencia;
+import com.pa.spring.prueba1.pa_prueba1.service.disponibilidad.BusquedaPrimerBarbero;
 import com.pa.spring.prueba1.pa_prueba1.repository.CorteDeCabelloRepository;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -25,6 +34,8 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class TurnoApiController {
 
+    private static final Logger log = LoggerFactory.getLogger(TurnoApiController.class);
+
     @Autowired
     private TurnoService turnoService;
     
@@ -33,6 +44,18 @@ public class TurnoApiController {
     
     @Autowired
     private CorteDeCabelloRepository corteRepository;
+    
+    @Autowired
+    private BusquedaPrimerBarbero busquedaPrimerBarbero;
+    
+    @Autowired
+    private BusquedaTurnosConfigProperties busquedaConfig;
+
+    @Autowired
+    private RegistroIdempotencia registroIdempotencia;
+
+    @Autowired
+    private ClienteService clienteService;
 
     /**
      * Obtiene los turnos disponibles para un barbero específico
@@ -53,29 +76,7 @@ public class TurnoApiController {
             
             System.out.println("Turnos disponibles encontrados en BD: " + turnosDisponibles.size());
             
-            // Si no hay turnos disponibles, generar para los próximos 14 días
-            if (turnosDisponibles.isEmpty()) {
-                LocalDate hoy = LocalDate.now();
-                LocalDate finPeriodo = hoy.plusDays(14);
-                
-                System.out.println("Generando turnos para el periodo: " + hoy + " a " + finPeriodo);
-                
-                try {
-                    // ✅ CORRECCIÓN: Convertir LocalDate a LocalDateTime y usar el método correcto
-                    LocalDateTime fechaInicioTime = hoy.atStartOfDay();
-                    LocalDateTime fechaFinTime = finPeriodo.atTime(23, 59, 59);
-                    
-                    turnosDisponibles = turnoService.generarTurnosAutomaticos(
-                        barberoId,
-                        fechaInicioTime,
-                        fechaFinTime
-                    );
-                    System.out.println("Turnos generados: " + turnosDisponibles.size());
-                } catch (Exception e) {
-                    System.out.println("Error al generar turnos: " + e.getMessage());
-                    e.printStackTrace();
-                }
-            }
+            // Solo lectura: los turnos los genera GeneradorTurnosProgramado fuera de la petición
             
             // Filtrar solo turnos futuros
             LocalDateTime ahora = LocalDateTime.now();
@@ -225,42 +226,85 @@ public class TurnoApiController {
     }
     
     /**
-     * Reserva un turno
-     * POST /api/turnos/reservar
+     * Busca en todos los barberos activos los inicios más tempranos para un servicio
+     * GET /api/turnos/primer-disponible?servicioId=1&desde=2025-11-15T09:00&hasta=2025-11-15T20:00&cantidad=5
+     * Si no se indica ventana se busca desde ahora hasta el final del día siguiente.
      */
-    @PostMapping("/reservar")
-    public ResponseEntity<?> reservarTurno(@RequestBody Map<String, Object> datos) {
+    @GetMapping("/primer-disponible")
+    public ResponseEntity<?> buscarPrimerBarberoDisponible(
+            @RequestParam Long servicioId,
+            @RequestParam(required = false) String desde,
+            @RequestParam(required = false) String hasta,
+            @RequestParam(required = false) Integer cantidad) {
         try {
-            Long turnoId = Long.valueOf(datos.get("turnoId").toString());
-            
-            System.out.println("Reservando turno: " + turnoId);
-            
-            // Verificar disponibilidad
-            if (!turnoService.esTurnoDisponible(turnoId)) {
+            CorteDeCabello servicio = corteRepository.findById(servicioId).orElse(null);
+            if (servicio == null || servicio.getDuracion() == null) {
                 return ResponseEntity.badRequest()
-                    .body(Map.of("error", "El turno seleccionado ya no está disponible"));
+                    .body(Map.of("error", "Servicio no encontrado"));
             }
             
-            // Cambiar estado a NO_DISPONIBLE
-            Turno turno = turnoService.cambiarEstadoTurno(turnoId, Turno.EstadoTurno.NO_DISPONIBLE);
+            LocalDateTime ahora = LocalDateTime.now();
+            LocalDateTime inicio = desde != null ? LocalDateTime.parse(desde) : ahora;
+            if (inicio.isBefore(ahora)) {
+                inicio = ahora;
+            }
+            LocalDateTime fin = hasta != null ? LocalDateTime.parse(hasta) : inicio.toLocalDate().plusDays(2).atStartOfDay();
             
-            if (turno == null) {
+            if (!fin.isAfter(inicio)) {
                 return ResponseEntity.badRequest()
-                    .body(Map.of("error", "No se pudo reservar el turno"));
+                    .body(Map.of("error", "La ventana de búsqueda debe terminar después de su inicio"));
+            }
+            if (fin.isAfter(inicio.plusDays(busquedaConfig.getVentanaMaximaDias()))) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("error", "La ventana de búsqueda no puede superar " +
+                        busquedaConfig.getVentanaMaximaDias() + " días"));
             }
             
-            // Preparar respuesta
-            Map<String, Object> respuesta = new HashMap<>();
-            respuesta.put("mensaje", "Turno reservado con éxito");
+            int solicitados = cantidad != null ? cantidad : busquedaConfig.getResultadosPorDefecto();
+            solicitados = Math.max(1, Math.min(solicitados, busquedaConfig.getResultadosMaximos()));
             
-            Map<String, Object> turnoMap = new HashMap<>();
-            turnoMap.put("idTurno", turno.getIdTurno());
-            turnoMap.put("fechaHora", turno.getFechaHora().toString());
-            turnoMap.put("estado", turno.getEstado().toString());
+            List<BusquedaPrimerBarbero.OpcionTurno> opciones =
+                busquedaPrimerBarbero.buscar(servicio.getDuracion(), inicio, fin, solicitados);
             
-            respuesta.put("turno", turnoMap);
+            List<Map<String, Object>> turnosSimplificados = new ArrayList<>();
+            for (BusquedaPrimerBarbero.OpcionTurno opcion : opciones) {
+                Map<String, Object> turnoMap = new HashMap<>();
+                turnoMap.put("idTurno", opcion.getIdTurno());
+                turnoMap.put("fechaHora", opcion.getFechaHora().toString());
+                turnoMap.put("horaFin", opcion.getFechaHora().plusMinutes(servicio.getDuracion()).toLocalTime().toString());
+                turnoMap.put("barberoId", opcion.getIdBarbero());
+                turnoMap.put("nombreBarbero", opcion.getNombreBarbero());
+                turnosSimplificados.add(turnoMap);
+            }
             
-            return ResponseEntity.ok(respuesta);
+            return ResponseEntity.ok(Map.of(
+                "turnos", turnosSimplificados,
+                "duracionServicio", servicio.getDuracion(),
+                "nombreServicio", servicio.getNombre()
+            ));
+        } catch (java.time.format.DateTimeParseException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Formato de fecha inválido, use yyyy-MM-ddTHH:mm"));
+        } catch (Exception e) {
+            log.error("Error al buscar primer barbero disponible", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Error al buscar turnos: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Reserva un turno
+     * POST /api/turnos/reservar
+     * Header opcional Idempotency-Key: si el mismo usuario repite la petición con la
+     * misma clave se devuelve la respuesta de la primera sin volver a reservar
+     */
+    @PostMapping("/reservar")
+    public ResponseEntity<?> reservarTurno(@RequestBody Map<String, Object> datos,
+                                           @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia,
+                                           @AuthenticationPrincipal User user) {
+        try {
+            String clave = claveIdempotencia != null ? "api-reservar:" + user.getUsername() + ":" + claveIdempotencia : null;
+            return registroIdempotencia.ejecutar(clave, () -> reservarTurnoUnaVez(datos, user));
         } catch (Exception e) {
             System.out.println("Error al reservar turno: " + e.getMessage());
             e.printStackTrace();
@@ -268,34 +312,83 @@ public class TurnoApiController {
                 .body(Map.of("error", "Error al procesar la reserva: " + e.getMessage()));
         }
     }
+
+    private ResponseEntity<?> reservarTurnoUnaVez(Map<String, Object> datos, User user) {
+        Long turnoId = Long.valueOf(datos.get("turnoId").toString());
+        
+        log.debug("Reservando turno: {}", turnoId);
+        
+        // Las retenciones propias del cliente no le bloquean su reserva
+        Cliente cliente = clienteService.obtenerPorCorreo(user.getUsername());
+        Long idCliente = cliente != null ? cliente.getIdCliente() : null;
+        
+        // Reclamar el turno con las mismas reglas que una reserva
+        Turno turno;
+        try {
+            turno = turnoService.reservarTurno(turnoId, idCliente);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        
+        if (turno == null) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "No se pudo reservar el turno"));
+        }
+        
+        // Preparar respuesta
+        Map<String, Object> respuesta = new HashMap<>();
+        respuesta.put("mensaje", "Turno reservado con éxito");
+        
+        Map<String, Object> turnoMap = new HashMap<>();
+        turnoMap.put("idTurno", turno.getIdTurno());
+        turnoMap.put("fechaHora", turno.getFechaHora().toString());
+        turnoMap.put("estado", turno.getEstado().toString());
+        
+        respuesta.put("turno", turnoMap);
+        
+        return ResponseEntity.ok(respuesta);
+    }
     
     /**
-     * Genera turnos para un barbero en un rango de fechas
+     * Genera turnos para un barbero (o para todos los activos si no se indica barberoId)
+     * en un rango de fechas, con INSERT por lotes
      * POST /api/turnos/generar
      * Body: { "barberoId": 1, "fechaInicio": "2025-11-15", "fechaFin": "2025-11-30" }
      */
     @PostMapping("/generar")
     public ResponseEntity<?> generarTurnos(@RequestBody Map<String, Object> datos) {
         try {
-            Long barberoId = Long.valueOf(datos.get("barberoId").toString());
             LocalDate fechaInicio = LocalDate.parse(datos.get("fechaInicio").toString());
             LocalDate fechaFin = LocalDate.parse(datos.get("fechaFin").toString());
             
+            if (fechaFin.isBefore(fechaInicio)) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("error", "La fecha fin debe ser posterior a la fecha inicio"));
+            }
+            
+            if (datos.get("barberoId") == null) {
+                log.debug("Generando turnos para todos los barberos activos desde {} hasta {}", fechaInicio, fechaFin);
+                
+                Map<Long, Integer> generados = turnoService.generarTurnosMasivoTodos(fechaInicio, fechaFin);
+                int total = generados.values().stream().mapToInt(Integer::intValue).sum();
+                
+                return ResponseEntity.ok(Map.of(
+                    "mensaje", "Turnos generados exitosamente",
+                    "cantidad", total,
+                    "porBarbero", generados
+                ));
+            }
+            
+            Long barberoId = Long.valueOf(datos.get("barberoId").toString());
+            
             System.out.println("Generando turnos para barbero: " + barberoId + 
                 " desde " + fechaInicio + " hasta " + fechaFin);
             
-            LocalDateTime inicioTime = fechaInicio.atStartOfDay();
-            LocalDateTime finTime = fechaFin.atTime(23, 59, 59);
-            
-            List<Turno> turnosGenerados = turnoService.generarTurnosAutomaticos(
-                barberoId, 
-                inicioTime, 
-                finTime
-            );
+            int cantidad = turnoService.generarTurnosMasivo(barberoId, fechaInicio, fechaFin);
             
             return ResponseEntity.ok(Map.of(
                 "mensaje", "Turnos generados exitosamente",
-                "cantidad", turnosGenerados.size()
+                "cantidad", cantidad
             ));
         } catch (Exception e) {
             System.out.println("Error al generar turnos: " + e.getMessage());
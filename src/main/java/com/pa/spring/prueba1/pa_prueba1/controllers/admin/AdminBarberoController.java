@@ -512,10 +512,10 @@ public class AdminBarberoController {
                     return "redirect:/admin/barberos/" + id + "/turnos";
                 }
 
-                List<Turno> turnosGenerados = turnoService.generarTurnosDisponibles(barbero, fechaInicio, fechaFin);
+                int turnosGenerados = turnoService.generarTurnosMasivo(id, fechaInicio, fechaFin);
 
                 redirectAttributes.addFlashAttribute("mensaje",
-                        "✅ Se generaron " + turnosGenerados.size() + " turnos");
+                        "✅ Se generaron " + turnosGenerados + " turnos");
             } else {
                 redirectAttributes.addFlashAttribute("error", "❌ Barbero no encontrado");
             }
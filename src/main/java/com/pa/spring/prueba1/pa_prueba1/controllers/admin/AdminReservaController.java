@@ -1,5 +1,6 @@
 package com.pa.spring.prueba1.pa_prueba1.controllers.admin;
 
+import com.pa.spring.prueba1.pa_prueba1.dto.ReservaResumen;
 import com.pa.spring.prueba1.pa_prueba1.model.Reserva;
 import com.pa.spring.prueba1.pa_prueba1.service.ReservaService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,14 +33,9 @@ public class AdminReservaController {
     @GetMapping
     public String listarReservas(Model model) {
         try {
-            // Obtener todas las reservas
-            List<Reserva> reservas = reservaService.obtenerTodas();
+            // Obtener todas las reservas (solo las columnas del listado)
+            List<ReservaResumen> reservas = reservaService.listarResumenes();
             System.out.println("Número de reservas encontradas: " + reservas.size());
-            for (Reserva r : reservas) {
-                System.out.println("Reserva ID: " + r.getIdReserva() + 
-                                  ", Cliente: " + (r.getCliente() != null ? r.getCliente().getNombre() : "null") + 
-                                  ", Estado: " + r.getEstado());
-            }
             model.addAttribute("reservas", reservas); // Agregar reservas a la vista
         } catch (Exception e) {
             // En caso de error, se muestra un mensaje
@@ -66,20 +62,20 @@ public class AdminReservaController {
             @RequestParam(required = false) String estado,
             Model model) {
         
-        List<Reserva> reservas;
+        List<ReservaResumen> reservas;
         
         // Filtrar por rango de fechas
         if (fechaInicio != null && fechaFin != null) {
-            reservas = reservaService.obtenerPorRangoFechas(fechaInicio, fechaFin);
+            reservas = reservaService.listarResumenesPorRango(fechaInicio, fechaFin);
         } 
         // Filtrar por estado
         else if (estado != null && !estado.isEmpty()) {
             Reserva.EstadoReserva estadoEnum = Reserva.EstadoReserva.valueOf(estado);
-            reservas = reservaService.obtenerPorEstado(estadoEnum);
+            reservas = reservaService.listarResumenesPorEstado(estadoEnum);
         } 
         // Si no hay filtros, obtener todas las reservas
         else {
-            reservas = reservaService.obtenerTodas();
+            reservas = reservaService.listarResumenes();
         }
         
         // Agregar filtros y resultados a la vista
@@ -120,12 +116,17 @@ public class AdminReservaController {
      */
     @GetMapping("/cancelar/{id}")
     public String cancelarReserva(@PathVariable Long id, RedirectAttributes redirectAttributes) {
-        Reserva reserva = reservaService.cancelarReserva(id);
-        
-        if (reserva != null) {
-            redirectAttributes.addFlashAttribute("mensaje", "Reserva cancelada con éxito.");
-        } else {
-            redirectAttributes.addFlashAttribute("error", "No se pudo cancelar la reserva.");
+        try {
+            Reserva reserva = reservaService.cancelarReserva(id);
+            
+            if (reserva != null) {
+                redirectAttributes.addFlashAttribute("mensaje", "Reserva cancelada con éxito.");
+            } else {
+                redirectAttributes.addFlashAttribute("error", "No se pudo cancelar la reserva.");
+            }
+        } catch (IllegalStateException e) {
+            // Conflicto de concurrencia o cerrojo del barbero ocupado: el admin puede reintentar
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
         }
         
         return "redirect:/admin/reservas"; // Redirige a la lista de reservas
@@ -35,17 +35,15 @@ public class DebugTurnoController {
         info.put("inicioSemana", fechaInicio.toString());
         info.put("finSemana", fechaFin.toString());
         
-        // Total de turnos en BD
-        List<Turno> todosTurnos = turnoService.obtenerTodos();
-        info.put("totalTurnosEnBD", todosTurnos.size());
+        // Total de turnos en BD (COUNT, sin cargar la tabla)
+        info.put("totalTurnosEnBD", turnoService.contarTodos());
         
         // Turnos de la semana
         List<Turno> turnosSemana = turnoService.obtenerTurnosPorRangoFechas(fechaInicio, fechaFin);
         info.put("turnosSemana", turnosSemana.size());
         
-        // Mostrar algunos ejemplos de fechas de turnos
-        info.put("ejemplosFechas", todosTurnos.stream()
-            .limit(10)
+        // Mostrar algunos ejemplos de fechas de turnos (los 10 más recientes)
+        info.put("ejemplosFechas", turnoService.obtenerUltimos(10).stream()
             .map(t -> Map.of(
                 "id", t.getIdTurno(),
                 "fechaHora", t.getFechaHora().toString(),
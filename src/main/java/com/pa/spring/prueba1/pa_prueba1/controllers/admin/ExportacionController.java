@@ -0,0 +1,107 @@
+package com.pa.spring.prueba1.pa_prueba1.controllers.admin;
+
+import com.pa.spring.prueba1.pa_prueba1.service.exportacion.ExportacionCsv;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+
+/**
+ * Descargas CSV del admin entre dos fechas (ambas incluidas, formato yyyy-MM-dd).
+ *
+ * Se escribe directamente en la respuesta sin Content-Length, así que el
+ * contenedor la envía con Transfer-Encoding: chunked a medida que se generan
+ * las filas. Ejemplo: /admin/exportar/reservas?desde=2024-01-01&amp;hasta=2024-12-31
+ */
+@Controller
+@RequestMapping("/admin/exportar")
+public class ExportacionController {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportacionController.class);
+
+    @Autowired
+    private ExportacionCsv exportacionCsv;
+
+    @GetMapping("/reservas")
+    public void exportarReservas(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+                                 HttpServletResponse response) throws IOException {
+        if (prepararDescarga(response, "reservas", desde, hasta)) {
+            exportar(() -> exportacionCsv.exportarReservas(desde, hasta, response.getOutputStream()));
+        }
+    }
+
+    /**
+     * @param idBarbero opcional: solo los turnos de ese barbero
+     */
+    @GetMapping("/turnos")
+    public void exportarTurnos(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+                               @RequestParam(required = false) Long idBarbero,
+                               HttpServletResponse response) throws IOException {
+        String nombre = idBarbero != null ? "turnos-barbero-" + idBarbero : "turnos";
+        if (prepararDescarga(response, nombre, desde, hasta)) {
+            exportar(() -> exportacionCsv.exportarTurnos(desde, hasta, idBarbero, response.getOutputStream()));
+        }
+    }
+
+    @GetMapping("/ingresos-barberos")
+    public void exportarIngresosPorBarbero(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+                                           HttpServletResponse response) throws IOException {
+        if (prepararDescarga(response, "ingresos-barberos", desde, hasta)) {
+            exportar(() -> exportacionCsv.exportarIngresosPorBarbero(desde, hasta, response.getOutputStream()));
+        }
+    }
+
+    /**
+     * Valida el rango y pone las cabeceras de la descarga. Si el rango no es
+     * válido responde 400 (todavía no se ha escrito nada) y devuelve false.
+     */
+    private boolean prepararDescarga(HttpServletResponse response, String nombre,
+                                     LocalDate desde, LocalDate hasta) throws IOException {
+        try {
+            exportacionCsv.validarRango(desde, hasta);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return false;
+        }
+
+        response.setContentType("text/csv");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"" + nombre + "_" + desde + "_" + hasta + ".csv\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        return true;
+    }
+
+    private void exportar(Exportacion exportacion) throws IOException {
+        try {
+            exportacion.ejecutar();
+        } catch (UncheckedIOException e) {
+            // El cliente canceló la descarga: la consulta ya se cerró al propagarse la excepción
+            log.debug("Exportación interrumpida por el cliente: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            // Las cabeceras ya se enviaron: solo queda registrar el error (el CSV llega incompleto)
+            log.warn("Error durante la exportación: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Exportacion {
+        void ejecutar() throws IOException;
+    }
+}
@@ -1,6 +1,8 @@
 package com.pa.spring.prueba1.pa_prueba1.controllers.admin;
 
+import com.pa.spring.prueba1.pa_prueba1.dto.ResumenReservas;
 import com.pa.spring.prueba1.pa_prueba1.model.Reserva;
+import com.pa.spring.prueba1.pa_prueba1.repository.ReservaAgregadosRepository;
 import com.pa.spring.prueba1.pa_prueba1.repository.ReservaRepository;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -18,8 +20,12 @@ public class ReportesController {
 
     private final ReservaRepository reservaRepository;
 
-    public ReportesController(ReservaRepository reservaRepository) {
+    private final ReservaAgregadosRepository reservaAgregadosRepository;
+
+    public ReportesController(ReservaRepository reservaRepository,
+                              ReservaAgregadosRepository reservaAgregadosRepository) {
         this.reservaRepository = reservaRepository;
+        this.reservaAgregadosRepository = reservaAgregadosRepository;
     }
 
     @GetMapping
@@ -37,30 +43,19 @@ public String reportesSemanal(Model model) {
     System.out.println("Inicio semana: " + inicioSemanaTime);
     System.out.println("Fin semana: " + finSemanaTime);
 
-    // Obtén TODAS las reservas primero para verificar
-    List<Reserva> todasLasReservas = reservaRepository.findAll();
-    System.out.println("Total de reservas en BD: " + todasLasReservas.size());
-    
-    // Imprime las fechas de cada reserva SIN usar getId()
-    todasLasReservas.forEach(r -> 
-        System.out.println("Reserva - Fecha: " + r.getFechaHoraTurno() + " - Estado: " + r.getEstado())
-    );
-
     List<Reserva> reservasSemana =
             reservaRepository.findByFechaHoraTurnoBetween(inicioSemanaTime, finSemanaTime);
 
     System.out.println("Reservas encontradas en el rango: " + reservasSemana.size());
     System.out.println("======================");
 
-    long totalReservas = reservasSemana.size();
-    long reservasCompletadas = reservasSemana.stream()
-            .filter(r -> r.getEstado() == Reserva.EstadoReserva.COMPLETADA)
-            .count();
+    // Totales calculados en la base de datos (no recorren la lista)
+    ResumenReservas resumen = reservaAgregadosRepository.resumenPorRango(
+            inicioSemanaTime, inicioSemana.plusDays(7).atStartOfDay());
 
-    double ingresoTotal = reservasSemana.stream()
-            .filter(r -> r.getEstado() == Reserva.EstadoReserva.COMPLETADA && r.getCorte() != null)
-            .mapToDouble(r -> r.getCorte().getPrecio())
-            .sum();
+    long totalReservas = resumen.getTotal();
+    long reservasCompletadas = resumen.getCompletadas();
+    double ingresoTotal = resumen.getIngresos();
 
     long tiempoTotalMinutos = reservasCompletadas * 30;
     long horas = tiempoTotalMinutos / 60;
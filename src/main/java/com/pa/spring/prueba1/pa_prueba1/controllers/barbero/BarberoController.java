@@ -1,8 +1,7 @@
 package com.pa.spring.prueba1.pa_prueba1.controllers.barbero;
 
+import com.pa.spring.prueba1.pa_prueba1.dto.ResumenPanelBarbero;
 import com.pa.spring.prueba1.pa_prueba1.model.Barbero;
-import com.pa.spring.prueba1.pa_prueba1.model.Reserva;
-import com.pa.spring.prueba1.pa_prueba1.model.SolicitudAusencia;
 import com.pa.spring.prueba1.pa_prueba1.service.barbero.BarberoService;
 
 import org.springframework.security.core.Authentication;
@@ -11,10 +10,7 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 @Controller
 @RequestMapping("/barbero")
@@ -45,34 +41,17 @@ public class BarberoController {
                 return "barbero/panel";
             }
 
-            // --- Estadísticas ---
-            LocalDateTime inicioHoy = LocalDate.now().atStartOfDay();
-            LocalDateTime finHoy = inicioHoy.plusDays(1);
+            // --- Estadísticas (una consulta agregada) ---
+            ResumenPanelBarbero resumen = barberoService.obtenerResumenPanel(barbero.getIdBarbero());
 
-            List<Reserva> reservasSemana = barberoService.obtenerReservasSemanaActual(barbero.getIdBarbero());
+            long reservasHoy = resumen.getReservasHoy();
+            long reservasSemanaActivas = resumen.getReservasSemana();
 
-            long reservasHoy = reservasSemana.stream()
-                    .filter(r -> r.getFechaHoraTurno().isAfter(inicioHoy)
-                            && r.getFechaHoraTurno().isBefore(finHoy)
-                            && r.getEstado() != Reserva.EstadoReserva.CANCELADA)
-                    .count();
+            String proximaReserva = resumen.getProximaReserva() != null
+                    ? resumen.getProximaReserva().format(DateTimeFormatter.ofPattern("HH:mm"))
+                    : "--:--";
 
-            long reservasSemanaActivas = reservasSemana.stream()
-                    .filter(r -> r.getEstado() != Reserva.EstadoReserva.CANCELADA)
-                    .count();
-
-            String proximaReserva = reservasSemana.stream()
-                    .filter(r -> r.getFechaHoraTurno().isAfter(LocalDateTime.now())
-                            && r.getEstado() != Reserva.EstadoReserva.CANCELADA)
-                    .sorted((r1, r2) -> r1.getFechaHoraTurno().compareTo(r2.getFechaHoraTurno()))
-                    .findFirst()
-                    .map(r -> r.getFechaHoraTurno().format(DateTimeFormatter.ofPattern("HH:mm")))
-                    .orElse("--:--");
-
-            long solicitudesPendientes = barberoService.obtenerSolicitudesBarbero(barbero.getIdBarbero())
-                    .stream()
-                    .filter(s -> s.getEstado() == SolicitudAusencia.EstadoSolicitud.PENDIENTE)
-                    .count();
+            long solicitudesPendientes = barberoService.contarSolicitudesPendientes(barbero.getIdBarbero());
 
             // --- Datos al modelo ---
             model.addAttribute("nombreBarbero", barbero.getNombre());
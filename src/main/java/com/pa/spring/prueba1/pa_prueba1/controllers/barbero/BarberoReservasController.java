@@ -1,5 +1,6 @@
 package com.pa.spring.prueba1.pa_prueba1.controllers.barbero;
 
+import com.pa.spring.prueba1.pa_prueba1.dto.ReservaResumen;
 import com.pa.spring.prueba1.pa_prueba1.model.Barbero;
 import com.pa.spring.prueba1.pa_prueba1.model.Reserva;
 import com.pa.spring.prueba1.pa_prueba1.service.barbero.BarberoService;
@@ -15,7 +16,6 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAdjusters;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Controller
 @RequestMapping("/barbero/reservas")
@@ -89,37 +89,18 @@ public class BarberoReservasController {
                     System.out.println("Filtro HOY - Inicio: " + inicioFiltro + " | Fin: " + finFiltro);
             }
 
-            // IMPORTANTE: Obtener TODAS las reservas del barbero (sin filtrar por fecha en el servicio)
-            List<Reserva> todasReservas = barberoService.obtenerTodasReservasBarbero(barbero.getIdBarbero());
-            System.out.println("Total de reservas obtenidas del servicio: " + todasReservas.size());
-            
-            // Debug: Imprimir fechas de todas las reservas
-            System.out.println("Fechas de las reservas:");
-            for (Reserva r : todasReservas) {
-                System.out.println("  - Reserva ID " + r.getIdReserva() + ": " + r.getFechaHoraTurno());
-            }
-            
-            // Filtrar las reservas según el período seleccionado EN EL CONTROLLER
-            List<Reserva> reservasFiltradas = todasReservas.stream()
-                    .filter(r -> r.getFechaHoraTurno() != null) // Validar que no sea null
-                    .filter(r -> !r.getFechaHoraTurno().isBefore(inicioFiltro) 
-                            && r.getFechaHoraTurno().isBefore(finFiltro))
-                    .sorted(Comparator.comparing(Reserva::getFechaHoraTurno))
-                    .collect(Collectors.toList());
-            
-            System.out.println("Reservas después del filtro: " + reservasFiltradas.size());
+            // Solo las reservas del período, ya ordenadas y sin cargar las entidades relacionadas
+            List<ReservaResumen> reservasFiltradas = barberoService.listarResumenesReservas(
+                    barbero.getIdBarbero(), inicioFiltro, finFiltro);
+
+            System.out.println("Reservas del período: " + reservasFiltradas.size());
             System.out.println("===================================");
 
-            // Calcular estadísticas sobre TODAS las reservas (no solo las filtradas)
-            long reservasCompletadas = todasReservas.stream()
-                    .filter(r -> r.getEstado() == Reserva.EstadoReserva.COMPLETADA)
-                    .count();
-            long reservasPendientes = todasReservas.stream()
-                    .filter(r -> r.getEstado() == Reserva.EstadoReserva.PENDIENTE)
-                    .count();
-            long reservasCanceladas = todasReservas.stream()
-                    .filter(r -> r.getEstado() == Reserva.EstadoReserva.CANCELADA)
-                    .count();
+            // Estadísticas sobre TODAS las reservas (no solo las filtradas), contadas en la BD
+            Map<Reserva.EstadoReserva, Long> conteoPorEstado = barberoService.contarReservasPorEstado(barbero.getIdBarbero());
+            long reservasCompletadas = conteoPorEstado.get(Reserva.EstadoReserva.COMPLETADA);
+            long reservasPendientes = conteoPorEstado.get(Reserva.EstadoReserva.PENDIENTE);
+            long reservasCanceladas = conteoPorEstado.get(Reserva.EstadoReserva.CANCELADA);
 
             // Atributos del modelo
             model.addAttribute("nombreBarbero", barbero.getNombre() != null ? barbero.getNombre() : "Barbero");
@@ -1,8 +1,10 @@
 package com.pa.spring.prueba1.pa_prueba1.controllers.barbero;
 
+import com.pa.spring.prueba1.pa_prueba1.dto.EstadisticaDia;
+import com.pa.spring.prueba1.pa_prueba1.dto.ServicioPeriodo;
 import com.pa.spring.prueba1.pa_prueba1.model.Barbero;
-import com.pa.spring.prueba1.pa_prueba1.model.Reserva;
 import com.pa.spring.prueba1.pa_prueba1.service.barbero.BarberoService;
+import com.pa.spring.prueba1.pa_prueba1.service.estadisticas.EstadisticasDiarias;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -11,9 +13,9 @@ import org.springframework.web.bind.annotation.*;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.TextStyle;
 import java.util.*;
-import java.util.stream.Collectors;
 import java.util.Locale;
 
 @Controller
@@ -22,8 +24,11 @@ public class EstadisticasController {
 
     private final BarberoService barberoService;
 
-    public EstadisticasController(BarberoService barberoService) {
+    private final EstadisticasDiarias estadisticasDiarias;
+
+    public EstadisticasController(BarberoService barberoService, EstadisticasDiarias estadisticasDiarias) {
         this.barberoService = barberoService;
+        this.estadisticasDiarias = estadisticasDiarias;
     }
 
     private Barbero obtenerBarberoActual(Authentication auth) {
@@ -36,106 +41,65 @@ public class EstadisticasController {
         try {
             Barbero barbero = obtenerBarberoActual(auth);
             
-            // Calcular fechas según el período
-            LocalDateTime fechaInicio = calcularFechaInicio(periodo);
-            LocalDateTime fechaFin = LocalDateTime.now();
-            
-            // Obtener reservas del período
-            List<Reserva> reservas = barberoService.obtenerReservasPorRangoFechas(
-                barbero.getIdBarbero(), fechaInicio, fechaFin);
+            Long idBarbero = barbero.getIdBarbero();
 
-            // ========== MÉTRICAS PRINCIPALES ==========
-            long totalCortes = reservas.stream()
-                    .filter(r -> r.getEstado() == Reserva.EstadoReserva.COMPLETADA)
-                    .count();
+            // Calcular fechas según el período (días completos: el de hoy incluido)
+            LocalDate fechaInicio = calcularFechaInicio(periodo).toLocalDate();
+            LocalDate fechaFin = LocalDate.now();
 
-            double ingresosGenerados = reservas.stream()
-                    .filter(r -> r.getEstado() == Reserva.EstadoReserva.COMPLETADA)
-                    .mapToDouble(r -> r.getCorte() != null ? r.getCorte().getPrecio() : 0.0)
-                    .sum();
+            // Resumen diario precalculado del período (una fila por día con actividad)
+            List<EstadisticaDia> dias = estadisticasDiarias.listarDias(idBarbero, fechaInicio, fechaFin);
+            EstadisticaDia totales = EstadisticasDiarias.sumar(dias);
 
-            long clientesAtendidos = reservas.stream()
-                    .filter(r -> r.getEstado() == Reserva.EstadoReserva.COMPLETADA)
-                    .map(r -> r.getCliente() != null ? r.getCliente().getIdCliente() : null)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .count();
+            // ========== MÉTRICAS PRINCIPALES ==========
+            long totalCortes = totales.getCompletadas();
+            double ingresosGenerados = totales.getIngresos();
+            long clientesAtendidos = estadisticasDiarias.contarClientesAtendidos(idBarbero, fechaInicio, fechaFin);
 
             // Calcular porcentaje de cambio vs período anterior
-            LocalDateTime fechaInicioAnterior = calcularFechaInicioAnterior(periodo);
-            List<Reserva> reservasAnterior = barberoService.obtenerReservasPorRangoFechas(
-                barbero.getIdBarbero(), fechaInicioAnterior, fechaInicio);
-            
-            long cortesAnterior = reservasAnterior.stream()
-                    .filter(r -> r.getEstado() == Reserva.EstadoReserva.COMPLETADA)
-                    .count();
-            
+            LocalDate fechaInicioAnterior = calcularFechaInicioAnterior(periodo).toLocalDate();
+            EstadisticaDia totalesAnterior = estadisticasDiarias.totales(
+                idBarbero, fechaInicioAnterior, fechaInicio.minusDays(1));
+
+            long cortesAnterior = totalesAnterior.getCompletadas();
+
             double cambioCortes = cortesAnterior > 0 ? 
                 ((double)(totalCortes - cortesAnterior) / cortesAnterior) * 100 : 0;
 
-            double ingresosAnterior = reservasAnterior.stream()
-                    .filter(r -> r.getEstado() == Reserva.EstadoReserva.COMPLETADA)
-                    .mapToDouble(r -> r.getCorte() != null ? r.getCorte().getPrecio() : 0.0)
-                    .sum();
-            
+            double ingresosAnterior = totalesAnterior.getIngresos();
+
             double cambioIngresos = ingresosAnterior > 0 ? 
                 ((ingresosGenerados - ingresosAnterior) / ingresosAnterior) * 100 : 0;
 
             // ========== CORTES POR DÍA ==========
-            Map<String, Long> cortesPorDia = calcularCortesPorDia(reservas, periodo);
+            Map<String, Long> cortesPorDia = calcularCortesPorDia(dias, periodo);
 
-            // ========== SERVICIOS MÁS SOLICITADOS ==========
-            Map<String, Long> serviciosSolicitados = reservas.stream()
-                    .filter(r -> r.getEstado() == Reserva.EstadoReserva.COMPLETADA)
-                    .filter(r -> r.getCorte() != null)
-                    .collect(Collectors.groupingBy(
-                        r -> r.getCorte().getNombre(),
-                        Collectors.counting()
-                    ));
+            // ========== SERVICIOS MÁS SOLICITADOS (ya ordenados) ==========
+            List<ServicioPeriodo> servicios = estadisticasDiarias.listarServicios(idBarbero, fechaInicio, fechaFin);
+            Map<String, Long> serviciosSolicitados = new LinkedHashMap<>();
+            for (ServicioPeriodo servicio : servicios) {
+                serviciosSolicitados.put(servicio.getNombre(), (long) servicio.getCantidad());
+            }
 
             // ========== TOP SERVICIOS CON INGRESOS ==========
-            Map<String, Map<String, Object>> topServicios = reservas.stream()
-                    .filter(r -> r.getEstado() == Reserva.EstadoReserva.COMPLETADA)
-                    .filter(r -> r.getCorte() != null)
-                    .collect(Collectors.groupingBy(
-                        r -> r.getCorte().getNombre(),
-                        Collectors.collectingAndThen(
-                            Collectors.toList(),
-                            lista -> {
-                                Map<String, Object> stats = new HashMap<>();
-                                stats.put("cantidad", lista.size());
-                                stats.put("ingresos", lista.stream()
-                                    .mapToDouble(r -> r.getCorte().getPrecio())
-                                    .sum());
-                                return stats;
-                            }
-                        )
-                    ))
-                    .entrySet().stream()
-                    .sorted((e1, e2) -> {
-                        int cant1 = (Integer) e1.getValue().get("cantidad");
-                        int cant2 = (Integer) e2.getValue().get("cantidad");
-                        return Integer.compare(cant2, cant1);
-                    })
-                    .limit(4)
-                    .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (e1, e2) -> e1,
-                        LinkedHashMap::new
-                    ));
+            Map<String, Map<String, Object>> topServicios = new LinkedHashMap<>();
+            for (ServicioPeriodo servicio : servicios.subList(0, Math.min(4, servicios.size()))) {
+                Map<String, Object> stats = new HashMap<>();
+                stats.put("cantidad", servicio.getCantidad());
+                stats.put("ingresos", servicio.getIngresos());
+                topServicios.put(servicio.getNombre(), stats);
+            }
 
             // ========== HORARIOS MÁS OCUPADOS ==========
-            Map<String, Long> horariosMasOcupados = reservas.stream()
-                    .filter(r -> r.getEstado() == Reserva.EstadoReserva.COMPLETADA || 
-                                 r.getEstado() == Reserva.EstadoReserva.PENDIENTE)
-                    .collect(Collectors.groupingBy(
-                        r -> obtenerRangoHorario(r.getFechaHoraTurno()),
-                        Collectors.counting()
-                    ));
+            Map<String, Long> horariosMasOcupados = new LinkedHashMap<>();
+            for (int i = 0; i < EstadisticaDia.FRANJAS.length; i++) {
+                if (totales.getFranjas()[i] > 0) {
+                    horariosMasOcupados.put(EstadisticaDia.FRANJAS[i], (long) totales.getFranjas()[i]);
+                }
+            }
 
             // ========== INGRESOS MENSUALES (últimos 6 meses) ==========
-            Map<String, Double> ingresosMensuales = calcularIngresosMensuales(barbero.getIdBarbero());
+            Map<String, Double> ingresosMensuales = calcularIngresosMensuales(idBarbero);
 
             // ========== OBJETIVOS DEL MES ==========
             int objetivoCortes = 60;
@@ -234,66 +198,43 @@ public class EstadisticasController {
         }
     }
 
-    private Map<String, Long> calcularCortesPorDia(List<Reserva> reservas, String periodo) {
+    private Map<String, Long> calcularCortesPorDia(List<EstadisticaDia> dias, String periodo) {
         Map<String, Long> resultado = new LinkedHashMap<>();
         
         if (periodo.equals("semana")) {
-            DayOfWeek[] dias = {DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, 
-                                DayOfWeek.THURSDAY, DayOfWeek.FRIDAY, DayOfWeek.SATURDAY, DayOfWeek.SUNDAY};
-            
-            for (DayOfWeek dia : dias) {
-                String nombreDia = dia.getDisplayName(TextStyle.SHORT, new Locale("es", "ES"));
-                long count = reservas.stream()
-                        .filter(r -> r.getEstado() == Reserva.EstadoReserva.COMPLETADA)
-                        .filter(r -> r.getFechaHoraTurno().getDayOfWeek() == dia)
-                        .count();
+            DayOfWeek[] diasSemana = {DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, 
+                                      DayOfWeek.THURSDAY, DayOfWeek.FRIDAY, DayOfWeek.SATURDAY, DayOfWeek.SUNDAY};
+            
+            for (DayOfWeek diaSemana : diasSemana) {
+                String nombreDia = diaSemana.getDisplayName(TextStyle.SHORT, new Locale("es", "ES"));
+                long count = dias.stream()
+                        .filter(d -> d.getDia().getDayOfWeek() == diaSemana)
+                        .mapToLong(EstadisticaDia::getCompletadas)
+                        .sum();
                 resultado.put(nombreDia, count);
             }
         } else {
-            resultado = reservas.stream()
-                    .filter(r -> r.getEstado() == Reserva.EstadoReserva.COMPLETADA)
-                    .collect(Collectors.groupingBy(
-                        r -> r.getFechaHoraTurno().toLocalDate().toString(),
-                        LinkedHashMap::new,
-                        Collectors.counting()
-                    ));
+            for (EstadisticaDia dia : dias) {
+                if (dia.getCompletadas() > 0) {
+                    resultado.put(dia.getDia().toString(), (long) dia.getCompletadas());
+                }
+            }
         }
         
         return resultado;
     }
 
-    private String obtenerRangoHorario(LocalDateTime fechaHora) {
-        int hora = fechaHora.getHour();
-        if (hora >= 8 && hora < 10) return "8-10am";
-        if (hora >= 10 && hora < 12) return "10-12pm";
-        if (hora >= 12 && hora < 14) return "12-2pm";
-        if (hora >= 14 && hora < 16) return "2-4pm";
-        if (hora >= 16 && hora < 18) return "4-6pm";
-        if (hora >= 18 && hora < 20) return "6-8pm";
-        return "Otro";
-    }
-
     private Map<String, Double> calcularIngresosMensuales(Long idBarbero) {
         Map<String, Double> ingresos = new LinkedHashMap<>();
-        LocalDate ahora = LocalDate.now();
+        YearMonth actual = YearMonth.now();
+        Map<YearMonth, Double> porMes = estadisticasDiarias.ingresosPorMes(idBarbero, actual.minusMonths(5), actual);
         
         for (int i = 5; i >= 0; i--) {
-            LocalDate mes = ahora.minusMonths(i);
-            LocalDateTime inicio = mes.withDayOfMonth(1).atStartOfDay();
-            LocalDateTime fin = mes.withDayOfMonth(mes.lengthOfMonth()).atTime(23, 59, 59);
-            
-            List<Reserva> reservasMes = barberoService.obtenerReservasPorRangoFechas(idBarbero, inicio, fin);
-            
-            double ingresoMes = reservasMes.stream()
-                    .filter(r -> r.getEstado() == Reserva.EstadoReserva.COMPLETADA)
-                    .filter(r -> r.getCorte() != null)
-                    .mapToDouble(r -> r.getCorte().getPrecio())
-                    .sum();
-            
+            YearMonth mes = actual.minusMonths(i);
             String nombreMes = mes.getMonth().getDisplayName(TextStyle.SHORT, new Locale("es", "ES"));
-            ingresos.put(nombreMes, ingresoMes);
+            ingresos.put(nombreMes, porMes.getOrDefault(mes, 0.0));
         }
         
         return ingresos;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package com.pa.spring.prueba1.pa_prueba1.dto;
+
+import com.pa.spring.prueba1.pa_prueba1.model.Reserva;
+
+import lombok.Getter;
+
+import java.time.YearMonth;
+
+/**
+ * Reservas e importe de un cliente agrupados por estado, servicio, barbero y mes.
+ * De estas filas sale todo el panel de mis-reservas (ver {@link ResumenCliente}).
+ */
+@Getter
+public class ActividadCliente {
+
+    /** Consulta base: añadir WHERE sobre r y {@link #GROUP_BY} */
+    public static final String SELECT =
+        "SELECT new com.pa.spring.prueba1.pa_prueba1.dto.ActividadCliente(" +
+        "r.estado, co.id, co.nombre, b.idBarbero, b.nombre, " +
+        "YEAR(r.fechaHoraTurno), MONTH(r.fechaHoraTurno), COUNT(r), SUM(co.precio)) " +
+        "FROM Reserva r LEFT JOIN r.corte co LEFT JOIN r.barbero b ";
+
+    public static final String GROUP_BY =
+        "GROUP BY r.estado, co.id, co.nombre, b.idBarbero, b.nombre, " +
+        "YEAR(r.fechaHoraTurno), MONTH(r.fechaHoraTurno)";
+
+    private final Reserva.EstadoReserva estado;
+    private final Long idCorte;
+    private final String nombreCorte;
+    private final Long idBarbero;
+    private final String nombreBarbero;
+    /** Mes del turno, o null si la reserva no tiene fecha de turno */
+    private final YearMonth mes;
+    private final long cantidad;
+    private final double importe;
+
+    public ActividadCliente(Reserva.EstadoReserva estado, Long idCorte, String nombreCorte,
+                            Long idBarbero, String nombreBarbero,
+                            Number anio, Number mes, Number cantidad, Number importe) {
+        this.estado = estado;
+        this.idCorte = idCorte;
+        this.nombreCorte = nombreCorte;
+        this.idBarbero = idBarbero;
+        this.nombreBarbero = nombreBarbero;
+        this.mes = anio != null && mes != null ? YearMonth.of(anio.intValue(), mes.intValue()) : null;
+        this.cantidad = cantidad != null ? cantidad.longValue() : 0;
+        this.importe = importe != null ? importe.doubleValue() : 0;
+    }
+}
@@ -0,0 +1,34 @@
+package com.pa.spring.prueba1.pa_prueba1.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Fila de estadistica_barbero_dia: lo que hizo un barbero en un día, o la suma
+ * de varios días (dia = null).
+ */
+@Getter
+public class EstadisticaDia {
+
+    /** Etiquetas de las franjas horarias, en el orden de {@link #getFranjas()} */
+    public static final String[] FRANJAS = {"8-10am", "10-12pm", "12-2pm", "2-4pm", "4-6pm", "6-8pm", "Otro"};
+
+    private final LocalDate dia;
+    private final int completadas;
+    private final int canceladas;
+    private final double ingresos;
+    private final int clientesDistintos;
+    /** Reservas activas (pendientes o completadas) que empiezan en cada franja */
+    private final int[] franjas;
+
+    public EstadisticaDia(LocalDate dia, int completadas, int canceladas, double ingresos,
+                          int clientesDistintos, int[] franjas) {
+        this.dia = dia;
+        this.completadas = completadas;
+        this.canceladas = canceladas;
+        this.ingresos = ingresos;
+        this.clientesDistintos = clientesDistintos;
+        this.franjas = franjas;
+    }
+}
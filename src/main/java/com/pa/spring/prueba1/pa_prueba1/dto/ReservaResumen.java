@@ -0,0 +1,101 @@
+package com.pa.spring.prueba1.pa_prueba1.dto;
+
+import com.pa.spring.prueba1.pa_prueba1.model.Reserva;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila de los listados de reservas (admin, barbero y mis-reservas), cargada con
+ * una expresión constructora en ReservaRepository en lugar de la entidad.
+ *
+ * Solo lleva las columnas que se muestran: nada de contraseñas, horarios del
+ * barbero ni turnos. Los datos relacionados se agrupan en cliente, barbero y
+ * corte para que las vistas sigan usando reserva.cliente.nombre, etc.; son null
+ * si la reserva no tiene esa relación.
+ */
+@Getter
+public class ReservaResumen {
+
+    /** Columnas de la expresión constructora (mismo orden que el constructor) */
+    public static final String COLUMNAS =
+        "r.idReserva, r.fechaHoraReserva, r.fechaHoraTurno, r.estado, r.comentarios, " +
+        "c.idCliente, c.nombre, c.correo, c.telefono, " +
+        "b.idBarbero, b.nombre, " +
+        "co.id, co.nombre, co.precio, co.duracion";
+
+    /** Consulta base: añadir WHERE / ORDER BY sobre r */
+    public static final String SELECT =
+        "SELECT new com.pa.spring.prueba1.pa_prueba1.dto.ReservaResumen(" + COLUMNAS + ") " +
+        "FROM Reserva r LEFT JOIN r.cliente c LEFT JOIN r.barbero b LEFT JOIN r.corte co ";
+
+    private final Long idReserva;
+    private final LocalDateTime fechaHoraReserva;
+    private final LocalDateTime fechaHoraTurno;
+    private final Reserva.EstadoReserva estado;
+    private final String comentarios;
+    private final ClienteResumen cliente;
+    private final BarberoResumen barbero;
+    private final CorteResumen corte;
+
+    public ReservaResumen(Long idReserva, LocalDateTime fechaHoraReserva, LocalDateTime fechaHoraTurno,
+                          Reserva.EstadoReserva estado, String comentarios,
+                          Long idCliente, String nombreCliente, String correoCliente, String telefonoCliente,
+                          Long idBarbero, String nombreBarbero,
+                          Long idCorte, String nombreCorte, Double precioCorte, Integer duracionCorte) {
+        this.idReserva = idReserva;
+        this.fechaHoraReserva = fechaHoraReserva;
+        this.fechaHoraTurno = fechaHoraTurno;
+        this.estado = estado;
+        this.comentarios = comentarios;
+        this.cliente = idCliente != null
+            ? new ClienteResumen(idCliente, nombreCliente, correoCliente, telefonoCliente) : null;
+        this.barbero = idBarbero != null ? new BarberoResumen(idBarbero, nombreBarbero) : null;
+        this.corte = idCorte != null ? new CorteResumen(idCorte, nombreCorte, precioCorte, duracionCorte) : null;
+    }
+
+    @Getter
+    public static class ClienteResumen {
+
+        private final Long idCliente;
+        private final String nombre;
+        private final String correo;
+        private final String telefono;
+
+        ClienteResumen(Long idCliente, String nombre, String correo, String telefono) {
+            this.idCliente = idCliente;
+            this.nombre = nombre;
+            this.correo = correo;
+            this.telefono = telefono;
+        }
+    }
+
+    @Getter
+    public static class BarberoResumen {
+
+        private final Long idBarbero;
+        private final String nombre;
+
+        BarberoResumen(Long idBarbero, String nombre) {
+            this.idBarbero = idBarbero;
+            this.nombre = nombre;
+        }
+    }
+
+    @Getter
+    public static class CorteResumen {
+
+        private final Long id;
+        private final String nombre;
+        private final Double precio;
+        private final Integer duracion;
+
+        CorteResumen(Long id, String nombre, Double precio, Integer duracion) {
+            this.id = id;
+            this.nombre = nombre;
+            this.precio = precio;
+            this.duracion = duracion;
+        }
+    }
+}
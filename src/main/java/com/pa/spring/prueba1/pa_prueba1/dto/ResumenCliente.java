@@ -0,0 +1,107 @@
+package com.pa.spring.prueba1.pa_prueba1.dto;
+
+import com.pa.spring.prueba1.pa_prueba1.model.Reserva;
+
+import lombok.Getter;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Estadísticas y gráficos de mis-reservas, calculados en memoria a partir de las
+ * filas de {@link ActividadCliente} (una sola consulta agregada por petición).
+ */
+@Getter
+public class ResumenCliente {
+
+    private static final Comparator<TotalPorNombre> POR_USO =
+        Comparator.comparingLong(TotalPorNombre::getCantidad).reversed()
+            .thenComparing(TotalPorNombre::getNombre, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final long completadas;
+    private final long pendientes;
+    /** Suma del precio de los servicios completados */
+    private final double gastado;
+    /** Servicios completados, del más al menos usado */
+    private final List<TotalPorNombre> servicios;
+    /** Barberos de los servicios completados, del que más atendió al que menos */
+    private final List<TotalPorNombre> barberos;
+    /** Servicios completados por mes desde el mes indicado, en orden cronológico */
+    private final List<TotalPorMes> meses;
+
+    private ResumenCliente(long completadas, long pendientes, double gastado, List<TotalPorNombre> servicios,
+                           List<TotalPorNombre> barberos, List<TotalPorMes> meses) {
+        this.completadas = completadas;
+        this.pendientes = pendientes;
+        this.gastado = gastado;
+        this.servicios = servicios;
+        this.barberos = barberos;
+        this.meses = meses;
+    }
+
+    public static ResumenCliente de(List<ActividadCliente> filas, YearMonth desdeMes) {
+        long completadas = 0;
+        long pendientes = 0;
+        double gastado = 0;
+        Map<Long, Acumulado> servicios = new LinkedHashMap<>();
+        Map<Long, Acumulado> barberos = new LinkedHashMap<>();
+        Map<YearMonth, Acumulado> meses = new TreeMap<>();
+
+        for (ActividadCliente fila : filas) {
+            if (fila.getEstado() == Reserva.EstadoReserva.PENDIENTE) {
+                pendientes += fila.getCantidad();
+            }
+            if (fila.getEstado() != Reserva.EstadoReserva.COMPLETADA) {
+                continue;
+            }
+            completadas += fila.getCantidad();
+            gastado += fila.getImporte();
+            if (fila.getIdCorte() != null) {
+                servicios.computeIfAbsent(fila.getIdCorte(), id -> new Acumulado(fila.getNombreCorte())).sumar(fila);
+            }
+            if (fila.getIdBarbero() != null) {
+                barberos.computeIfAbsent(fila.getIdBarbero(), id -> new Acumulado(fila.getNombreBarbero())).sumar(fila);
+            }
+            if (fila.getMes() != null && !fila.getMes().isBefore(desdeMes)) {
+                meses.computeIfAbsent(fila.getMes(), mes -> new Acumulado(null)).sumar(fila);
+            }
+        }
+
+        List<TotalPorMes> totalesPorMes = new ArrayList<>();
+        meses.forEach((mes, total) ->
+            totalesPorMes.add(new TotalPorMes(mes.getYear(), mes.getMonthValue(), total.cantidad, total.importe)));
+
+        return new ResumenCliente(completadas, pendientes, gastado,
+            ordenarPorUso(servicios), ordenarPorUso(barberos), totalesPorMes);
+    }
+
+    private static List<TotalPorNombre> ordenarPorUso(Map<Long, Acumulado> acumulados) {
+        List<TotalPorNombre> totales = new ArrayList<>();
+        for (Acumulado acumulado : acumulados.values()) {
+            totales.add(new TotalPorNombre(acumulado.nombre, acumulado.cantidad, acumulado.importe));
+        }
+        totales.sort(POR_USO);
+        return totales;
+    }
+
+    private static class Acumulado {
+
+        private final String nombre;
+        private long cantidad;
+        private double importe;
+
+        Acumulado(String nombre) {
+            this.nombre = nombre;
+        }
+
+        void sumar(ActividadCliente fila) {
+            cantidad += fila.getCantidad();
+            importe += fila.getImporte();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.pa.spring.prueba1.pa_prueba1.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Contadores del panel del barbero para la semana actual
+ */
+@Getter
+public class ResumenPanelBarbero {
+
+    /** Reservas no canceladas de hoy */
+    private final long reservasHoy;
+    /** Reservas no canceladas de la semana */
+    private final long reservasSemana;
+    /** Próxima reserva no cancelada de la semana, o null */
+    private final LocalDateTime proximaReserva;
+
+    public ResumenPanelBarbero(Number reservasHoy, Number reservasSemana, LocalDateTime proximaReserva) {
+        this.reservasHoy = reservasHoy != null ? reservasHoy.longValue() : 0;
+        this.reservasSemana = reservasSemana != null ? reservasSemana.longValue() : 0;
+        this.proximaReserva = proximaReserva;
+    }
+}
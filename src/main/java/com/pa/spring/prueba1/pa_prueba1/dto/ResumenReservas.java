@@ -0,0 +1,53 @@
+package com.pa.spring.prueba1.pa_prueba1.dto;
+
+import lombok.Getter;
+
+/**
+ * Conteos e ingresos de un conjunto de reservas, calculados en una sola consulta
+ * agregada (ver ReservaAgregadosRepository).
+ *
+ * El constructor recibe Number porque el tipo de SUM/COUNT depende de la
+ * expresión; SUM sobre cero filas llega como null y se guarda como 0.
+ */
+@Getter
+public class ResumenReservas {
+
+    /** Columnas de la expresión constructora sobre Reserva r y su corte co (mismo orden que el constructor) */
+    public static final String COLUMNAS =
+        "COUNT(r), " +
+        "SUM(CASE WHEN r.estado = com.pa.spring.prueba1.pa_prueba1.model.Reserva$EstadoReserva.PENDIENTE THEN 1 ELSE 0 END), " +
+        "SUM(CASE WHEN r.estado = com.pa.spring.prueba1.pa_prueba1.model.Reserva$EstadoReserva.COMPLETADA THEN 1 ELSE 0 END), " +
+        "SUM(CASE WHEN r.estado = com.pa.spring.prueba1.pa_prueba1.model.Reserva$EstadoReserva.CANCELADA THEN 1 ELSE 0 END), " +
+        "SUM(CASE WHEN r.estado = com.pa.spring.prueba1.pa_prueba1.model.Reserva$EstadoReserva.COMPLETADA THEN co.precio ELSE 0 END), " +
+        "COUNT(DISTINCT CASE WHEN r.estado = com.pa.spring.prueba1.pa_prueba1.model.Reserva$EstadoReserva.COMPLETADA " +
+        "THEN r.cliente.idCliente END)";
+
+    /** Consulta base: añadir WHERE sobre r */
+    public static final String SELECT =
+        "SELECT new com.pa.spring.prueba1.pa_prueba1.dto.ResumenReservas(" + COLUMNAS + ") " +
+        "FROM Reserva r LEFT JOIN r.corte co ";
+
+    private final long total;
+    private final long pendientes;
+    private final long completadas;
+    private final long canceladas;
+    /** Suma del precio de los servicios completados */
+    private final double ingresos;
+    /** Clientes distintos con alguna reserva completada */
+    private final long clientesAtendidos;
+
+    public ResumenReservas(Number total, Number pendientes, Number completadas, Number canceladas,
+                           Number ingresos, Number clientesAtendidos) {
+        this.total = total != null ? total.longValue() : 0;
+        this.pendientes = pendientes != null ? pendientes.longValue() : 0;
+        this.completadas = completadas != null ? completadas.longValue() : 0;
+        this.canceladas = canceladas != null ? canceladas.longValue() : 0;
+        this.ingresos = ingresos != null ? ingresos.doubleValue() : 0;
+        this.clientesAtendidos = clientesAtendidos != null ? clientesAtendidos.longValue() : 0;
+    }
+
+    /** Reservas no canceladas (pendientes y completadas) */
+    public long getActivas() {
+        return pendientes + completadas;
+    }
+}
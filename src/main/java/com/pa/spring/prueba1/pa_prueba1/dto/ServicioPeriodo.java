@@ -0,0 +1,20 @@
+package com.pa.spring.prueba1.pa_prueba1.dto;
+
+import lombok.Getter;
+
+/**
+ * Reservas completadas e ingresos de un servicio en un período
+ */
+@Getter
+public class ServicioPeriodo {
+
+    private final String nombre;
+    private final int cantidad;
+    private final double ingresos;
+
+    public ServicioPeriodo(String nombre, int cantidad, double ingresos) {
+        this.nombre = nombre;
+        this.cantidad = cantidad;
+        this.ingresos = ingresos;
+    }
+}
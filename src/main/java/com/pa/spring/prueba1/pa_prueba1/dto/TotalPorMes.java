@@ -0,0 +1,22 @@
+package com.pa.spring.prueba1.pa_prueba1.dto;
+
+import lombok.Getter;
+
+import java.time.YearMonth;
+
+/**
+ * Reservas e importe de un mes
+ */
+@Getter
+public class TotalPorMes {
+
+    private final YearMonth mes;
+    private final long cantidad;
+    private final double importe;
+
+    public TotalPorMes(Number anio, Number mes, Number cantidad, Number importe) {
+        this.mes = YearMonth.of(anio.intValue(), mes.intValue());
+        this.cantidad = cantidad != null ? cantidad.longValue() : 0;
+        this.importe = importe != null ? importe.doubleValue() : 0;
+    }
+}
@@ -0,0 +1,20 @@
+package com.pa.spring.prueba1.pa_prueba1.dto;
+
+import lombok.Getter;
+
+/**
+ * Reservas e importe agrupados por un nombre (servicio, barbero...)
+ */
+@Getter
+public class TotalPorNombre {
+
+    private final String nombre;
+    private final long cantidad;
+    private final double importe;
+
+    public TotalPorNombre(String nombre, Number cantidad, Number importe) {
+        this.nombre = nombre;
+        this.cantidad = cantidad != null ? cantidad.longValue() : 0;
+        this.importe = importe != null ? importe.doubleValue() : 0;
+    }
+}
@@ -1,5 +1,7 @@
 package com.pa.spring.prueba1.pa_prueba1.model;
 
+import com.pa.spring.prueba1.pa_prueba1.service.catalogo.CatalogoCacheListener;
+import com.pa.spring.prueba1.pa_prueba1.service.disponibilidad.IndiceDisponibilidadListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -16,6 +18,7 @@ import java.time.LocalTime;
  * @version 2.0 - Actualizado con soft delete y valores por defecto
  */
 @Entity
+@EntityListeners({IndiceDisponibilidadListener.class, CatalogoCacheListener.class})
 @Getter 
 @Setter
 @Table(name = "barbero")
@@ -0,0 +1,35 @@
+package com.pa.spring.prueba1.pa_prueba1.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Arrendamiento (lease) de una tarea programada entre varias instancias de la
+ * aplicación: la tarea la ejecuta solo el propietario mientras no venza
+ * bloqueadoHasta. Lo gestiona {@code BloqueoDistribuido}.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "bloqueo_tarea")
+public class BloqueoTarea {
+
+    @Id
+    @Column(name = "nombre", length = 100)
+    private String nombre;
+
+    /**
+     * Instancia que tiene (o tuvo por última vez) el bloqueo
+     */
+    @Column(name = "propietario", length = 150, nullable = false)
+    private String propietario;
+
+    @Column(name = "bloqueado_desde", nullable = false)
+    private LocalDateTime bloqueadoDesde;
+
+    @Column(name = "bloqueado_hasta", nullable = false)
+    private LocalDateTime bloqueadoHasta;
+}
@@ -0,0 +1,83 @@
+package com.pa.spring.prueba1.pa_prueba1.model;
+
+import com.pa.spring.prueba1.pa_prueba1.repository.SecuenciasIdJdbcRepository;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Correo de la bandeja de salida. Se guarda en la misma transacción que el
+ * cambio que lo provoca (reserva, cancelación...) y lo envía después el
+ * despachador de correos, fuera de la petición.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "correo_pendiente", indexes = {
+    @Index(name = "idx_correo_pendiente_estado_proximo", columnList = "estado, proximo_intento")
+})
+public class CorreoPendiente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "secuencia_correo")
+    @TableGenerator(name = "secuencia_correo", table = SecuenciasIdJdbcRepository.TABLA,
+        pkColumnName = "nombre", valueColumnName = "siguiente", pkColumnValue = "correo_pendiente",
+        allocationSize = SecuenciasIdJdbcRepository.BLOQUE)
+    @Column(name = "id_correo")
+    private Long idCorreo;
+
+    @Column(name = "destinatario", nullable = false)
+    private String destinatario;
+
+    @Column(name = "asunto", nullable = false)
+    private String asunto;
+
+    @Column(name = "cuerpo", columnDefinition = "MEDIUMTEXT", nullable = false)
+    private String cuerpo;
+
+    @Column(name = "html", nullable = false)
+    private boolean html;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private EstadoCorreo estado = EstadoCorreo.PENDIENTE;
+
+    @Column(name = "intentos", nullable = false)
+    private int intentos = 0;
+
+    /**
+     * Cuándo puede intentarse el envío. Mientras está ENVIANDO marca hasta cuándo
+     * lo tiene reservado un hilo; pasado ese momento otro puede retomarlo.
+     */
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_envio")
+    private LocalDateTime fechaEnvio;
+
+    @Column(name = "ultimo_error", length = 500)
+    private String ultimoError;
+
+    /**
+     * Dueño de la reserva mientras está ENVIANDO: solo el lote con este token
+     * puede renovarla o registrar el resultado del envío.
+     */
+    @Column(name = "token_reserva", length = 36)
+    private String tokenReserva;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public enum EstadoCorreo {
+        PENDIENTE,
+        ENVIANDO,
+        ENVIADO,
+        FALLIDO // Agotó los reintentos: queda para revisión manual
+    }
+}
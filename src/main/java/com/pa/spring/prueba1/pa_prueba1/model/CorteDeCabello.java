@@ -1,12 +1,16 @@
 package com.pa.spring.prueba1.pa_prueba1.model;
 
+import com.pa.spring.prueba1.pa_prueba1.service.catalogo.CatalogoCacheListener;
+
 import jakarta.persistence.Entity; // Anotación que indica que la clase es una entidad JPA (tabla en la BD)
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue; // Anotación para indicar la generación automática de valores
 import jakarta.persistence.GenerationType; // Tipo de estrategia de generación para claves primarias
 import jakarta.persistence.Id; // Anotación que define la clave primaria
 import lombok.Data; // Lombok: genera getters, setters, toString, equals y hashCode automáticamente
 
 @Entity // Marca esta clase como una entidad persistente (tabla en la base de datos)
+@EntityListeners(CatalogoCacheListener.class)
 @Data // Lombok se encarga de generar automáticamente los métodos comunes (get/set/etc.)
 public class CorteDeCabello {
 
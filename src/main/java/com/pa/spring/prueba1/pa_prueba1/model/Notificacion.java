@@ -1,5 +1,6 @@
 package com.pa.spring.prueba1.pa_prueba1.model;
 
+import com.pa.spring.prueba1.pa_prueba1.repository.SecuenciasIdJdbcRepository;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -8,7 +9,10 @@ import java.time.LocalDateTime;
 public class Notificacion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "secuencia_notificacion")
+    @TableGenerator(name = "secuencia_notificacion", table = SecuenciasIdJdbcRepository.TABLA,
+        pkColumnName = "nombre", valueColumnName = "siguiente", pkColumnValue = "notificaciones",
+        allocationSize = SecuenciasIdJdbcRepository.BLOQUE)
     @Column(name = "id_notificacion")
     private Long idNotificacion;
 
@@ -0,0 +1,38 @@
+package com.pa.spring.prueba1.pa_prueba1.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Hasta qué fecha tiene generados sus turnos cada barbero. Lo mantiene la
+ * generación programada para continuar donde se quedó en la siguiente ejecución.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "progreso_generacion_turnos")
+public class ProgresoGeneracionTurnos {
+
+    @Id
+    @Column(name = "id_barbero")
+    private Long idBarbero;
+
+    /**
+     * Último día (incluido) con los turnos ya generados
+     */
+    @Column(name = "generado_hasta")
+    private LocalDate generadoHasta;
+
+    @Column(name = "ultima_ejecucion")
+    private LocalDateTime ultimaEjecucion;
+
+    /**
+     * Turnos creados en la última ejecución
+     */
+    @Column(name = "turnos_generados")
+    private Integer turnosGenerados;
+}
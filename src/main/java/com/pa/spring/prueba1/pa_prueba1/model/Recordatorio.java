@@ -1,74 +1,146 @@
 package com.pa.spring.prueba1.pa_prueba1.model;
 
+import com.pa.spring.prueba1.pa_prueba1.config.RecordatoriosConfigProperties;
+import com.pa.spring.prueba1.pa_prueba1.model.RecordatorioEnviado.TipoRecordatorio;
 import com.pa.spring.prueba1.pa_prueba1.model.Reserva.EstadoReserva;
+import com.pa.spring.prueba1.pa_prueba1.repository.RecordatorioEnviadoRepository;
 import com.pa.spring.prueba1.pa_prueba1.repository.ReservaRepository;
 import com.pa.spring.prueba1.pa_prueba1.service.EmailService;
+import com.pa.spring.prueba1.pa_prueba1.service.concurrencia.BloqueoDistribuido;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Recordatorios de cita por correo, 24 horas y 2 horas antes del turno.
+ *
+ * Cada ejecución consulta solo las reservas pendientes a las que ya les toca
+ * un recordatorio y no lo tienen registrado en {@link RecordatorioEnviado},
+ * en páginas por cursor sobre idReserva. Cada página se encola en la bandeja
+ * de salida de correos y se registra como enviada en la misma transacción:
+ * o quedan las dos cosas o ninguna, y un cliente no recibe dos veces el mismo
+ * recordatorio.
+ */
 @Component
 public class Recordatorio {
 
+    private static final Logger log = LoggerFactory.getLogger(Recordatorio.class);
+
     @Autowired
     private ReservaRepository reservaRepository;
 
+    @Autowired
+    private RecordatorioEnviadoRepository recordatorioEnviadoRepository;
+
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private RecordatoriosConfigProperties config;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BloqueoDistribuido bloqueoDistribuido;
+
 
     // ============================================================
-    // 📌 1. RECORDATORIO 24 HORAS ANTES
+    // 📌 RECORDATORIOS 24 HORAS Y 2 HORAS ANTES
     // ============================================================
-    @Scheduled(cron = "0 0 * * * *") // se ejecuta cada hora
-    public void enviarRecordatorios24HorasAntes() {
+    @Scheduled(cron = "${app.recordatorios.cron:0 */15 * * * *}")
+    public void enviarRecordatoriosPendientes() {
+        // Con varias instancias solo una envía en cada ciclo
+        bloqueoDistribuido.ejecutar("recordatorios", this::enviarRecordatoriosAhora);
+    }
 
+    private void enviarRecordatoriosAhora() {
         LocalDateTime ahora = LocalDateTime.now();
-        LocalDateTime en24Horas = ahora.plusHours(24);
 
-        List<Reserva> reservas =
-                reservaRepository.findByFechaHoraTurnoBetween(ahora, en24Horas)
-                        .stream()
-                        .filter(r -> r.getEstado() == EstadoReserva.COMPLETADA)
-                        .toList();
+        // El de 24 h no se envía si ya toca el de 2 h
+        enviarRecordatorios(TipoRecordatorio.HORAS_24,
+            ahora.plusHours(TipoRecordatorio.HORAS_2.getHorasAntes()), ahora.plusHours(TipoRecordatorio.HORAS_24.getHorasAntes()));
+        enviarRecordatorios(TipoRecordatorio.HORAS_2,
+            ahora, ahora.plusHours(TipoRecordatorio.HORAS_2.getHorasAntes()));
+    }
 
-        for (Reserva r : reservas) {
+    /**
+     * Recorre por páginas las reservas con turno en (desde, hasta] sin este recordatorio
+     */
+    private void enviarRecordatorios(TipoRecordatorio tipo, LocalDateTime desde, LocalDateTime hasta) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        long ultimoId = 0;
+        int total = 0;
+
+        while (true) {
+            final long cursor = ultimoId;
+            Pagina pagina;
             try {
-                emailService.enviarRecordatorioCita(r.getCliente(), r);
-                System.out.println("📧 Recordatorio 24h enviado a: " + r.getCliente().getCorreo());
+                pagina = transaccion.execute(estado -> enviarPagina(tipo, desde, hasta, cursor));
             } catch (Exception e) {
-                System.err.println("❌ Error enviando recordatorio 24h: " + e.getMessage());
+                // La página entera se deshace; se reintentará en la siguiente ejecución
+                log.warn("Error enviando recordatorios {}: {}", tipo, e.getMessage());
+                break;
+            }
+            if (pagina == null || pagina.leidas == 0) {
+                break;
+            }
+            total += pagina.encolados;
+            ultimoId = pagina.ultimoId;
+            if (pagina.leidas < config.getTamanoLote()) {
+                break;
             }
         }
-    }
 
+        if (total > 0) {
+            log.debug("Recordatorios {} encolados: {}", tipo, total);
+        }
+    }
 
-    // ============================================================
-    // 📌 2. RECORDATORIO 2 HORAS ANTES
-    // ============================================================
-    @Scheduled(cron = "0 30 * * * *") // cada hora en el minuto 30
-    public void enviarRecordatorios2HorasAntes() {
+    /**
+     * Encola los recordatorios de una página y los registra, dentro de la transacción en curso
+     */
+    private Pagina enviarPagina(TipoRecordatorio tipo, LocalDateTime desde, LocalDateTime hasta, long cursor) {
+        List<Reserva> reservas = reservaRepository.findPendientesDeRecordatorio(
+            tipo, EstadoReserva.PENDIENTE, desde, hasta, cursor, PageRequest.of(0, config.getTamanoLote()));
 
+        Pagina pagina = new Pagina();
+        pagina.leidas = reservas.size();
         LocalDateTime ahora = LocalDateTime.now();
-        LocalDateTime en2Horas = ahora.plusHours(2);
-
-        List<Reserva> reservas =
-                reservaRepository.findByFechaHoraTurnoBetween(ahora, en2Horas)
-                        .stream()
-                        .filter(r -> r.getEstado() == EstadoReserva.COMPLETADA)
-                        .toList();
 
         for (Reserva r : reservas) {
+            pagina.ultimoId = r.getIdReserva();
             try {
                 emailService.enviarRecordatorioCita(r.getCliente(), r);
-                System.out.println("📧 Recordatorio 2h enviado a: " + r.getCliente().getCorreo());
             } catch (Exception e) {
-                System.err.println("❌ Error enviando recordatorio 2h: " + e.getMessage());
+                // Correo inválido u otro dato malo: no se registra y se reintenta en la siguiente ejecución
+                log.warn("Error enviando recordatorio {} de la reserva {}: {}", tipo, r.getIdReserva(), e.getMessage());
+                continue;
             }
+
+            RecordatorioEnviado enviado = new RecordatorioEnviado();
+            enviado.setIdReserva(r.getIdReserva());
+            enviado.setTipo(tipo);
+            enviado.setFechaEnvio(ahora);
+            recordatorioEnviadoRepository.save(enviado);
+            pagina.encolados++;
         }
+
+        return pagina;
+    }
+
+    private static class Pagina {
+        int leidas;
+        int encolados;
+        long ultimoId;
     }
 }
@@ -0,0 +1,57 @@
+package com.pa.spring.prueba1.pa_prueba1.model;
+
+import com.pa.spring.prueba1.pa_prueba1.repository.SecuenciasIdJdbcRepository;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Recordatorio ya enviado para una reserva. Hay como mucho uno por reserva y
+ * tipo, así que cada cliente recibe cada recordatorio una sola vez.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "recordatorio_enviado", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_recordatorio_reserva_tipo", columnNames = {"id_reserva", "tipo"})
+})
+public class RecordatorioEnviado {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "secuencia_recordatorio")
+    @TableGenerator(name = "secuencia_recordatorio", table = SecuenciasIdJdbcRepository.TABLA,
+        pkColumnName = "nombre", valueColumnName = "siguiente", pkColumnValue = "recordatorio_enviado",
+        allocationSize = SecuenciasIdJdbcRepository.BLOQUE)
+    @Column(name = "id_recordatorio")
+    private Long idRecordatorio;
+
+    @Column(name = "id_reserva", nullable = false)
+    private Long idReserva;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 20)
+    private TipoRecordatorio tipo;
+
+    /**
+     * Momento en que el recordatorio pasó a la bandeja de salida de correos
+     */
+    @Column(name = "fecha_envio", nullable = false)
+    private LocalDateTime fechaEnvio;
+
+    public enum TipoRecordatorio {
+        HORAS_24(24),
+        HORAS_2(2);
+
+        private final int horasAntes;
+
+        TipoRecordatorio(int horasAntes) {
+            this.horasAntes = horasAntes;
+        }
+
+        public int getHorasAntes() {
+            return horasAntes;
+        }
+    }
+}
@@ -2,13 +2,25 @@ package com.pa.spring.prueba1.pa_prueba1.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.pa.spring.prueba1.pa_prueba1.service.estadisticas.EstadisticasDiariasListener;
 import jakarta.persistence.*;
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 
+/**
+ * Las relaciones son LAZY: los listados usan la proyección ReservaResumen y el
+ * resto de vistas las cargan dentro de la petición (open-in-view).
+ */
 @Entity
-@Data
+@EntityListeners(EstadisticasDiariasListener.class) // mantiene las estadísticas diarias del barbero
+@Getter @Setter
+@EqualsAndHashCode(of = "idReserva")
+@ToString(of = {"idReserva", "fechaHoraTurno", "estado"}) // no imprime (ni carga) las relaciones
 public class Reserva {
 
     @Id
@@ -21,21 +33,26 @@ public class Reserva {
     @Enumerated(EnumType.STRING)
     private EstadoReserva estado = EstadoReserva.PENDIENTE;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @Version   // 🔒 Bloqueo optimista entre reservas, cancelaciones y cambios del admin
+    @Column(nullable = false)
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "idCliente", referencedColumnName = "idCliente")
     @JsonIgnore   // ⛔ Evita ciclo Cliente ↔ Reserva
     private Cliente cliente;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "idBarbero", referencedColumnName = "idBarbero")
     @JsonIgnore   // ⛔ Evita ciclo Barbero ↔ Reserva
     private Barbero barbero;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "idCorte", referencedColumnName = "id")
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // se serializa aunque sea un proxy
     private CorteDeCabello corte;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "idTurno", referencedColumnName = "idTurno")
     @JsonBackReference   // ✅ Rompe ciclo Reserva ↔ Turno
     private Turno turno;
@@ -43,6 +60,15 @@ public class Reserva {
     @Column(name = "comentarios", length = 100)
     private String comentarios;
 
+    // Barbero y fecha tal como se cargaron o guardaron por última vez (los usa EstadisticasDiariasListener)
+    @Transient
+    @JsonIgnore
+    private Long idBarberoCargado;
+
+    @Transient
+    @JsonIgnore
+    private LocalDateTime fechaHoraTurnoCargada;
+
     public enum EstadoReserva {
         PENDIENTE,
         COMPLETADA,
@@ -2,6 +2,7 @@ package com.pa.spring.prueba1.pa_prueba1.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.pa.spring.prueba1.pa_prueba1.service.disponibilidad.IndiceDisponibilidadListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -13,6 +14,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(IndiceDisponibilidadListener.class) // mantiene el índice de disponibilidad en memoria
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_turno_barbero_fecha", columnNames = {"idBarbero", "fechaHora"}))
 @Getter @Setter
 @EqualsAndHashCode(of = "idTurno")
 @ToString(of = {"idTurno", "fechaHora", "estado"}) // no imprime barbero ni reservas
@@ -27,6 +30,10 @@ public class Turno {
     @Enumerated(EnumType.STRING)
     private EstadoTurno estado = EstadoTurno.DISPONIBLE;
 
+    @Version                                     // bloqueo optimista: evita sobrescrituras silenciosas
+    @Column(nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)           // ⬅️ evita cargar el barbero siempre
     @JoinColumn(name = "idBarbero", referencedColumnName = "idBarbero")
     @JsonIgnore                                  // evita ciclos al serializar
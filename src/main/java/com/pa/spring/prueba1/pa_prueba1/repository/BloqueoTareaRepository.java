@@ -0,0 +1,63 @@
+package com.pa.spring.prueba1.pa_prueba1.repository;
+
+import com.pa.spring.prueba1.pa_prueba1.model.BloqueoTarea;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Operaciones atómicas sobre los bloqueos de tareas. Las fechas se calculan con
+ * el reloj de MySQL (NOW(3)) para que el desfase entre los relojes de las
+ * instancias no afecte a quién tiene el bloqueo.
+ */
+@Repository
+public interface BloqueoTareaRepository extends JpaRepository<BloqueoTarea, String> {
+
+    /**
+     * Crea la fila de la tarea (ya vencida) si todavía no existe
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO bloqueo_tarea (nombre, propietario, bloqueado_desde, bloqueado_hasta) " +
+            "VALUES (:nombre, '', NOW(3), NOW(3))", nativeQuery = true)
+    int crearSiNoExiste(@Param("nombre") String nombre);
+
+    /**
+     * Toma el bloqueo si está libre o vencido. Devuelve 1 si se consiguió.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE bloqueo_tarea SET propietario = :propietario, bloqueado_desde = NOW(3), " +
+            "bloqueado_hasta = NOW(3) + INTERVAL :segundos SECOND " +
+            "WHERE nombre = :nombre AND bloqueado_hasta <= NOW(3)", nativeQuery = true)
+    int adquirir(@Param("nombre") String nombre,
+            @Param("propietario") String propietario,
+            @Param("segundos") long segundos);
+
+    /**
+     * Alarga el bloqueo si sigue siendo del propietario y no ha vencido
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE bloqueo_tarea SET bloqueado_hasta = NOW(3) + INTERVAL :segundos SECOND " +
+            "WHERE nombre = :nombre AND propietario = :propietario AND bloqueado_hasta > NOW(3)", nativeQuery = true)
+    int renovar(@Param("nombre") String nombre,
+            @Param("propietario") String propietario,
+            @Param("segundos") long segundos);
+
+    /**
+     * Suelta el bloqueo, pero lo mantiene al menos {@code minimoSegundos} desde que
+     * se tomó para que otra instancia no repita la tarea en el mismo ciclo.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE bloqueo_tarea SET bloqueado_hasta = " +
+            "GREATEST(NOW(3), bloqueado_desde + INTERVAL :minimoSegundos SECOND) " +
+            "WHERE nombre = :nombre AND propietario = :propietario", nativeQuery = true)
+    int liberar(@Param("nombre") String nombre,
+            @Param("propietario") String propietario,
+            @Param("minimoSegundos") long minimoSegundos);
+}
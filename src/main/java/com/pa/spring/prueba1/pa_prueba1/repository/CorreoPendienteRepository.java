@@ -0,0 +1,79 @@
+package com.pa.spring.prueba1.pa_prueba1.repository;
+
+import com.pa.spring.prueba1.pa_prueba1.model.CorreoPendiente;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CorreoPendienteRepository extends JpaRepository<CorreoPendiente, Long> {
+
+    /**
+     * Correos listos para enviar: en alguno de los estados dados (PENDIENTE, o
+     * ENVIANDO con la reserva vencida porque el hilo que lo tomó murió) y cuyo
+     * próximo intento ya llegó.
+     */
+    @Query("SELECT c.idCorreo FROM CorreoPendiente c " +
+            "WHERE c.estado IN :estados AND c.proximoIntento <= :ahora " +
+            "ORDER BY c.proximoIntento, c.idCorreo")
+    List<Long> findIdsListosParaEnviar(@Param("estados") List<CorreoPendiente.EstadoCorreo> estados,
+            @Param("ahora") LocalDateTime ahora,
+            Pageable pageable);
+
+    /**
+     * Reserva un correo para un lote de envío pasándolo a ENVIANDO hasta
+     * {@code reservadoHasta} con el token del lote. Devuelve 0 si otro hilo (u
+     * otra instancia) ya lo tomó o se envió entretanto.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE CorreoPendiente c SET c.estado = :enviando, c.proximoIntento = :reservadoHasta, " +
+            "c.tokenReserva = :token, c.version = c.version + 1 " +
+            "WHERE c.idCorreo = :idCorreo AND c.estado IN :estados AND c.proximoIntento <= :ahora")
+    int reservarParaEnvio(@Param("idCorreo") Long idCorreo,
+            @Param("estados") List<CorreoPendiente.EstadoCorreo> estados,
+            @Param("enviando") CorreoPendiente.EstadoCorreo enviando,
+            @Param("ahora") LocalDateTime ahora,
+            @Param("reservadoHasta") LocalDateTime reservadoHasta,
+            @Param("token") String token);
+
+    /**
+     * Alarga hasta {@code reservadoHasta} la reserva de los correos que siguen
+     * siendo del lote; los que ya retomó otro lote no se tocan.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE CorreoPendiente c SET c.proximoIntento = :reservadoHasta, c.version = c.version + 1 " +
+            "WHERE c.idCorreo IN :ids AND c.tokenReserva = :token AND c.estado = :enviando")
+    int renovarReserva(@Param("ids") List<Long> ids,
+            @Param("token") String token,
+            @Param("enviando") CorreoPendiente.EstadoCorreo enviando,
+            @Param("reservadoHasta") LocalDateTime reservadoHasta);
+
+    /**
+     * Registra el resultado de un envío y suelta la reserva, solo si el correo
+     * sigue siendo del lote con ese token. Devuelve 0 si otro lote lo retomó.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE CorreoPendiente c SET c.estado = :estado, c.intentos = :intentos, " +
+            "c.proximoIntento = :proximoIntento, c.fechaEnvio = :fechaEnvio, c.ultimoError = :ultimoError, " +
+            "c.tokenReserva = NULL, c.version = c.version + 1 " +
+            "WHERE c.idCorreo = :idCorreo AND c.tokenReserva = :token")
+    int registrarResultado(@Param("idCorreo") Long idCorreo,
+            @Param("token") String token,
+            @Param("estado") CorreoPendiente.EstadoCorreo estado,
+            @Param("intentos") int intentos,
+            @Param("proximoIntento") LocalDateTime proximoIntento,
+            @Param("fechaEnvio") LocalDateTime fechaEnvio,
+            @Param("ultimoError") String ultimoError);
+
+    long countByEstado(CorreoPendiente.EstadoCorreo estado);
+}
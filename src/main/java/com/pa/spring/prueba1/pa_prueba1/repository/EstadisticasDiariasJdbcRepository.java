@@ -0,0 +1,144 @@
+package com.pa.spring.prueba1.pa_prueba1.repository;
+
+import com.pa.spring.prueba1.pa_prueba1.dto.EstadisticaDia;
+import com.pa.spring.prueba1.pa_prueba1.dto.ServicioPeriodo;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tablas estadistica_barbero_dia y estadistica_barbero_dia_servicio (migración V3).
+ *
+ * Las filas se recalculan desde Reserva con INSERT ... SELECT: borrar y volver a
+ * insertar un tramo de días es idempotente, así que da igual cuántas veces se
+ * repita o en qué orden lleguen los recálculos de un mismo día.
+ */
+@Repository
+public class EstadisticasDiariasJdbcRepository {
+
+    private static final String INSERTAR_DIAS =
+        "INSERT INTO estadistica_barbero_dia (id_barbero, dia, completadas, canceladas, ingresos, clientes_distintos, " +
+        "franja_8_10, franja_10_12, franja_12_14, franja_14_16, franja_16_18, franja_18_20, franja_otra, actualizado) " +
+        "SELECT r.idBarbero, DATE(r.fechaHoraTurno), " +
+        "SUM(r.estado = 'COMPLETADA'), " +
+        "SUM(r.estado = 'CANCELADA'), " +
+        "COALESCE(SUM(CASE WHEN r.estado = 'COMPLETADA' THEN c.precio END), 0), " +
+        "COUNT(DISTINCT CASE WHEN r.estado = 'COMPLETADA' THEN r.idCliente END), " +
+        "SUM(r.estado IN ('PENDIENTE', 'COMPLETADA') AND HOUR(r.fechaHoraTurno) BETWEEN 8 AND 9), " +
+        "SUM(r.estado IN ('PENDIENTE', 'COMPLETADA') AND HOUR(r.fechaHoraTurno) BETWEEN 10 AND 11), " +
+        "SUM(r.estado IN ('PENDIENTE', 'COMPLETADA') AND HOUR(r.fechaHoraTurno) BETWEEN 12 AND 13), " +
+        "SUM(r.estado IN ('PENDIENTE', 'COMPLETADA') AND HOUR(r.fechaHoraTurno) BETWEEN 14 AND 15), " +
+        "SUM(r.estado IN ('PENDIENTE', 'COMPLETADA') AND HOUR(r.fechaHoraTurno) BETWEEN 16 AND 17), " +
+        "SUM(r.estado IN ('PENDIENTE', 'COMPLETADA') AND HOUR(r.fechaHoraTurno) BETWEEN 18 AND 19), " +
+        "SUM(r.estado IN ('PENDIENTE', 'COMPLETADA') AND (HOUR(r.fechaHoraTurno) < 8 OR HOUR(r.fechaHoraTurno) >= 20)), " +
+        "NOW(6) " +
+        "FROM Reserva r LEFT JOIN CorteDeCabello c ON c.id = r.idCorte " +
+        "WHERE r.fechaHoraTurno >= ? AND r.fechaHoraTurno < ? AND r.idBarbero IS NOT NULL ";
+
+    private static final String INSERTAR_SERVICIOS =
+        "INSERT INTO estadistica_barbero_dia_servicio (id_barbero, dia, id_corte, cantidad, ingresos) " +
+        "SELECT r.idBarbero, DATE(r.fechaHoraTurno), r.idCorte, COUNT(*), COALESCE(SUM(c.precio), 0) " +
+        "FROM Reserva r JOIN CorteDeCabello c ON c.id = r.idCorte " +
+        "WHERE r.estado = 'COMPLETADA' AND r.fechaHoraTurno >= ? AND r.fechaHoraTurno < ? AND r.idBarbero IS NOT NULL ";
+
+    private static final String COLUMNAS_DIA =
+        "dia, completadas, canceladas, ingresos, clientes_distintos, " +
+        "franja_8_10, franja_10_12, franja_12_14, franja_14_16, franja_16_18, franja_18_20, franja_otra";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // ===== RECÁLCULO =====
+
+    /**
+     * Recalcula los días [desde, hasta) desde las reservas. Corre en su propia
+     * transacción: se llama después del commit de la reserva que cambió.
+     *
+     * @param idBarbero barbero a recalcular, o null para todos
+     * @return número de filas diarias escritas
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int recalcular(Long idBarbero, LocalDate desde, LocalDate hasta) {
+        Date diaDesde = Date.valueOf(desde);
+        Date diaHasta = Date.valueOf(hasta);
+        Timestamp inicio = Timestamp.valueOf(desde.atStartOfDay());
+        Timestamp fin = Timestamp.valueOf(hasta.atStartOfDay());
+
+        if (idBarbero == null) {
+            jdbcTemplate.update("DELETE FROM estadistica_barbero_dia_servicio WHERE dia >= ? AND dia < ?", diaDesde, diaHasta);
+            jdbcTemplate.update("DELETE FROM estadistica_barbero_dia WHERE dia >= ? AND dia < ?", diaDesde, diaHasta);
+            jdbcTemplate.update(INSERTAR_SERVICIOS + "GROUP BY r.idBarbero, DATE(r.fechaHoraTurno), r.idCorte",
+                inicio, fin);
+            return jdbcTemplate.update(INSERTAR_DIAS + "GROUP BY r.idBarbero, DATE(r.fechaHoraTurno)", inicio, fin);
+        }
+
+        jdbcTemplate.update("DELETE FROM estadistica_barbero_dia_servicio WHERE id_barbero = ? AND dia >= ? AND dia < ?",
+            idBarbero, diaDesde, diaHasta);
+        jdbcTemplate.update("DELETE FROM estadistica_barbero_dia WHERE id_barbero = ? AND dia >= ? AND dia < ?",
+            idBarbero, diaDesde, diaHasta);
+        jdbcTemplate.update(INSERTAR_SERVICIOS + "AND r.idBarbero = ? GROUP BY r.idBarbero, DATE(r.fechaHoraTurno), r.idCorte",
+            inicio, fin, idBarbero);
+        return jdbcTemplate.update(INSERTAR_DIAS + "AND r.idBarbero = ? GROUP BY r.idBarbero, DATE(r.fechaHoraTurno)",
+            inicio, fin, idBarbero);
+    }
+
+    // ===== CONSULTAS =====
+
+    /**
+     * Días con actividad del barbero en [desde, hasta), ordenados por fecha.
+     * Los días sin reservas no tienen fila.
+     */
+    public List<EstadisticaDia> listarDias(Long idBarbero, LocalDate desde, LocalDate hasta) {
+        return jdbcTemplate.query(
+            "SELECT " + COLUMNAS_DIA + " FROM estadistica_barbero_dia " +
+            "WHERE id_barbero = ? AND dia >= ? AND dia < ? ORDER BY dia",
+            (rs, fila) -> {
+                int[] franjas = new int[EstadisticaDia.FRANJAS.length];
+                for (int i = 0; i < franjas.length; i++) {
+                    franjas[i] = rs.getInt(6 + i);
+                }
+                return new EstadisticaDia(rs.getDate(1).toLocalDate(), rs.getInt(2), rs.getInt(3),
+                    rs.getDouble(4), rs.getInt(5), franjas);
+            },
+            idBarbero, Date.valueOf(desde), Date.valueOf(hasta));
+    }
+
+    /**
+     * Servicios completados del barbero en [desde, hasta), del más al menos pedido
+     */
+    public List<ServicioPeriodo> listarServicios(Long idBarbero, LocalDate desde, LocalDate hasta) {
+        return jdbcTemplate.query(
+            "SELECT c.nombre, SUM(s.cantidad), SUM(s.ingresos) FROM estadistica_barbero_dia_servicio s " +
+            "JOIN CorteDeCabello c ON c.id = s.id_corte " +
+            "WHERE s.id_barbero = ? AND s.dia >= ? AND s.dia < ? " +
+            "GROUP BY s.id_corte, c.nombre ORDER BY SUM(s.cantidad) DESC, c.nombre",
+            (rs, fila) -> new ServicioPeriodo(rs.getString(1), rs.getInt(2), rs.getDouble(3)),
+            idBarbero, Date.valueOf(desde), Date.valueOf(hasta));
+    }
+
+    /**
+     * Ingresos del barbero por mes en [desde, hasta). Los meses sin ingresos no aparecen.
+     */
+    public Map<YearMonth, Double> ingresosPorMes(Long idBarbero, LocalDate desde, LocalDate hasta) {
+        Map<YearMonth, Double> ingresos = new LinkedHashMap<>();
+        jdbcTemplate.query(
+            "SELECT YEAR(dia), MONTH(dia), SUM(ingresos) FROM estadistica_barbero_dia " +
+            "WHERE id_barbero = ? AND dia >= ? AND dia < ? GROUP BY YEAR(dia), MONTH(dia)",
+            rs -> {
+                ingresos.put(YearMonth.of(rs.getInt(1), rs.getInt(2)), rs.getDouble(3));
+            },
+            idBarbero, Date.valueOf(desde), Date.valueOf(hasta));
+        return ingresos;
+    }
+}
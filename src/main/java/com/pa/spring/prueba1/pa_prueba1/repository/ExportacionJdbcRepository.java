@@ -0,0 +1,98 @@
+package com.pa.spring.prueba1.pa_prueba1.repository;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Lecturas en streaming para las exportaciones del admin.
+ *
+ * Usa su propio JdbcTemplate con fetch size Integer.MIN_VALUE: Connector/J
+ * entrega entonces el resultado fila a fila en lugar de cargarlo entero en
+ * memoria, así que una exportación de varios años ocupa lo mismo que una de un
+ * día. Cada recorrido es una sola sentencia en autocommit (sin transacción): la
+ * conexión vuelve al pool en cuanto termina la última fila.
+ *
+ * Mientras dura un recorrido la conexión no admite otras sentencias, por eso el
+ * manejador de filas solo debe escribir, nunca consultar.
+ */
+@Repository
+public class ExportacionJdbcRepository {
+
+    private static final String RESERVAS =
+        "SELECT r.idReserva, r.fechaHoraTurno, r.fechaHoraReserva, r.estado, " +
+        "c.nombre, c.correo, c.telefono, b.idBarbero, b.nombre, b.apellido, co.nombre, co.precio, r.comentarios " +
+        "FROM Reserva r " +
+        "LEFT JOIN Cliente c ON c.idCliente = r.idCliente " +
+        "LEFT JOIN barbero b ON b.idBarbero = r.idBarbero " +
+        "LEFT JOIN CorteDeCabello co ON co.id = r.idCorte " +
+        "WHERE r.fechaHoraTurno >= ? AND r.fechaHoraTurno < ? " +
+        "ORDER BY r.fechaHoraTurno, r.idReserva";
+
+    private static final String TURNOS =
+        "SELECT t.idTurno, t.fechaHora, t.estado, b.idBarbero, b.nombre, b.apellido " +
+        "FROM Turno t LEFT JOIN barbero b ON b.idBarbero = t.idBarbero " +
+        "WHERE t.fechaHora >= ? AND t.fechaHora < ? ";
+
+    private static final String INGRESOS_POR_BARBERO =
+        "SELECT b.idBarbero, b.nombre, b.apellido, " +
+        "COUNT(r.idReserva), " +
+        "COALESCE(SUM(r.estado = 'COMPLETADA'), 0), " +
+        "COALESCE(SUM(r.estado = 'CANCELADA'), 0), " +
+        "COALESCE(SUM(CASE WHEN r.estado = 'COMPLETADA' THEN co.precio END), 0) " +
+        "FROM barbero b " +
+        "LEFT JOIN Reserva r ON r.idBarbero = b.idBarbero AND r.fechaHoraTurno >= ? AND r.fechaHoraTurno < ? " +
+        "LEFT JOIN CorteDeCabello co ON co.id = r.idCorte " +
+        "GROUP BY b.idBarbero, b.nombre, b.apellido " +
+        "ORDER BY b.nombre, b.apellido, b.idBarbero";
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate streaming;
+
+    @PostConstruct
+    public void init() {
+        streaming = new JdbcTemplate(dataSource);
+        streaming.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /**
+     * Reservas con turno en [inicio, fin), en orden cronológico.
+     * Columnas: idReserva, fechaHoraTurno, fechaHoraReserva, estado, cliente (nombre,
+     * correo, teléfono), barbero (id, nombre, apellido), corte (nombre, precio), comentarios.
+     */
+    public void recorrerReservas(LocalDateTime inicio, LocalDateTime fin, RowCallbackHandler fila) {
+        streaming.query(RESERVAS, fila, Timestamp.valueOf(inicio), Timestamp.valueOf(fin));
+    }
+
+    /**
+     * Turnos en [inicio, fin) de un barbero (o de todos si idBarbero es null), en
+     * orden cronológico. Columnas: idTurno, fechaHora, estado, barbero (id, nombre, apellido).
+     */
+    public void recorrerTurnos(LocalDateTime inicio, LocalDateTime fin, Long idBarbero, RowCallbackHandler fila) {
+        if (idBarbero == null) {
+            streaming.query(TURNOS + "ORDER BY t.fechaHora, t.idTurno", fila,
+                Timestamp.valueOf(inicio), Timestamp.valueOf(fin));
+        } else {
+            streaming.query(TURNOS + "AND t.idBarbero = ? ORDER BY t.fechaHora, t.idTurno", fila,
+                Timestamp.valueOf(inicio), Timestamp.valueOf(fin), idBarbero);
+        }
+    }
+
+    /**
+     * Una fila por barbero (también los que no tienen reservas) con sus reservas
+     * en [inicio, fin). Columnas: idBarbero, nombre, apellido, total, completadas,
+     * canceladas, ingresos de las completadas.
+     */
+    public void recorrerIngresosPorBarbero(LocalDateTime inicio, LocalDateTime fin, RowCallbackHandler fila) {
+        streaming.query(INGRESOS_POR_BARBERO, fila, Timestamp.valueOf(inicio), Timestamp.valueOf(fin));
+    }
+}
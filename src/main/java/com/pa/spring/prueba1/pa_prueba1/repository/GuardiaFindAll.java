@@ -0,0 +1,119 @@
+package com.pa.spring.prueba1.pa_prueba1.repository;
+
+import com.pa.spring.prueba1.pa_prueba1.config.ConsultasConfigProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Vigila las llamadas a findAll() sin paginar (findAll(), findAll(Sort),
+ * findAll(Example)...) sobre las entidades de {@code app.consultas.entidades-grandes}:
+ * cargan la tabla entera y su coste crece con ella.
+ *
+ * Según {@code app.consultas.modo-find-all} las deja pasar, las registra (un aviso
+ * por entidad y llamador, y la métrica consultas.findall.sin.limite) o las rechaza
+ * con IllegalStateException. Las alternativas son findAll(Pageable), una consulta
+ * por rango del repositorio o, para recorrer todo, ExportacionJdbcRepository.
+ *
+ * Se engancha a cada repositorio de Spring Data como un interceptor más del proxy.
+ * Las consultas propias sin filtro las detecta IndicesConsultasTest.
+ */
+@Component
+public class GuardiaFindAll implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(GuardiaFindAll.class);
+
+    private final ObjectProvider<ConsultasConfigProperties> config;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    /** Entidad y llamador ya avisados, para no repetir el aviso en cada petición */
+    private final Set<String> avisados = ConcurrentHashMap.newKeySet();
+
+    // ObjectProvider: un BeanPostProcessor se crea antes que el resto de beans
+    public GuardiaFindAll(ObjectProvider<ConsultasConfigProperties> config, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> fabrica) {
+            fabrica.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                (proxy, informacion) -> proxy.addAdvice(new Interceptor(informacion.getDomainType()))));
+        }
+        return bean;
+    }
+
+    private class Interceptor implements MethodInterceptor {
+
+        private final Class<?> entidad;
+
+        Interceptor(Class<?> entidad) {
+            this.entidad = entidad;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocacion) throws Throwable {
+            if (esFindAllSinLimite(invocacion.getMethod())) {
+                revisar(entidad.getSimpleName());
+            }
+            return invocacion.proceed();
+        }
+    }
+
+    private boolean esFindAllSinLimite(Method metodo) {
+        return metodo.getName().equals("findAll")
+            && Arrays.stream(metodo.getParameterTypes()).noneMatch(Pageable.class::isAssignableFrom);
+    }
+
+    private void revisar(String entidad) {
+        ConsultasConfigProperties propiedades = config.getObject();
+        if (propiedades.getModoFindAll() == ConsultasConfigProperties.ModoFindAll.PERMITIR
+                || !propiedades.getEntidadesGrandes().contains(entidad)) {
+            return;
+        }
+
+        String mensaje = "findAll() sin paginar sobre " + entidad + " carga la tabla completa: usar " +
+            "findAll(Pageable), una consulta por rango o ExportacionJdbcRepository";
+        if (propiedades.getModoFindAll() == ConsultasConfigProperties.ModoFindAll.FALLAR) {
+            throw new IllegalStateException(mensaje);
+        }
+
+        meterRegistry.ifAvailable(registro ->
+            registro.counter("consultas.findall.sin.limite", "entidad", entidad).increment());
+        String llamador = llamador();
+        if (avisados.add(entidad + "@" + llamador)) {
+            log.warn("{} (llamado desde {})", mensaje, llamador);
+        }
+    }
+
+    /**
+     * Primer método de la aplicación en la pila, fuera de los repositorios
+     */
+    private static String llamador() {
+        String paquete = GuardiaFindAll.class.getPackageName();
+        String raiz = paquete.substring(0, paquete.lastIndexOf('.'));
+        return StackWalker.getInstance().walk(pila -> pila
+            .filter(marco -> marco.getClassName().startsWith(raiz) && !marco.getClassName().startsWith(paquete))
+            .map(marco -> marco.getClassName().substring(raiz.length() + 1) + "." + marco.getMethodName()
+                + ":" + marco.getLineNumber())
+            .findFirst()
+            .orElse("desconocido"));
+    }
+}
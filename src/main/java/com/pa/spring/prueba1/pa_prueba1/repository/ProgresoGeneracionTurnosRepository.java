@@ -0,0 +1,9 @@
+package com.pa.spring.prueba1.pa_prueba1.repository;
+
+import com.pa.spring.prueba1.pa_prueba1.model.ProgresoGeneracionTurnos;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProgresoGeneracionTurnosRepository extends JpaRepository<ProgresoGeneracionTurnos, Long> {
+}
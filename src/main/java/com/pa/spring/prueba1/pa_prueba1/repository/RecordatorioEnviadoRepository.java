@@ -0,0 +1,9 @@
+package com.pa.spring.prueba1.pa_prueba1.repository;
+
+import com.pa.spring.prueba1.pa_prueba1.model.RecordatorioEnviado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RecordatorioEnviadoRepository extends JpaRepository<RecordatorioEnviado, Long> {
+}
@@ -0,0 +1,77 @@
+package com.pa.spring.prueba1.pa_prueba1.repository;
+
+import com.pa.spring.prueba1.pa_prueba1.dto.ActividadCliente;
+import com.pa.spring.prueba1.pa_prueba1.dto.ResumenPanelBarbero;
+import com.pa.spring.prueba1.pa_prueba1.dto.ResumenReservas;
+import com.pa.spring.prueba1.pa_prueba1.model.Reserva;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Consultas agregadas sobre Reserva para los paneles y reportes: conteos por
+ * estado, ingresos, rankings y totales por mes se calculan en la base de datos y
+ * solo viajan las filas del resultado, por largo que sea el historial.
+ *
+ * Los rangos son [inicio, fin), como en ReservaRepository. Es de solo lectura:
+ * extiende Repository y no JpaRepository para no exponer findAll ni save.
+ */
+public interface ReservaAgregadosRepository extends Repository<Reserva, Long> {
+
+    // ==================== RESÚMENES POR ESTADO ====================
+
+    /**
+     * Resumen de todas las reservas en [inicio, fin) (reporte semanal del admin)
+     */
+    @Query(ResumenReservas.SELECT +
+           "WHERE r.fechaHoraTurno >= :inicio AND r.fechaHoraTurno < :fin")
+    ResumenReservas resumenPorRango(@Param("inicio") LocalDateTime inicio,
+                                    @Param("fin") LocalDateTime fin);
+
+    @Query(ResumenReservas.SELECT +
+           "WHERE r.barbero.idBarbero = :idBarbero " +
+           "AND r.fechaHoraTurno >= :inicio AND r.fechaHoraTurno < :fin")
+    ResumenReservas resumenDeBarberoPorRango(@Param("idBarbero") Long idBarbero,
+                                             @Param("inicio") LocalDateTime inicio,
+                                             @Param("fin") LocalDateTime fin);
+
+    /**
+     * Resumen de todo el historial de un barbero
+     */
+    @Query(ResumenReservas.SELECT +
+           "WHERE r.barbero.idBarbero = :idBarbero")
+    ResumenReservas resumenDeBarbero(@Param("idBarbero") Long idBarbero);
+
+    /**
+     * Reservas no canceladas de hoy y de la semana, y la próxima a partir de ahora,
+     * en una sola pasada por las reservas de la semana del barbero
+     */
+    @Query("SELECT new com.pa.spring.prueba1.pa_prueba1.dto.ResumenPanelBarbero(" +
+           "SUM(CASE WHEN r.fechaHoraTurno >= :inicioHoy AND r.fechaHoraTurno < :finHoy THEN 1 ELSE 0 END), " +
+           "COUNT(r), " +
+           "MIN(CASE WHEN r.fechaHoraTurno > :ahora THEN r.fechaHoraTurno END)) " +
+           "FROM Reserva r " +
+           "WHERE r.barbero.idBarbero = :idBarbero " +
+           "AND r.fechaHoraTurno >= :inicioSemana AND r.fechaHoraTurno < :finSemana " +
+           "AND r.estado <> com.pa.spring.prueba1.pa_prueba1.model.Reserva$EstadoReserva.CANCELADA")
+    ResumenPanelBarbero resumenPanelBarbero(@Param("idBarbero") Long idBarbero,
+                                            @Param("inicioSemana") LocalDateTime inicioSemana,
+                                            @Param("finSemana") LocalDateTime finSemana,
+                                            @Param("inicioHoy") LocalDateTime inicioHoy,
+                                            @Param("finHoy") LocalDateTime finHoy,
+                                            @Param("ahora") LocalDateTime ahora);
+
+    // ==================== ACTIVIDAD DEL CLIENTE ====================
+
+    /**
+     * Todo el historial de un cliente agrupado por estado, servicio, barbero y mes,
+     * para calcular el panel de mis-reservas con una sola consulta (ResumenCliente)
+     */
+    @Query(ActividadCliente.SELECT +
+           "WHERE r.cliente.idCliente = :idCliente " +
+           ActividadCliente.GROUP_BY)
+    List<ActividadCliente> actividadDeCliente(@Param("idCliente") Long idCliente);
+}
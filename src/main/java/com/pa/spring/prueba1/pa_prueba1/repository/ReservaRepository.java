@@ -1,14 +1,19 @@
 package com.pa.spring.prueba1.pa_prueba1.repository;
 
+import com.pa.spring.prueba1.pa_prueba1.dto.ReservaResumen;
 import com.pa.spring.prueba1.pa_prueba1.model.Barbero;
+import com.pa.spring.prueba1.pa_prueba1.model.RecordatorioEnviado;
 import com.pa.spring.prueba1.pa_prueba1.model.Reserva;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ReservaRepository extends JpaRepository<Reserva, Long> {
@@ -84,25 +89,44 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
             LocalDateTime fechaHora);
 
     /**
-     * Contar reservas confirmadas de un barbero para hoy
+     * Contar reservas de un barbero en un estado dentro de [inicio, fin)
      */
     @Query("SELECT COUNT(r) FROM Reserva r WHERE r.barbero = :barbero AND " +
             "r.estado = :estado AND " +
-            "DATE(r.fechaHoraTurno) = DATE(:fecha)")
-    long contarReservasHoyPorEstado(
+            "r.fechaHoraTurno >= :inicio AND r.fechaHoraTurno < :fin")
+    long contarReservasPorEstadoEnRango(
             @Param("barbero") Barbero barbero,
             @Param("estado") Reserva.EstadoReserva estado,
-            @Param("fecha") LocalDateTime fecha);
+            @Param("inicio") LocalDateTime inicio,
+            @Param("fin") LocalDateTime fin);
 
     /**
-     * Obtener todas las reservas de un barbero para una fecha específica
+     * Contar reservas de un barbero en un estado para el día de la fecha indicada.
+     * Se compara con el rango del día, no con DATE(fechaHoraTurno), para poder usar el índice.
+     */
+    default long contarReservasHoyPorEstado(Barbero barbero, Reserva.EstadoReserva estado, LocalDateTime fecha) {
+        LocalDateTime inicioDia = fecha.toLocalDate().atStartOfDay();
+        return contarReservasPorEstadoEnRango(barbero, estado, inicioDia, inicioDia.plusDays(1));
+    }
+
+    /**
+     * Reservas de un barbero dentro de [inicio, fin), ordenadas por fecha
      */
     @Query("SELECT r FROM Reserva r WHERE r.barbero = :barbero AND " +
-            "DATE(r.fechaHoraTurno) = DATE(:fecha) " +
+            "r.fechaHoraTurno >= :inicio AND r.fechaHoraTurno < :fin " +
             "ORDER BY r.fechaHoraTurno")
-    List<Reserva> obtenerReservasPorFecha(
+    List<Reserva> obtenerReservasEnRango(
             @Param("barbero") Barbero barbero,
-            @Param("fecha") LocalDateTime fecha);
+            @Param("inicio") LocalDateTime inicio,
+            @Param("fin") LocalDateTime fin);
+
+    /**
+     * Obtener todas las reservas de un barbero para una fecha específica
+     */
+    default List<Reserva> obtenerReservasPorFecha(Barbero barbero, LocalDateTime fecha) {
+        LocalDateTime inicioDia = fecha.toLocalDate().atStartOfDay();
+        return obtenerReservasEnRango(barbero, inicioDia, inicioDia.plusDays(1));
+    }
 
     /**
      * Verificar si existe una reserva para un barbero en un horario específico
@@ -150,10 +174,20 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
     /**
      * Obtener reservas del día actual de un barbero
      */
+    default List<Reserva> obtenerReservasDeHoy(Long idBarbero) {
+        LocalDateTime inicioDia = LocalDate.now().atStartOfDay();
+        return obtenerReservasDeBarberoEnRango(idBarbero, inicioDia, inicioDia.plusDays(1));
+    }
+
+    /**
+     * Reservas de un barbero (por ID) dentro de [inicio, fin), ordenadas por fecha
+     */
     @Query("SELECT r FROM Reserva r WHERE r.barbero.idBarbero = :idBarbero AND " +
-            "DATE(r.fechaHoraTurno) = CURRENT_DATE " +
+            "r.fechaHoraTurno >= :inicio AND r.fechaHoraTurno < :fin " +
             "ORDER BY r.fechaHoraTurno")
-    List<Reserva> obtenerReservasDeHoy(@Param("idBarbero") Long idBarbero);
+    List<Reserva> obtenerReservasDeBarberoEnRango(@Param("idBarbero") Long idBarbero,
+                                                  @Param("inicio") LocalDateTime inicio,
+                                                  @Param("fin") LocalDateTime fin);
 
     /**
      * Obtiene TODAS las reservas de un barbero ordenadas por fecha ascendente
@@ -200,6 +234,25 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
             Reserva.EstadoReserva estado
     );
 
+    /**
+     * ID del barbero de una reserva, sin cargar la entidad
+     */
+    @Query("SELECT r.barbero.idBarbero FROM Reserva r WHERE r.idReserva = :idReserva")
+    Optional<Long> findIdBarberoByIdReserva(@Param("idReserva") Long idReserva);
+
+    /**
+     *  Intervalos ocupados de un barbero: [fechaHoraTurno, duración del corte] de las
+     * reservas que no están en el estado indicado. Proyección sin cargar entidades.
+     */
+    @Query("SELECT r.fechaHoraTurno, c.duracion FROM Reserva r LEFT JOIN r.corte c " +
+           "WHERE r.barbero.idBarbero = :idBarbero " +
+           "AND r.estado <> :estado " +
+           "AND r.fechaHoraTurno >= :inicio AND r.fechaHoraTurno < :fin")
+    List<Object[]> obtenerIntervalosOcupados(@Param("idBarbero") Long idBarbero,
+                                             @Param("estado") Reserva.EstadoReserva estado,
+                                             @Param("inicio") LocalDateTime inicio,
+                                             @Param("fin") LocalDateTime fin);
+
     // ==================== MÉTODOS NUEVOS PARA DASHBOARD DE CLIENTE ====================
 
     /**
@@ -227,4 +280,86 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
      *  VALIDACIÓN: Obtiene la última reserva creada por un cliente
      */
     Reserva findFirstByClienteIdClienteOrderByFechaHoraReservaDesc(Long idCliente);
-}
\ No newline at end of file
+
+    // ==================== LISTADOS (PROYECCIONES) ====================
+
+    /**
+     * Listado completo del admin, del turno más reciente al más antiguo
+     */
+    @Query(ReservaResumen.SELECT + "ORDER BY r.fechaHoraTurno DESC")
+    List<ReservaResumen> listarResumenes();
+
+    @Query(ReservaResumen.SELECT +
+           "WHERE r.fechaHoraTurno >= :inicio AND r.fechaHoraTurno < :fin " +
+           "ORDER BY r.fechaHoraTurno DESC")
+    List<ReservaResumen> listarResumenesPorRango(@Param("inicio") LocalDateTime inicio,
+                                                 @Param("fin") LocalDateTime fin);
+
+    @Query(ReservaResumen.SELECT +
+           "WHERE r.estado = :estado " +
+           "ORDER BY r.fechaHoraTurno DESC")
+    List<ReservaResumen> listarResumenesPorEstado(@Param("estado") Reserva.EstadoReserva estado);
+
+    /**
+     * Reservas de un barbero en [inicio, fin), en orden cronológico
+     */
+    @Query(ReservaResumen.SELECT +
+           "WHERE r.barbero.idBarbero = :idBarbero " +
+           "AND r.fechaHoraTurno >= :inicio AND r.fechaHoraTurno < :fin " +
+           "ORDER BY r.fechaHoraTurno")
+    List<ReservaResumen> listarResumenesDeBarbero(@Param("idBarbero") Long idBarbero,
+                                                  @Param("inicio") LocalDateTime inicio,
+                                                  @Param("fin") LocalDateTime fin);
+
+    /**
+     * Reservas de un cliente en un estado, de la más reciente a la más antigua
+     */
+    @Query(ReservaResumen.SELECT +
+           "WHERE r.cliente.idCliente = :idCliente AND r.estado = :estado " +
+           "ORDER BY r.fechaHoraTurno DESC")
+    List<ReservaResumen> listarResumenesDeCliente(@Param("idCliente") Long idCliente,
+                                                  @Param("estado") Reserva.EstadoReserva estado);
+
+    /**
+     * Número de reservas de un barbero por estado: filas [estado, total]
+     */
+    @Query("SELECT r.estado, COUNT(r) FROM Reserva r WHERE r.barbero.idBarbero = :idBarbero " +
+           "GROUP BY r.estado")
+    List<Object[]> contarReservasPorEstadoDeBarbero(@Param("idBarbero") Long idBarbero);
+
+    /**
+     * Clientes distintos de un barbero en un estado en [inicio, fin). Es la única
+     * métrica de /barbero/estadisticas que no sale de la tabla diaria: los clientes
+     * distintos de cada día no se pueden sumar.
+     */
+    @Query("SELECT COUNT(DISTINCT r.cliente.idCliente) FROM Reserva r " +
+           "WHERE r.barbero.idBarbero = :idBarbero AND r.estado = :estado " +
+           "AND r.fechaHoraTurno >= :inicio AND r.fechaHoraTurno < :fin")
+    long contarClientesDistintos(@Param("idBarbero") Long idBarbero,
+                                 @Param("estado") Reserva.EstadoReserva estado,
+                                 @Param("inicio") LocalDateTime inicio,
+                                 @Param("fin") LocalDateTime fin);
+
+    // ==================== RECORDATORIOS ====================
+
+    /**
+     * Página de reservas a las que les toca un recordatorio y aún no lo tienen,
+     * paginada por cursor (idReserva > ultimoId): cada página cuesta lo mismo
+     * por muchas reservas que tenga la ventana. Trae en la misma consulta el
+     * cliente, el barbero y el corte que usa el correo.
+     */
+    @Query("SELECT r FROM Reserva r " +
+           "LEFT JOIN FETCH r.cliente LEFT JOIN FETCH r.barbero LEFT JOIN FETCH r.corte " +
+           "WHERE r.estado = :estado " +
+           "AND r.fechaHoraTurno > :desde AND r.fechaHoraTurno <= :hasta " +
+           "AND r.idReserva > :ultimoId " +
+           "AND NOT EXISTS (SELECT 1 FROM RecordatorioEnviado e " +
+           "                WHERE e.idReserva = r.idReserva AND e.tipo = :tipo) " +
+           "ORDER BY r.idReserva")
+    List<Reserva> findPendientesDeRecordatorio(@Param("tipo") RecordatorioEnviado.TipoRecordatorio tipo,
+                                               @Param("estado") Reserva.EstadoReserva estado,
+                                               @Param("desde") LocalDateTime desde,
+                                               @Param("hasta") LocalDateTime hasta,
+                                               @Param("ultimoId") Long ultimoId,
+                                               Pageable pageable);
+}
@@ -0,0 +1,52 @@
+package com.pa.spring.prueba1.pa_prueba1.repository;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Tabla secuencia_id: contadores de los @TableGenerator de las entidades que se
+ * insertan en bucle (notificaciones, bandeja de salida de correos, recordatorios).
+ *
+ * Con IDENTITY Hibernate necesita ejecutar cada INSERT al momento para conocer el
+ * ID, así que no puede agruparlos en lotes JDBC. Con la tabla de secuencias reserva
+ * {@link #BLOQUE} IDs de una vez y los INSERT del flush van en un solo lote.
+ *
+ * Al arrancar se sube cada contador por encima del mayor ID existente, por si la
+ * tabla ya tenía filas creadas con AUTO_INCREMENT.
+ */
+@Repository
+@DependsOn("entityManagerFactory")
+public class SecuenciasIdJdbcRepository {
+
+    /** IDs reservados en cada acceso a la tabla (allocationSize de los generadores) */
+    public static final int BLOQUE = 50;
+
+    public static final String TABLA = "secuencia_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void init() {
+        ajustarAlMaximo("notificaciones", "notificaciones", "id_notificacion");
+        ajustarAlMaximo("correo_pendiente", "correo_pendiente", "id_correo");
+        ajustarAlMaximo("recordatorio_enviado", "recordatorio_enviado", "id_recordatorio");
+    }
+
+    /**
+     * Deja el contador del segmento por encima del mayor ID de la tabla. Solo sube
+     * el valor, así que es seguro con otras instancias ya en marcha.
+     */
+    private void ajustarAlMaximo(String segmento, String tabla, String columnaId) {
+        // El optimizador "pooled" empieza en (valor - BLOQUE + 1): se deja un bloque de margen
+        String minimo = "(SELECT COALESCE(MAX(" + columnaId + "), 0) + " + (BLOQUE + 1) + " FROM " + tabla + ")";
+
+        jdbcTemplate.update("INSERT IGNORE INTO " + TABLA + " (nombre, siguiente) SELECT ?, " + minimo, segmento);
+        jdbcTemplate.update("UPDATE " + TABLA + " SET siguiente = GREATEST(siguiente, " + minimo + ") WHERE nombre = ?",
+            segmento);
+    }
+}
@@ -26,6 +26,15 @@ public interface SolicitudAusenciaRepository extends JpaRepository<SolicitudAuse
      * @return lista de solicitudes filtradas por estado
      */
     List<SolicitudAusencia> findByBarberoIdBarberoAndEstado(Long idBarbero, SolicitudAusencia.EstadoSolicitud estado);
+
+    /**
+     * Cuenta las solicitudes de un barbero con un estado específico.
+     *
+     * @param idBarbero ID del barbero
+     * @param estado estado de la solicitud
+     * @return número de solicitudes
+     */
+    long countByBarberoIdBarberoAndEstado(Long idBarbero, SolicitudAusencia.EstadoSolicitud estado);
     
     /**
      * Encuentra todas las solicitudes con un estado específico.
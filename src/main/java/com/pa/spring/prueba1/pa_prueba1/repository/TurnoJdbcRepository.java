@@ -0,0 +1,52 @@
+package com.pa.spring.prueba1.pa_prueba1.repository;
+
+import com.pa.spring.prueba1.pa_prueba1.model.Turno;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Operaciones masivas sobre la tabla de turnos con JDBC directo.
+ * No pasa por el contexto de persistencia: no crea entidades gestionadas
+ * ni dispara los entity listeners de Turno.
+ */
+@Repository
+public class TurnoJdbcRepository {
+
+    /** Los horarios que ya existen (uk_turno_barbero_fecha) se dejan como están */
+    private static final String INSERTAR_TURNO =
+        "INSERT INTO Turno (fechaHora, estado, idBarbero, version) VALUES (?, ?, ?, 0) " +
+        "ON DUPLICATE KEY UPDATE idTurno = idTurno";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserta turnos DISPONIBLES para un barbero en lotes JDBC. Si otra generación
+     * concurrente ya creó alguno de los horarios, ese horario se omite.
+     *
+     * @param idBarbero ID del barbero
+     * @param fechasHora horarios a insertar (los que faltaban al consultarlos)
+     * @param tamanoLote número de filas por lote
+     * @return número de horarios enviados
+     */
+    public int insertarTurnosDisponibles(Long idBarbero, List<LocalDateTime> fechasHora, int tamanoLote) {
+        if (fechasHora.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(INSERTAR_TURNO, fechasHora, Math.max(1, tamanoLote), (ps, fechaHora) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(fechaHora));
+            ps.setString(2, Turno.EstadoTurno.DISPONIBLE.name());
+            ps.setLong(3, idBarbero);
+        });
+
+        // Con rewriteBatchedStatements el driver no informa filas por sentencia
+        return fechasHora.size();
+    }
+}
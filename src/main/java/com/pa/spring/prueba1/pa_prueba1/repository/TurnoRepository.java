@@ -1,13 +1,17 @@
 package com.pa.spring.prueba1.pa_prueba1.repository;
 
 import com.pa.spring.prueba1.pa_prueba1.model.Turno;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TurnoRepository extends JpaRepository<Turno, Long> {
@@ -19,6 +23,16 @@ public interface TurnoRepository extends JpaRepository<Turno, Long> {
 
     List<Turno> findByBarberoIdBarberoAndFechaHora(Long barberoId, LocalDateTime fechaHora);
 
+    /**
+     * Turno del barbero en esa fecha y hora (hay como mucho uno: uk_turno_barbero_fecha),
+     * bloqueado hasta el final de la transacción. Al ser una lectura con bloqueo ve
+     * también las filas que otra transacción acaba de confirmar.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Turno t WHERE t.barbero.idBarbero = :barberoId AND t.fechaHora = :fechaHora")
+    Optional<Turno> bloquearPorBarberoYFechaHora(@Param("barberoId") Long barberoId,
+            @Param("fechaHora") LocalDateTime fechaHora);
+
     List<Turno> findByBarberoIdBarberoAndEstadoAndFechaHoraBetween(
             Long barberoId,
             Turno.EstadoTurno estado,
@@ -30,12 +44,6 @@ public interface TurnoRepository extends JpaRepository<Turno, Long> {
     List<Turno> findByFechaHoraBetween(LocalDateTime fechaInicio, LocalDateTime fechaFin);
 
     // --- MÉTODOS CON FETCH JOINS ---
-    @Query("SELECT DISTINCT t FROM Turno t " +
-            "LEFT JOIN FETCH t.reservas r " +
-            "LEFT JOIN FETCH r.cliente " +
-            "LEFT JOIN FETCH t.barbero")
-    List<Turno> findAllConReservasYClientes();
-
     @Query("SELECT DISTINCT t FROM Turno t " +
             "LEFT JOIN FETCH t.reservas r " +
             "LEFT JOIN FETCH r.cliente " +
@@ -82,6 +90,67 @@ public interface TurnoRepository extends JpaRepository<Turno, Long> {
 
     boolean existsByBarberoIdBarberoAndFechaHora(Long barberoId, LocalDateTime fechaHora);
 
+    /**
+     * Obtiene solo los horarios de los turnos existentes de un barbero en un rango.
+     * Se usa en la generación masiva para calcular en memoria los turnos faltantes.
+     *
+     * @param barberoId ID del barbero
+     * @param fechaInicio inicio del rango (inclusive)
+     * @param fechaFin fin del rango (inclusive)
+     * @return horarios ya generados
+     */
+    @Query("SELECT t.fechaHora FROM Turno t " +
+            "WHERE t.barbero.idBarbero = :barberoId " +
+            "AND t.fechaHora >= :fechaInicio AND t.fechaHora <= :fechaFin")
+    List<LocalDateTime> findFechasHoraByBarberoAndRango(@Param("barberoId") Long barberoId,
+            @Param("fechaInicio") LocalDateTime fechaInicio,
+            @Param("fechaFin") LocalDateTime fechaFin);
+
+    /**
+     * Cambia de estado los turnos del barbero en esos horarios, pero solo los que
+     * siguen en el estado esperado. Devuelve cuántas filas cambió; como hay un turno
+     * por barbero y horario (uk_turno_barbero_fecha), si es menor que el número de
+     * horarios alguno no estaba en el estado esperado.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Turno t SET t.estado = :estadoNuevo, t.version = t.version + 1 " +
+            "WHERE t.barbero.idBarbero = :barberoId " +
+            "AND t.fechaHora IN :horarios " +
+            "AND t.estado = :estadoEsperado")
+    int cambiarEstadoSiCoincide(@Param("barberoId") Long barberoId,
+            @Param("horarios") List<LocalDateTime> horarios,
+            @Param("estadoEsperado") Turno.EstadoTurno estadoEsperado,
+            @Param("estadoNuevo") Turno.EstadoTurno estadoNuevo);
+
+    /**
+     * Horarios de los turnos de un barbero en un estado dado dentro de un rango
+     * (por ejemplo los bloqueados manualmente como NO_DISPONIBLE).
+     */
+    @Query("SELECT t.fechaHora FROM Turno t " +
+            "WHERE t.barbero.idBarbero = :barberoId " +
+            "AND t.estado = :estado " +
+            "AND t.fechaHora >= :fechaInicio AND t.fechaHora < :fechaFin")
+    List<LocalDateTime> findFechasHoraByBarberoAndEstadoAndRango(@Param("barberoId") Long barberoId,
+            @Param("estado") Turno.EstadoTurno estado,
+            @Param("fechaInicio") LocalDateTime fechaInicio,
+            @Param("fechaFin") LocalDateTime fechaFin);
+
+    /**
+     * Proyección ligera (idTurno, fechaHora, estado) de los turnos de un barbero en un rango.
+     * Se usa para construir el índice de disponibilidad en memoria sin cargar entidades.
+     *
+     * @param barberoId ID del barbero
+     * @param fechaInicio inicio del rango (inclusive)
+     * @param fechaFin fin del rango (exclusive)
+     * @return filas [idTurno, fechaHora, estado]
+     */
+    @Query("SELECT t.idTurno, t.fechaHora, t.estado FROM Turno t " +
+            "WHERE t.barbero.idBarbero = :barberoId " +
+            "AND t.fechaHora >= :fechaInicio AND t.fechaHora < :fechaFin")
+    List<Object[]> findSlotsByBarberoAndRango(@Param("barberoId") Long barberoId,
+            @Param("fechaInicio") LocalDateTime fechaInicio,
+            @Param("fechaFin") LocalDateTime fechaFin);
+
     long countByBarberoIdBarbero(Long idBarbero);
 
     /**
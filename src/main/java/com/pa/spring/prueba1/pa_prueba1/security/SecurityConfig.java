@@ -40,6 +40,7 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/", "/home", "/login", "/registro", "/css/**", "/js/**", "/images/**").permitAll()
                 .requestMatchers("/admin/**").hasAuthority("ROLE_ADMIN")
+                .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
                 .requestMatchers("/barbero/**").hasAuthority("ROLE_BARBERO")  
                 .requestMatchers("/cliente/**").hasAuthority("ROLE_USER")
                 .requestMatchers("/reserva/**", "/mis-reservas/**").hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
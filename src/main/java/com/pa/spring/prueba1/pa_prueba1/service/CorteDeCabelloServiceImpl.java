@@ -2,6 +2,7 @@ package com.pa.spring.prueba1.pa_prueba1.service;
 
 import com.pa.spring.prueba1.pa_prueba1.model.CorteDeCabello;
 import com.pa.spring.prueba1.pa_prueba1.repository.CorteDeCabelloRepository;
+import com.pa.spring.prueba1.pa_prueba1.service.catalogo.CatalogoCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,11 +17,15 @@ public class CorteDeCabelloServiceImpl implements CorteDeCabelloService {
     @Autowired
     private CorteDeCabelloRepository corteDeCabelloRepository;
 
+    // Lista de cortes activos en memoria (se invalida al guardar o eliminar un corte)
+    @Autowired
+    private CatalogoCache catalogoCache;
+
     @Override
     // Obtiene todos los cortes de cabello ACTIVOS (no eliminados)
     public List<CorteDeCabello> obtenerTodos() {
-        // ✅ CAMBIO: Ahora solo retorna servicios activos
-        return corteDeCabelloRepository.findByActivoTrue();
+        // ✅ CAMBIO: Ahora solo retorna servicios activos (desde la caché del catálogo)
+        return catalogoCache.cortesActivos();
     }
 
     @Override
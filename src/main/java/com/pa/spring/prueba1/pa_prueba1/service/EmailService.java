@@ -3,15 +3,17 @@ package com.pa.spring.prueba1.pa_prueba1.service;
 import com.pa.spring.prueba1.pa_prueba1.model.Barbero;
 import com.pa.spring.prueba1.pa_prueba1.model.Cliente;
 import com.pa.spring.prueba1.pa_prueba1.model.Reserva;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import com.pa.spring.prueba1.pa_prueba1.service.correo.BandejaSalidaCorreos;
+import com.pa.spring.prueba1.pa_prueba1.service.correo.PlantillasCorreo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Servicio para envío de correos electrónicos
@@ -19,15 +21,24 @@ import java.time.format.DateTimeFormatter;
  * 
  * @author Tu Nombre
  * @version 2.0 - Agregadas notificaciones para desvinculación
+ * 
+ * El HTML de cada correo sale de las plantillas de templates/email ({@link PlantillasCorreo}).
+ * Los correos no se envían en la petición: se guardan en la bandeja de salida
+ * ({@link BandejaSalidaCorreos}) y los envía el despachador tras el commit.
+ * Los avisos masivos (desvinculación, reasignación, ausencia) van por el mismo
+ * camino: el despachador agrupa los correos por conexión SMTP y usa hasta
+ * {@code app.correo.hilos} conexiones en paralelo.
  */
 @Service
 public class EmailService {
 
+    private static final Logger log = LoggerFactory.getLogger(EmailService.class);
+
     @Autowired
-    private JavaMailSender mailSender;
+    private BandejaSalidaCorreos bandejaSalidaCorreos;
 
-    @Value("${spring.mail.username}")
-    private String fromEmail;
+    @Autowired
+    private PlantillasCorreo plantillasCorreo;
     
     @Value("${app.nombre:Barbería Estilo}")
     private String nombreBarberia;
@@ -41,55 +52,41 @@ public class EmailService {
     // ==================== MÉTODOS BÁSICOS ====================
     
     /**
-     * Envía un correo simple con texto plano
+     * Encola un correo simple con texto plano en la bandeja de salida.
+     * Se guarda en la transacción en curso y se envía después de confirmarla.
      * 
      * @param destinatario email del destinatario
      * @param asunto asunto del correo
      * @param mensaje cuerpo del mensaje
-     * @throws RuntimeException si hay error al enviar
+     * @throws RuntimeException si no se puede encolar
      */
     public void enviarCorreoSimple(String destinatario, String asunto, String mensaje) {
-        try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-            
-            helper.setFrom(fromEmail);
-            helper.setTo(destinatario);
-            helper.setSubject(asunto);
-            helper.setText(mensaje, false); // false = texto plano
-            
-            mailSender.send(mimeMessage);
-            
-            System.out.println("✅ Email simple enviado a: " + destinatario);
-        } catch (Exception e) {
-            System.err.println("❌ Error al enviar email simple: " + e.getMessage());
-            throw new RuntimeException("Error al enviar correo: " + e.getMessage());
-        }
+        encolar(destinatario, asunto, mensaje, false);
     }
     
     /**
-     * Envía un correo con formato HTML
+     * Encola un correo con formato HTML en la bandeja de salida.
+     * Se guarda en la transacción en curso y se envía después de confirmarla.
      * 
      * @param destinatario email del destinatario
      * @param asunto asunto del correo
      * @param mensajeHtml cuerpo del mensaje en HTML
-     * @throws RuntimeException si hay error al enviar
+     * @throws RuntimeException si no se puede encolar
      */
     public void enviarCorreoHTML(String destinatario, String asunto, String mensajeHtml) {
+        encolar(destinatario, asunto, mensajeHtml, true);
+    }
+
+    private void encolar(String destinatario, String asunto, String cuerpo, boolean html) {
+        if (!esEmailValido(destinatario)) {
+            throw new RuntimeException("Error al enviar correo: destinatario inválido " + destinatario);
+        }
         try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-            
-            helper.setFrom(fromEmail);
-            helper.setTo(destinatario);
-            helper.setSubject(asunto);
-            helper.setText(mensajeHtml, true); // true = HTML
-            
-            mailSender.send(mimeMessage);
+            bandejaSalidaCorreos.encolar(destinatario, asunto, cuerpo, html);
             
-            System.out.println("✅ Email HTML enviado a: " + destinatario);
+            log.debug("Email encolado para: {}", destinatario);
         } catch (Exception e) {
-            System.err.println("❌ Error al enviar email HTML: " + e.getMessage());
+            log.warn("Error al encolar email: {}", e.getMessage());
             throw new RuntimeException("Error al enviar correo: " + e.getMessage());
         }
     }
@@ -108,7 +105,7 @@ public class EmailService {
             enviarCorreoHTML(cliente.getCorreo(), asunto, mensaje);
             
         } catch (Exception e) {
-            System.err.println("❌ Error al notificar cancelación por ausencia: " + e.getMessage());
+            log.warn("Error al notificar cancelación por ausencia: {}", e.getMessage());
         }
     }
 
@@ -130,10 +127,10 @@ public class EmailService {
             
             enviarCorreoHTML(cliente.getCorreo(), asunto, mensaje);
             
-            System.out.println("✅ Notificación de cancelación enviada a: " + cliente.getCorreo());
+            log.debug("Notificación de cancelación encolada para: {}", cliente.getCorreo());
             
         } catch (Exception e) {
-            System.err.println("❌ Error al notificar cancelación por desvinculación: " + e.getMessage());
+            log.warn("Error al notificar cancelación por desvinculación: {}", e.getMessage());
         }
     }
     
@@ -153,10 +150,10 @@ public class EmailService {
             
             enviarCorreoHTML(cliente.getCorreo(), asunto, mensaje);
             
-            System.out.println("✅ Notificación de reasignación enviada a: " + cliente.getCorreo());
+            log.debug("Notificación de reasignación encolada para: {}", cliente.getCorreo());
             
         } catch (Exception e) {
-            System.err.println("❌ Error al notificar reasignación: " + e.getMessage());
+            log.warn("Error al notificar reasignación: {}", e.getMessage());
         }
     }
 
@@ -166,218 +163,52 @@ public class EmailService {
      * Construye el mensaje HTML para cancelación por ausencia
      */
     private String construirMensajeCancelacionAusencia(Cliente cliente, Reserva reserva, Barbero barbero, String motivo) {
-        String fecha = reserva.getFechaHoraTurno().format(FORMATO_FECHA);
-        String hora = reserva.getFechaHoraTurno().format(FORMATO_HORA);
-        String nombreServicio = reserva.getCorte() != null ? reserva.getCorte().getNombre() : "Servicio";
-        
-        return String.format("""
-            <!DOCTYPE html>
-            <html>
-            <head>
-                <meta charset="UTF-8">
-                <style>
-                    body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
-                    .container { max-width: 600px; margin: 0 auto; padding: 20px; }
-                    .header { background: #dc3545; color: white; padding: 20px; text-align: center; border-radius: 5px 5px 0 0; }
-                    .content { background: #f8f9fa; padding: 30px; border-radius: 0 0 5px 5px; }
-                    .info-box { background: white; padding: 15px; margin: 20px 0; border-left: 4px solid #dc3545; }
-                    .footer { text-align: center; margin-top: 20px; color: #666; font-size: 12px; }
-                    .button { display: inline-block; padding: 12px 30px; background: #28a745; color: white; text-decoration: none; border-radius: 5px; margin: 20px 0; }
-                </style>
-            </head>
-            <body>
-                <div class="container">
-                    <div class="header">
-                        <h2>⚠️ Cambio en tu Reserva</h2>
-                    </div>
-                    <div class="content">
-                        <p>Hola <strong>%s</strong>,</p>
-                        
-                        <p>Lamentamos informarte que tu reserva ha sido <strong>cancelada</strong> debido a que el barbero no estará disponible.</p>
-                        
-                        <div class="info-box">
-                            <h3>Detalles de la Reserva Cancelada:</h3>
-                            <p>📅 <strong>Fecha:</strong> %s</p>
-                            <p>🕐 <strong>Hora:</strong> %s</p>
-                            <p>💈 <strong>Barbero:</strong> %s</p>
-                            <p>✂️ <strong>Servicio:</strong> %s</p>
-                        </div>
-                        
-                        <p><strong>¿Qué puedes hacer?</strong></p>
-                        <ul>
-                            <li>Reagendar tu cita con otro barbero disponible</li>
-                            <li>Contactarnos para que te ayudemos a encontrar otro horario</li>
-                        </ul>
-                        
-                        <div style="text-align: center;">
-                            <a href="#" class="button">Agendar Nueva Cita</a>
-                        </div>
-                        
-                        <p>Disculpa los inconvenientes causados.</p>
-                        
-                        <p>Saludos,<br><strong>%s</strong></p>
-                    </div>
-                    <div class="footer">
-                        <p>Este es un correo automático, por favor no respondas a este mensaje.</p>
-                    </div>
-                </div>
-            </body>
-            </html>
-            """,
-            cliente.getNombre(),
-            fecha,
-            hora,
-            barbero.getNombreCompleto(),
-            nombreServicio,
-            nombreBarberia
-        );
+        Map<String, Object> variables = variablesReserva(cliente, reserva, barbero);
+        variables.put("motivo", motivo != null ? motivo : "Indisponibilidad del barbero");
+        return plantillasCorreo.renderizar(PlantillasCorreo.CANCELACION_AUSENCIA, variables);
     }
     
     /**
      * Construye el mensaje HTML para cancelación por desvinculación
      */
     private String construirMensajeCancelacionDesvinculacion(Cliente cliente, Reserva reserva, Barbero barbero) {
-        String fecha = reserva.getFechaHoraTurno().format(FORMATO_FECHA);
-        String hora = reserva.getFechaHoraTurno().format(FORMATO_HORA);
-        String nombreServicio = reserva.getCorte() != null ? reserva.getCorte().getNombre() : "Servicio";
-        
-        return String.format("""
-            <!DOCTYPE html>
-            <html>
-            <head>
-                <meta charset="UTF-8">
-                <style>
-                    body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
-                    .container { max-width: 600px; margin: 0 auto; padding: 20px; }
-                    .header { background: #ffc107; color: #333; padding: 20px; text-align: center; border-radius: 5px 5px 0 0; }
-                    .content { background: #f8f9fa; padding: 30px; border-radius: 0 0 5px 5px; }
-                    .info-box { background: white; padding: 15px; margin: 20px 0; border-left: 4px solid #ffc107; }
-                    .alert-box { background: #fff3cd; padding: 15px; margin: 20px 0; border-left: 4px solid #ffc107; border-radius: 5px; }
-                    .footer { text-align: center; margin-top: 20px; color: #666; font-size: 12px; }
-                    .button { display: inline-block; padding: 12px 30px; background: #28a745; color: white; text-decoration: none; border-radius: 5px; margin: 20px 0; }
-                </style>
-            </head>
-            <body>
-                <div class="container">
-                    <div class="header">
-                        <h2>⚠️ Aviso Importante sobre tu Reserva</h2>
-                    </div>
-                    <div class="content">
-                        <p>Estimado/a <strong>%s</strong>,</p>
-                        
-                        <div class="alert-box">
-                            <p><strong>⚠️ Aviso:</strong> El barbero asignado a tu reserva ya no forma parte de nuestro equipo, por lo que tu cita ha sido <strong>cancelada</strong>.</p>
-                        </div>
-                        
-                        <div class="info-box">
-                            <h3>Detalles de la Reserva Cancelada:</h3>
-                            <p>📅 <strong>Fecha:</strong> %s</p>
-                            <p>🕐 <strong>Hora:</strong> %s</p>
-                            <p>💈 <strong>Barbero Original:</strong> %s</p>
-                            <p>✂️ <strong>Servicio:</strong> %s</p>
-                        </div>
-                        
-                        <h3>¿Qué puedes hacer ahora?</h3>
-                        <p>Te invitamos a agendar una nueva cita con cualquiera de nuestros otros excelentes barberos disponibles.</p>
-                        
-                        <div style="text-align: center;">
-                            <a href="#" class="button">Ver Barberos Disponibles</a>
-                        </div>
-                        
-                        <p>Agradecemos tu comprensión y esperamos verte pronto.</p>
-                        
-                        <p>Cordialmente,<br><strong>Equipo de %s</strong></p>
-                    </div>
-                    <div class="footer">
-                        <p>Si tienes alguna pregunta, no dudes en contactarnos.</p>
-                        <p>Este es un correo automático, por favor no respondas a este mensaje.</p>
-                    </div>
-                </div>
-            </body>
-            </html>
-            """,
-            cliente.getNombre(),
-            fecha,
-            hora,
-            barbero.getNombreCompleto(),
-            nombreServicio,
-            nombreBarberia
-        );
+        return plantillasCorreo.renderizar(PlantillasCorreo.CANCELACION_DESVINCULACION,
+            variablesReserva(cliente, reserva, barbero));
     }
     
     /**
      * Construye el mensaje HTML para reasignación de reserva
      */
     private String construirMensajeReasignacion(Cliente cliente, Reserva reserva, Barbero barberoOriginal, Barbero barberoNuevo) {
-        String fecha = reserva.getFechaHoraTurno().format(FORMATO_FECHA);
-        String hora = reserva.getFechaHoraTurno().format(FORMATO_HORA);
-        String nombreServicio = reserva.getCorte() != null ? reserva.getCorte().getNombre() : "Servicio";
-        
-        return String.format("""
-            <!DOCTYPE html>
-            <html>
-            <head>
-                <meta charset="UTF-8">
-                <style>
-                    body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
-                    .container { max-width: 600px; margin: 0 auto; padding: 20px; }
-                    .header { background: #0d6efd; color: white; padding: 20px; text-align: center; border-radius: 5px 5px 0 0; }
-                    .content { background: #f8f9fa; padding: 30px; border-radius: 0 0 5px 5px; }
-                    .info-box { background: white; padding: 15px; margin: 20px 0; border-left: 4px solid #0d6efd; }
-                    .change-box { background: #e7f1ff; padding: 15px; margin: 20px 0; border-left: 4px solid #0d6efd; border-radius: 5px; }
-                    .footer { text-align: center; margin-top: 20px; color: #666; font-size: 12px; }
-                    .highlight { background: #fff3cd; padding: 2px 8px; border-radius: 3px; }
-                </style>
-            </head>
-            <body>
-                <div class="container">
-                    <div class="header">
-                        <h2>🔄 Cambio en tu Reserva</h2>
-                    </div>
-                    <div class="content">
-                        <p>Hola <strong>%s</strong>,</p>
-                        
-                        <p>Te informamos que hemos realizado un cambio en tu reserva programada.</p>
-                        
-                        <div class="change-box">
-                            <h3>📋 ¿Qué cambió?</h3>
-                            <p>Tu barbero original <strong>%s</strong> ya no está disponible.</p>
-                            <p>Hemos reasignado tu cita a <strong class="highlight">%s</strong>.</p>
-                        </div>
-                        
-                        <div class="info-box">
-                            <h3>Detalles de tu Reserva:</h3>
-                            <p>📅 <strong>Fecha:</strong> %s <em>(sin cambios)</em></p>
-                            <p>🕐 <strong>Hora:</strong> %s <em>(sin cambios)</em></p>
-                            <p>💈 <strong>Nuevo Barbero:</strong> <span class="highlight">%s</span></p>
-                            <p>✂️ <strong>Servicio:</strong> %s <em>(sin cambios)</em></p>
-                        </div>
-                        
-                        <p><strong>✅ No necesitas hacer nada:</strong> Tu cita se mantiene en la misma fecha y hora. Solo cambia el barbero que te atenderá.</p>
-                        
-                        <p>Si tienes alguna pregunta o prefieres reagendar, contáctanos.</p>
-                        
-                        <p>¡Te esperamos!</p>
-                        
-                        <p>Saludos,<br><strong>%s</strong></p>
-                    </div>
-                    <div class="footer">
-                        <p>Si deseas cancelar o modificar tu cita, contáctanos lo antes posible.</p>
-                        <p>Este es un correo automático, por favor no respondas a este mensaje.</p>
-                    </div>
-                </div>
-            </body>
-            </html>
-            """,
-            cliente.getNombre(),
-            barberoOriginal.getNombreCompleto(),
-            barberoNuevo.getNombreCompleto(),
-            fecha,
-            hora,
-            barberoNuevo.getNombreCompleto(),
-            nombreServicio,
-            nombreBarberia
-        );
+        Map<String, Object> variables = variablesReserva(cliente, reserva, barberoNuevo);
+        variables.put("barberoOriginal", barberoOriginal.getNombreCompleto());
+        variables.put("barberoNuevo", barberoNuevo.getNombreCompleto());
+        return plantillasCorreo.renderizar(PlantillasCorreo.REASIGNACION, variables);
+    }
+
+    /**
+     * Construye el mensaje HTML de confirmación de reserva
+     */
+    private String construirMensajeConfirmacion(Cliente cliente, Reserva reserva) {
+        Map<String, Object> variables = variablesReserva(cliente, reserva, reserva.getBarbero());
+        variables.put("duracion", reserva.getCorte() != null ? reserva.getCorte().getDuracion() : null);
+        variables.put("precio", reserva.getCorte() != null ? reserva.getCorte().getPrecio() : null);
+        variables.put("urlCancelar", plantillasCorreo.getUrlBase() + "/reserva/cancelar/" + reserva.getIdReserva());
+        return plantillasCorreo.renderizar(PlantillasCorreo.CONFIRMACION, variables);
+    }
+
+    /**
+     * Variables comunes a las plantillas de una reserva
+     */
+    private Map<String, Object> variablesReserva(Cliente cliente, Reserva reserva, Barbero barbero) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("clienteNombre", cliente.getNombre());
+        variables.put("fecha", reserva.getFechaHoraTurno().format(FORMATO_FECHA));
+        variables.put("hora", reserva.getFechaHoraTurno().format(FORMATO_HORA));
+        variables.put("servicio", reserva.getCorte() != null ? reserva.getCorte().getNombre() : "Servicio");
+        variables.put("barberoNombre", barbero != null ? barbero.getNombre() : "");
+        variables.put("barberoApellido", barbero != null && barbero.getApellido() != null ? barbero.getApellido() : "");
+        return variables;
     }
     
     // ==================== MÉTODOS AUXILIARES ====================
@@ -389,18 +220,31 @@ public class EmailService {
         return email != null && email.matches("^[A-Za-z0-9+_.-]+@(.+)$");
     }
 
+    /**
+     * Notifica al cliente que su reserva quedó confirmada
+     */
     public void notificarConfirmacionReserva(Cliente cliente, Reserva reserva) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'notificarConfirmacionReserva'");
+        String asunto = "✅ Reserva Confirmada - " + nombreBarberia;
+        enviarCorreoHTML(cliente.getCorreo(), asunto, construirMensajeConfirmacion(cliente, reserva));
     }
 
+    /**
+     * Notifica al cliente que canceló su reserva
+     */
     public void notificarCancelacionReserva(Cliente cliente, Reserva reservaCancelada) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'notificarCancelacionReserva'");
+        String asunto = "Reserva Cancelada - " + nombreBarberia;
+        String mensaje = plantillasCorreo.renderizar(PlantillasCorreo.CANCELACION,
+            variablesReserva(cliente, reservaCancelada, reservaCancelada.getBarbero()));
+        enviarCorreoHTML(cliente.getCorreo(), asunto, mensaje);
     }
 
+    /**
+     * Recuerda al cliente su próxima cita
+     */
     public void enviarRecordatorioCita(Cliente cliente, Reserva r) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'enviarRecordatorioCita'");
+        String asunto = "⏰ Recordatorio de tu Cita - " + nombreBarberia;
+        String mensaje = plantillasCorreo.renderizar(PlantillasCorreo.RECORDATORIO,
+            variablesReserva(cliente, r, r.getBarbero()));
+        enviarCorreoHTML(cliente.getCorreo(), asunto, mensaje);
     }
 }
\ No newline at end of file
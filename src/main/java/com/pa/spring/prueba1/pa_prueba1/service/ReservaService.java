@@ -1,6 +1,8 @@
 package com.pa.spring.prueba1.pa_prueba1.service;
 
+import com.pa.spring.prueba1.pa_prueba1.dto.ReservaResumen;
 import com.pa.spring.prueba1.pa_prueba1.model.Reserva;
+import com.pa.spring.prueba1.pa_prueba1.service.disponibilidad.RetencionTurnos;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -30,6 +32,9 @@ public interface ReservaService {
     // Crea una nueva reserva, relacionando cliente, barbero, corte, turno y comentarios
     Reserva crearReserva(Long idCliente, Long idBarbero, Long idCorte, Long idTurno, String comentarios);
 
+    // Retiene por unos minutos los turnos del servicio mientras el cliente confirma la reserva
+    RetencionTurnos.Retencion retenerTurnos(Long idCliente, Long idBarbero, Long idCorte, LocalDateTime inicio);
+
     // Marca una reserva como completada
     Reserva completarReserva(Long idReserva);
 
@@ -66,4 +71,15 @@ public interface ReservaService {
      * @throws IllegalStateException si el cliente excede los límites
      */
     void validarLimitesReserva(Long idCliente);
+
+    // ==================== LISTADOS (PROYECCIONES) ====================
+
+    // Resúmenes para las vistas de listado: no cargan las entidades relacionadas
+    List<ReservaResumen> listarResumenes();
+
+    List<ReservaResumen> listarResumenesPorRango(LocalDate fechaInicio, LocalDate fechaFin);
+
+    List<ReservaResumen> listarResumenesPorEstado(Reserva.EstadoReserva estado);
+
+    List<ReservaResumen> listarResumenesPorClienteYEstado(Long idCliente, Reserva.EstadoReserva estado);
 }
\ No newline at end of file
@@ -1,11 +1,19 @@
 package com.pa.spring.prueba1.pa_prueba1.service;
 
+import com.pa.spring.prueba1.pa_prueba1.dto.ReservaResumen;
 import com.pa.spring.prueba1.pa_prueba1.model.*;
 import com.pa.spring.prueba1.pa_prueba1.repository.*;
+import com.pa.spring.prueba1.pa_prueba1.service.concurrencia.BloqueoPorBarbero;
+import com.pa.spring.prueba1.pa_prueba1.service.concurrencia.ReintentoOptimista;
+import com.pa.spring.prueba1.pa_prueba1.service.disponibilidad.IndiceDisponibilidad;
+import com.pa.spring.prueba1.pa_prueba1.service.disponibilidad.RetencionTurnos;
 
 import jakarta.annotation.PostConstruct;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +27,8 @@ import java.util.Optional;
 @Service
 public class ReservaServiceImpl implements ReservaService {
 
+    private static final Logger log = LoggerFactory.getLogger(ReservaServiceImpl.class);
+
     @Autowired
     private ReservaRepository reservaRepository;
     
@@ -34,12 +44,30 @@ public class ReservaServiceImpl implements ReservaService {
     @Autowired
     private TurnoRepository turnoRepository;
     
+    @Autowired
+    private TurnoService turnoService;
+    
+    @Autowired
+    private IndiceDisponibilidad indiceDisponibilidad;
+    
+    @Autowired
+    private ReintentoOptimista reintentoOptimista;
+    
+    @Autowired
+    private BloqueoPorBarbero bloqueoPorBarbero;
+    
+    @Autowired
+    private RetencionTurnos retencionTurnos;
+    
+    @Autowired
+    private EmailService emailService;
+    
     // ==================== MÉTODOS BÁSICOS ====================
     
     @Override
     public List<Reserva> obtenerTodas() {
         List<Reserva> reservas = reservaRepository.findAll();
-        System.out.println("ReservaService.obtenerTodas(): Encontradas " + reservas.size() + " reservas");
+        log.debug("obtenerTodas(): {} reservas", reservas.size());
         return reservas;
     }
     
@@ -85,11 +113,38 @@ public class ReservaServiceImpl implements ReservaService {
         return reservaRepository.countByClienteIdClienteAndEstado(idCliente, estado);
     }
     
+    // ==================== LISTADOS (PROYECCIONES) ====================
+
+    @Override
+    public List<ReservaResumen> listarResumenes() {
+        return reservaRepository.listarResumenes();
+    }
+
+    @Override
+    public List<ReservaResumen> listarResumenesPorRango(LocalDate fechaInicio, LocalDate fechaFin) {
+        // [inicio del primer día, inicio del día siguiente al último)
+        return reservaRepository.listarResumenesPorRango(fechaInicio.atStartOfDay(), fechaFin.plusDays(1).atStartOfDay());
+    }
+
+    @Override
+    public List<ReservaResumen> listarResumenesPorEstado(Reserva.EstadoReserva estado) {
+        return reservaRepository.listarResumenesPorEstado(estado);
+    }
+
+    @Override
+    public List<ReservaResumen> listarResumenesPorClienteYEstado(Long idCliente, Reserva.EstadoReserva estado) {
+        return reservaRepository.listarResumenesDeCliente(idCliente, estado);
+    }
+
     // ==================== CREAR RESERVA ====================
     
     @Override
-    @Transactional
     public Reserva crearReserva(Long idCliente, Long idBarbero, Long idCorte, Long idTurno, String comentarios) {
+        return bloqueoPorBarbero.ejecutar(idBarbero, () -> reintentoOptimista.ejecutar("crearReserva",
+                () -> crearReservaUnaVez(idCliente, idBarbero, idCorte, idTurno, comentarios)));
+    }
+    
+    private Reserva crearReservaUnaVez(Long idCliente, Long idBarbero, Long idCorte, Long idTurno, String comentarios) {
         try {
             // Buscar entidades necesarias
             Cliente cliente = clienteRepository.findById(idCliente).orElse(null);
@@ -101,12 +156,9 @@ public class ReservaServiceImpl implements ReservaService {
                 throw new IllegalArgumentException("Faltan datos requeridos para crear la reserva");
             }
 
-            System.out.println("=== CREANDO RESERVA ===");
-            System.out.println("Cliente: " + cliente.getNombre());
-            System.out.println("Barbero: " + barbero.getNombre());
-            System.out.println("Servicio: " + corte.getNombre());
-            System.out.println("Duración: " + corte.getDuracion() + " minutos");
-            System.out.println("Turno inicial: " + turnoInicial.getFechaHora());
+            log.debug("Creando reserva: cliente {}, barbero {}, servicio {} ({} min), turno {}",
+                    cliente.getNombre(), barbero.getNombre(), corte.getNombre(), corte.getDuracion(),
+                    turnoInicial.getFechaHora());
 
             // ✅ VALIDACIÓN 1: Turno inicial debe estar disponible
             if (turnoInicial.getEstado() != Turno.EstadoTurno.DISPONIBLE) {
@@ -126,8 +178,6 @@ public class ReservaServiceImpl implements ReservaService {
             int duracionMinutos = corte.getDuracion();
             int turnosNecesarios = (int) Math.ceil(duracionMinutos / 15.0);
             
-            System.out.println("📋 Turnos consecutivos necesarios: " + turnosNecesarios);
-            
             // ✅ VALIDACIÓN 3: Verificar que no se exceda el horario de trabajo del barbero
             LocalDateTime horaFinServicio = turnoInicial.getFechaHora().plusMinutes(duracionMinutos);
             LocalTime horaFinTrabajo = barbero.getHoraFin();
@@ -160,50 +210,40 @@ public class ReservaServiceImpl implements ReservaService {
                 }
             }
             
-            // Obtener y validar todos los turnos consecutivos
-            List<Turno> turnosABloquear = new ArrayList<>();
-            turnosABloquear.add(turnoInicial);
-            
-            LocalDateTime fechaHoraActual = turnoInicial.getFechaHora();
+            // Horarios de los turnos consecutivos que ocupará el servicio
+            List<LocalDateTime> horariosABloquear = new ArrayList<>();
+            for (int i = 0; i < turnosNecesarios; i++) {
+                horariosABloquear.add(turnoInicial.getFechaHora().plusMinutes(15L * i));
+            }
             
-            // Buscar y validar los turnos siguientes
-            for (int i = 1; i < turnosNecesarios; i++) {
-                LocalDateTime fechaHoraSiguiente = fechaHoraActual.plusMinutes(15);
-                
-                System.out.println("   Buscando turno para: " + fechaHoraSiguiente);
-                
-                // Buscar el siguiente turno
-                List<Turno> siguienteTurno = turnoRepository.findByBarberoIdBarberoAndFechaHora(
-                        idBarbero, fechaHoraSiguiente);
-                
-                // ✅ VALIDACIÓN 5: El turno consecutivo debe existir
-                if (siguienteTurno.isEmpty()) {
-                    throw new IllegalStateException(
-                        String.format("No hay turnos disponibles suficientes para completar este servicio de %d minutos. " +
-                                     "Falta el turno de las %s. Por favor selecciona otro horario.",
-                                     duracionMinutos, fechaHoraSiguiente.toLocalTime())
-                    );
-                }
-                
-                Turno turno = siguienteTurno.get(0);
-                
-                // ✅ VALIDACIÓN 6: El turno consecutivo debe estar disponible
-                if (turno.getEstado() != Turno.EstadoTurno.DISPONIBLE) {
-                    throw new IllegalStateException(
-                        String.format("El turno de las %s ya está ocupado. " +
-                                     "No hay suficiente espacio consecutivo para este servicio de %d minutos.",
-                                     fechaHoraSiguiente.toLocalTime(), duracionMinutos)
-                    );
-                }
-                
-                turnosABloquear.add(turno);
-                fechaHoraActual = fechaHoraSiguiente;
+            // En modo virtual los turnos se crean ahora si están libres
+            turnoService.materializarTurnos(idBarbero, horariosABloquear);
+
+            // ✅ VALIDACIÓN 5: Ningún turno puede estar retenido por otro cliente que está confirmando
+            if (retencionTurnos.retenidoPorOtro(idBarbero, horariosABloquear, idCliente)) {
+                throw new IllegalStateException(
+                    "Otro cliente está confirmando una reserva en este horario. Por favor selecciona otro horario.");
             }
+
+            // ✅ VALIDACIÓN 6: Reclamar los turnos con un UPDATE condicional. Hay un
+            // turno por barbero y horario (uk_turno_barbero_fecha), así que si cambian
+            // menos filas que horarios alguno ya estaba ocupado y se deshace todo.
+            log.debug("Bloqueando turnos: {}", horariosABloquear);
+            int reclamados = turnoRepository.cambiarEstadoSiCoincide(
+                    idBarbero, horariosABloquear, Turno.EstadoTurno.DISPONIBLE, Turno.EstadoTurno.NO_DISPONIBLE);
             
-            System.out.println("✅ Todas las validaciones pasaron. Turnos a bloquear:");
-            for (Turno t : turnosABloquear) {
-                System.out.println("   - " + t.getFechaHora() + " (ID: " + t.getIdTurno() + ")");
+            if (reclamados != horariosABloquear.size()) {
+                throw new IllegalStateException(
+                    String.format("No hay suficiente espacio consecutivo para este servicio de %d minutos: " +
+                                 "alguno de los turnos ya está ocupado. Por favor selecciona otro horario.",
+                                 duracionMinutos)
+                );
             }
+            indiceDisponibilidad.registrarOcupadosAlConfirmar(idBarbero, horariosABloquear);
+            retencionTurnos.convertirAlConfirmar(idCliente);
+            
+            // El UPDATE masivo limpió el contexto de persistencia: reflejar el estado en la copia en memoria
+            turnoInicial.setEstado(Turno.EstadoTurno.NO_DISPONIBLE);
 
             // Crear la reserva
             Reserva reserva = new Reserva();
@@ -219,29 +259,55 @@ public class ReservaServiceImpl implements ReservaService {
             // Guardar la reserva
             Reserva reservaGuardada = reservaRepository.save(reserva);
 
-            // Bloquear todos los turnos consecutivos
-            System.out.println("🔒 Bloqueando turnos:");
-            for (Turno turno : turnosABloquear) {
-                turno.setEstado(Turno.EstadoTurno.NO_DISPONIBLE);
-                turnoRepository.save(turno);
-                System.out.println("   ✓ Turno bloqueado: " + turno.getFechaHora() + " (ID: " + turno.getIdTurno() + ")");
-            }
+            // El correo se encola en la misma transacción: sin reserva no hay correo y viceversa
+            emailService.notificarConfirmacionReserva(cliente, reservaGuardada);
+
+            log.debug("Reserva creada con ID {}", reservaGuardada.getIdReserva());
 
-            System.out.println("✅ Reserva creada exitosamente con ID: " + reservaGuardada.getIdReserva());
-            System.out.println("======================");
-            
             return reservaGuardada;
 
         } catch (IllegalArgumentException | IllegalStateException e) {
-            System.out.println("❌ Validación fallida: " + e.getMessage());
+            log.debug("Reserva rechazada: {}", e.getMessage());
             throw e;
+        } catch (OptimisticLockingFailureException e) {
+            throw e; // Lo gestiona ReintentoOptimista
         } catch (Exception e) {
-            System.out.println("❌ Error inesperado al crear reserva: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error inesperado al crear reserva", e);
             throw new RuntimeException("Error al crear la reserva: " + e.getMessage(), e);
         }
     }
     
+    // ==================== RETENER TURNOS ====================
+    
+    @Override
+    public RetencionTurnos.Retencion retenerTurnos(Long idCliente, Long idBarbero, Long idCorte, LocalDateTime inicio) {
+        CorteDeCabello corte = corteRepository.findById(idCorte).orElse(null);
+        if (corte == null || corte.getDuracion() == null) {
+            throw new IllegalArgumentException("Servicio no encontrado");
+        }
+        
+        // La retención anterior del cliente no debe ocultarle el horario que vuelve a elegir
+        retencionTurnos.liberar(idCliente);
+        
+        boolean disponible = turnoService
+                .obtenerTurnosDisponiblesPorDuracionYRango(idBarbero, corte.getDuracion(), inicio, inicio.plusMinutes(1))
+                .stream()
+                .anyMatch(t -> inicio.equals(t.getFechaHora()));
+        if (!disponible) {
+            throw new IllegalStateException("El horario seleccionado ya no está disponible. Intenta con otro horario.");
+        }
+        
+        RetencionTurnos.Retencion retencion = retencionTurnos.retener(
+                idCliente, idBarbero, RetencionTurnos.horariosDelServicio(inicio, corte.getDuracion()));
+        if (retencion == null) {
+            throw new IllegalStateException("Otro cliente está reservando este horario. Intenta con otro horario.");
+        }
+        
+        log.debug("Turnos retenidos para cliente {}: {} hasta {}",
+                idCliente, retencion.getHorarios(), retencion.getExpira());
+        return retencion;
+    }
+    
     // ==================== COMPLETAR RESERVA ====================
     
     @Override
@@ -268,8 +334,13 @@ public class ReservaServiceImpl implements ReservaService {
     // ==================== CANCELAR RESERVA ====================
     
     @Override
-    @Transactional
     public Reserva cancelarReserva(Long idReserva) {
+        Long idBarbero = reservaRepository.findIdBarberoByIdReserva(idReserva).orElse(null);
+        return bloqueoPorBarbero.ejecutar(idBarbero,
+                () -> reintentoOptimista.ejecutar("cancelarReserva", () -> cancelarReservaUnaVez(idReserva)));
+    }
+    
+    private Reserva cancelarReservaUnaVez(Long idReserva) {
         Optional<Reserva> optReserva = reservaRepository.findById(idReserva);
         if (!optReserva.isPresent()) {
             return null;
@@ -279,20 +350,16 @@ public class ReservaServiceImpl implements ReservaService {
         
         // Verificar que la reserva esté pendiente
         if (reserva.getEstado() != Reserva.EstadoReserva.PENDIENTE) {
-            System.out.println("⚠️ La reserva ya no está pendiente (Estado: " + reserva.getEstado() + ")");
+            log.debug("La reserva {} ya no está pendiente (estado {})", idReserva, reserva.getEstado());
             return null;
         }
         
-        System.out.println("=== CANCELANDO RESERVA ===");
-        System.out.println("Reserva ID: " + idReserva);
-        System.out.println("Servicio: " + reserva.getCorte().getNombre());
-        System.out.println("Duración: " + reserva.getCorte().getDuracion() + " minutos");
-        
         // 🔥 CORREGIDO: Calcular cuántos turnos se bloquearon originalmente
         int duracionMinutos = reserva.getCorte().getDuracion();
         int turnosALiberar = (int) Math.ceil(duracionMinutos / 15.0);
         
-        System.out.println("🔓 Turnos a liberar: " + turnosALiberar);
+        log.debug("Cancelando reserva {}: servicio {} ({} min), {} turnos a liberar",
+                idReserva, reserva.getCorte().getNombre(), duracionMinutos, turnosALiberar);
         
         // 🔥 CORREGIDO: Liberar todos los turnos consecutivos
         Turno turnoInicial = reserva.getTurno();
@@ -308,9 +375,9 @@ public class ReservaServiceImpl implements ReservaService {
                     Turno turno = turnos.get(0);
                     turno.setEstado(Turno.EstadoTurno.DISPONIBLE);
                     turnoRepository.save(turno);
-                    System.out.println("   ✓ Turno liberado: " + turno.getFechaHora() + " (ID: " + turno.getIdTurno() + ")");
+                    log.debug("Turno liberado: {} (ID {})", turno.getFechaHora(), turno.getIdTurno());
                 } else {
-                    System.out.println("   ⚠️ No se encontró turno para liberar: " + fechaHoraActual);
+                    log.warn("No se encontró turno para liberar: {}", fechaHoraActual);
                 }
                 
                 fechaHoraActual = fechaHoraActual.plusMinutes(15);
@@ -320,9 +387,9 @@ public class ReservaServiceImpl implements ReservaService {
         // Actualizar estado de la reserva
         reserva.setEstado(Reserva.EstadoReserva.CANCELADA);
         Reserva reservaActualizada = reservaRepository.save(reserva);
-        
-        System.out.println("✅ Reserva cancelada exitosamente");
-        System.out.println("==========================");
+
+        // Encolado en la misma transacción que la cancelación
+        emailService.notificarCancelacionReserva(reservaActualizada.getCliente(), reservaActualizada);
         
         return reservaActualizada;
     }
@@ -330,22 +397,26 @@ public class ReservaServiceImpl implements ReservaService {
     // ==================== ELIMINAR RESERVA ====================
     
     @Override
-    @Transactional
     public void eliminarReserva(Long idReserva) {
+        Long idBarbero = reservaRepository.findIdBarberoByIdReserva(idReserva).orElse(null);
+        bloqueoPorBarbero.ejecutar(idBarbero, () -> reintentoOptimista.ejecutar("eliminarReserva", () -> {
+            eliminarReservaUnaVez(idReserva);
+            return null;
+        }));
+    }
+    
+    private void eliminarReservaUnaVez(Long idReserva) {
         Optional<Reserva> optReserva = reservaRepository.findById(idReserva);
         if (optReserva.isPresent()) {
             Reserva reserva = optReserva.get();
             
             // Liberar los turnos si la reserva está pendiente
             if (reserva.getEstado() == Reserva.EstadoReserva.PENDIENTE) {
-                System.out.println("=== ELIMINANDO RESERVA Y LIBERANDO TURNOS ===");
-                System.out.println("Reserva ID: " + idReserva);
-                
                 // 🔥 CORREGIDO: Calcular cuántos turnos liberar
                 int duracionMinutos = reserva.getCorte().getDuracion();
                 int turnosALiberar = (int) Math.ceil(duracionMinutos / 15.0);
                 
-                System.out.println("🔓 Turnos a liberar: " + turnosALiberar);
+                log.debug("Eliminando reserva {} y liberando {} turnos", idReserva, turnosALiberar);
                 
                 // Liberar todos los turnos consecutivos
                 Turno turnoInicial = reserva.getTurno();
@@ -361,14 +432,12 @@ public class ReservaServiceImpl implements ReservaService {
                             Turno turno = turnos.get(0);
                             turno.setEstado(Turno.EstadoTurno.DISPONIBLE);
                             turnoRepository.save(turno);
-                            System.out.println("   ✓ Turno liberado: " + turno.getFechaHora());
+                            log.debug("Turno liberado: {}", turno.getFechaHora());
                         }
                         
                         fechaHoraActual = fechaHoraActual.plusMinutes(15);
                     }
                 }
-                
-                System.out.println("===================================");
             }
             
             reservaRepository.delete(reserva);
@@ -389,23 +458,17 @@ public class ReservaServiceImpl implements ReservaService {
     @PostConstruct
     public void init() {
         try {
+            // Solo conteos: el arranque no debe depender del tamaño de la tabla
             long count = reservaRepository.countAllReservas();
-            System.out.println("=== INICIALIZACIÓN DE RESERVAS ===");
-            System.out.println("Número total de reservas en la base de datos: " + count);
+            log.info("Reservas en la base de datos: {}", count);
 
-            if (count > 0) {
-                List<Reserva> reservas = reservaRepository.findAll();
-                System.out.println("Listado de reservas:");
-                for (Reserva r : reservas) {
-                    System.out.println("  - ID: " + r.getIdReserva() +
-                            ", Cliente: " + (r.getCliente() != null ? r.getCliente().getNombre() : "null") +
-                            ", Estado: " + r.getEstado() +
-                            ", Fecha: " + r.getFechaHoraTurno());
+            if (count > 0 && log.isDebugEnabled()) {
+                for (Reserva.EstadoReserva estado : Reserva.EstadoReserva.values()) {
+                    log.debug("  - {}: {}", estado, reservaRepository.countByEstado(estado));
                 }
             }
         } catch (Exception e) {
-            System.out.println("Error al inicializar el servicio de reservas: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error al inicializar el servicio de reservas: {}", e.getMessage());
         }
     }
 
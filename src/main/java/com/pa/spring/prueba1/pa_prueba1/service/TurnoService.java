@@ -5,11 +5,17 @@ import com.pa.spring.prueba1.pa_prueba1.model.Turno;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public interface TurnoService {
     
     // ===== MÉTODOS BÁSICOS =====
     List<Turno> obtenerTodos();
+
+    long contarTodos();
+
+    /** Los últimos turnos por fecha, sin cargar la tabla */
+    List<Turno> obtenerUltimos(int cantidad);
     
     Turno obtenerPorId(Long id);
     
@@ -38,6 +44,26 @@ public interface TurnoService {
      */
     List<Turno> obtenerTurnosDisponiblesPorDuracionYBarbero(Long barberoId, Integer duracionMinutos);
     
+    /**
+     * Igual que obtenerTurnosDisponiblesPorDuracionYBarbero, pero solo con inicios
+     * futuros dentro de [desde, hasta), ordenados por fecha
+     */
+    List<Turno> obtenerTurnosDisponiblesPorDuracionYRango(Long barberoId, Integer duracionMinutos,
+                                                          LocalDateTime desde, LocalDateTime hasta);
+    
+    /**
+     * Devuelve el turno del barbero en esa fecha y hora. En modo virtual, si todavía
+     * no existe y el horario está libre, lo crea como DISPONIBLE para poder reservarlo.
+     * @return el turno, o null si no existe (modo materializado) o no está libre (modo virtual)
+     */
+    Turno obtenerOMaterializarTurno(Long idBarbero, LocalDateTime fechaHora);
+    
+    /**
+     * En modo virtual crea como DISPONIBLE los turnos de esos horarios que todavía
+     * no existen y están libres. En modo materializado no hace nada.
+     */
+    void materializarTurnos(Long idBarbero, List<LocalDateTime> horarios);
+    
     // ===== MÉTODOS POR ESTADO =====
     List<Turno> obtenerTurnosDisponibles();
     
@@ -59,6 +85,15 @@ public interface TurnoService {
     
     Turno cambiarEstadoTurno(Long idTurno, Turno.EstadoTurno nuevoEstado);
     
+    /**
+     * Marca el turno como NO_DISPONIBLE con las mismas reglas que una reserva: respeta
+     * las retenciones de otros clientes y solo lo reclama si sigue DISPONIBLE en la BD.
+     * @param idCliente cliente que reserva (null = ninguna retención propia)
+     * @return el turno reservado, o null si no existe
+     * @throws IllegalStateException si el turno ya no está disponible o lo retiene otro cliente
+     */
+    Turno reservarTurno(Long idTurno, Long idCliente);
+    
     Turno marcarTurnoNoDisponible(Long idTurno);
     
     Turno marcarTurnoDisponible(Long idTurno);
@@ -77,6 +112,19 @@ public interface TurnoService {
     
     List<Turno> generarTurnosAutomaticos(Long idBarbero, LocalDateTime fechaInicio, LocalDateTime fechaFin);
     
+    // ===== GENERACIÓN MASIVA =====
+    /**
+     * Genera los turnos faltantes de un barbero con INSERT por lotes (sin entidades gestionadas)
+     * @return número de turnos creados
+     */
+    int generarTurnosMasivo(Long idBarbero, LocalDate fechaInicio, LocalDate fechaFin);
+    
+    /**
+     * Genera los turnos faltantes de todos los barberos activos con INSERT por lotes
+     * @return turnos creados por ID de barbero
+     */
+    Map<Long, Integer> generarTurnosMasivoTodos(LocalDate fechaInicio, LocalDate fechaFin);
+    
     // ===== MÉTODOS ADICIONALES =====
     List<Turno> listarTurnosPorBarbero(Long idBarbero);
 }
\ No newline at end of file
@@ -1,32 +1,73 @@
 package com.pa.spring.prueba1.pa_prueba1.service;
 
+import com.pa.spring.prueba1.pa_prueba1.config.DisponibilidadConfigProperties;
+import com.pa.spring.prueba1.pa_prueba1.config.GeneracionTurnosConfigProperties;
 import com.pa.spring.prueba1.pa_prueba1.model.Barbero;
 import com.pa.spring.prueba1.pa_prueba1.model.Turno;
 import com.pa.spring.prueba1.pa_prueba1.repository.BarberoRepository;
+import com.pa.spring.prueba1.pa_prueba1.repository.TurnoJdbcRepository;
 import com.pa.spring.prueba1.pa_prueba1.repository.TurnoRepository;
-
+import com.pa.spring.prueba1.pa_prueba1.service.concurrencia.BloqueoPorBarbero;
+import com.pa.spring.prueba1.pa_prueba1.service.concurrencia.ReintentoOptimista;
+import com.pa.spring.prueba1.pa_prueba1.service.disponibilidad.IndiceDisponibilidad;
+import com.pa.spring.prueba1.pa_prueba1.service.disponibilidad.MotorTurnosVirtuales;
+import com.pa.spring.prueba1.pa_prueba1.service.disponibilidad.RetencionTurnos;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class TurnoServiceImpl implements TurnoService {
 
+    private static final Logger log = LoggerFactory.getLogger(TurnoServiceImpl.class);
+
     @Autowired
     private TurnoRepository turnoRepository;
 
     @Autowired
     private BarberoRepository barberoRepository;
 
+    @Autowired
+    private TurnoJdbcRepository turnoJdbcRepository;
+
+    @Autowired
+    private IndiceDisponibilidad indiceDisponibilidad;
+
+    @Autowired
+    private GeneracionTurnosConfigProperties generacionConfig;
+
+    @Autowired
+    private DisponibilidadConfigProperties disponibilidadConfig;
+
+    @Autowired
+    private MotorTurnosVirtuales motorTurnosVirtuales;
+
+    @Autowired
+    private RetencionTurnos retencionTurnos;
+
+    @Autowired
+    private BloqueoPorBarbero bloqueoPorBarbero;
+
+    @Autowired
+    private ReintentoOptimista reintentoOptimista;
+
     // ===== MÉTODOS BÁSICOS =====
 
     @Override
@@ -34,6 +75,17 @@ public class TurnoServiceImpl implements TurnoService {
         return turnoRepository.findAll();
     }
 
+    @Override
+    public long contarTodos() {
+        return turnoRepository.count();
+    }
+
+    @Override
+    public List<Turno> obtenerUltimos(int cantidad) {
+        return turnoRepository.findAll(PageRequest.of(0, cantidad, Sort.by(Sort.Direction.DESC, "fechaHora")))
+            .getContent();
+    }
+
     @Override
     public Turno obtenerPorId(Long id) {
         return turnoRepository.findById(id).orElse(null);
@@ -67,12 +119,17 @@ public class TurnoServiceImpl implements TurnoService {
         LocalDateTime ahora = LocalDateTime.now();
         LocalDateTime limite = ahora.plusMonths(1);
         
-        return turnoRepository.findByBarberoIdBarberoAndEstadoAndFechaHoraBetween(
+        if (esModoVirtual()) {
+            return filtrarRetenidos(idBarbero, turnosVirtuales(idBarbero, MotorTurnosVirtuales.MINUTOS_SLOT, ahora, limite),
+                MotorTurnosVirtuales.MINUTOS_SLOT);
+        }
+        
+        return filtrarRetenidos(idBarbero, turnoRepository.findByBarberoIdBarberoAndEstadoAndFechaHoraBetween(
             idBarbero, 
             Turno.EstadoTurno.DISPONIBLE, 
             ahora, 
             limite
-        );
+        ), MotorTurnosVirtuales.MINUTOS_SLOT);
     }
 
     @Override
@@ -93,21 +150,44 @@ public class TurnoServiceImpl implements TurnoService {
         LocalDateTime inicioDelDia = fecha.atStartOfDay();
         LocalDateTime finDelDia = fecha.atTime(23, 59, 59);
         
-        return turnoRepository.findByBarberoIdBarberoAndEstadoAndFechaHoraBetween(
+        if (esModoVirtual()) {
+            return filtrarRetenidos(idBarbero,
+                turnosVirtuales(idBarbero, MotorTurnosVirtuales.MINUTOS_SLOT, inicioDelDia, fecha.plusDays(1).atStartOfDay()),
+                MotorTurnosVirtuales.MINUTOS_SLOT);
+        }
+        
+        return filtrarRetenidos(idBarbero, turnoRepository.findByBarberoIdBarberoAndEstadoAndFechaHoraBetween(
             idBarbero,
             Turno.EstadoTurno.DISPONIBLE,
             inicioDelDia,
             finDelDia
-        );
+        ), MotorTurnosVirtuales.MINUTOS_SLOT);
     }
 
     // ===== MÉTODO PARA MANEJAR DIFERENTES DURACIONES =====
 
     @Override
     public List<Turno> obtenerTurnosDisponiblesPorDuracionYBarbero(Long barberoId, Integer duracionMinutos) {
+        return filtrarRetenidos(barberoId, buscarTurnosPorDuracion(barberoId, duracionMinutos), duracionMinutos);
+    }
+
+    private List<Turno> buscarTurnosPorDuracion(Long barberoId, Integer duracionMinutos) {
+        if (esModoVirtual()) {
+            LocalDateTime ahora = LocalDateTime.now();
+            return turnosVirtuales(barberoId, duracionMinutos, ahora, ahora.plusMonths(1));
+        }
+
+        // Camino rápido: responder desde el índice en memoria sin consultar la BD
+        if (indiceDisponibilidad.estaHabilitado()) {
+            List<Turno> desdeIndice = indiceDisponibilidad.buscarTurnosConsecutivos(barberoId, duracionMinutos);
+            if (desdeIndice != null) {
+                return desdeIndice;
+            }
+        }
+
         Barbero barbero = barberoRepository.findById(barberoId).orElse(null);
         if (barbero == null) {
-            System.out.println("❌ Barbero no encontrado");
+            log.debug("Barbero {} no encontrado", barberoId);
             return new ArrayList<>();
         }
         
@@ -121,14 +201,9 @@ public class TurnoServiceImpl implements TurnoService {
             .filter(t -> t.getEstado() == Turno.EstadoTurno.DISPONIBLE)
             .collect(Collectors.toList());
         
-        System.out.println("=== FILTRANDO TURNOS POR DURACIÓN ===");
-        System.out.println("Barbero: " + barbero.getNombre());
-        System.out.println("Hora fin barbero: " + barbero.getHoraFin());
-        if (barbero.getHoraInicioAlmuerzo() != null && barbero.getHoraFinAlmuerzo() != null) {
-            System.out.println("Almuerzo: " + barbero.getHoraInicioAlmuerzo() + " - " + barbero.getHoraFinAlmuerzo());
-        }
-        System.out.println("Duración solicitada: " + duracionMinutos + " minutos");
-        System.out.println("Total turnos disponibles: " + turnosDisponibles.size());
+        log.debug("Filtrando turnos por duración: barbero {} (fin {}, almuerzo {} - {}), {} min, {} disponibles",
+            barbero.getNombre(), barbero.getHoraFin(), barbero.getHoraInicioAlmuerzo(), barbero.getHoraFinAlmuerzo(),
+            duracionMinutos, turnosDisponibles.size());
         
         // Para servicios de 15 minutos o menos
         if (duracionMinutos <= 15) {
@@ -157,8 +232,7 @@ public class TurnoServiceImpl implements TurnoService {
                 })
                 .collect(Collectors.toList());
             
-            System.out.println("Turnos válidos (dentro del horario): " + turnosValidos.size());
-            System.out.println("=====================================");
+            log.debug("Turnos válidos (dentro del horario): {}", turnosValidos.size());
             return turnosValidos;
         }
         
@@ -166,8 +240,6 @@ public class TurnoServiceImpl implements TurnoService {
         List<Turno> turnosValidos = new ArrayList<>();
         int turnosNecesarios = (int) Math.ceil(duracionMinutos / 15.0);
         
-        System.out.println("Turnos consecutivos necesarios: " + turnosNecesarios);
-        
         for (int i = 0; i <= turnosDisponibles.size() - turnosNecesarios; i++) {
             Turno turnoInicial = turnosDisponibles.get(i);
             LocalTime horaInicio = turnoInicial.getFechaHora().toLocalTime();
@@ -175,9 +247,8 @@ public class TurnoServiceImpl implements TurnoService {
             
             // ✅ VALIDACIÓN 1: No debe exceder el horario de fin del barbero
             if (horaFinServicio.isAfter(barbero.getHoraFin())) {
-                System.out.println("   ⏰ Turno " + turnoInicial.getFechaHora() + 
-                    " descartado: terminaría a las " + horaFinServicio + 
-                    " (después de " + barbero.getHoraFin() + ")");
+                log.debug("Turno {} descartado: terminaría a las {} (después de {})",
+                    turnoInicial.getFechaHora(), horaFinServicio, barbero.getHoraFin());
                 continue;
             }
             
@@ -188,10 +259,8 @@ public class TurnoServiceImpl implements TurnoService {
                      horaFinServicio.isAfter(barbero.getHoraInicioAlmuerzo()));
                 
                 if (cruzaConAlmuerzo) {
-                    System.out.println("   🍽️ Turno " + turnoInicial.getFechaHora() + 
-                        " descartado: cruza con horario de almuerzo (" + 
-                        barbero.getHoraInicioAlmuerzo() + " - " + 
-                        barbero.getHoraFinAlmuerzo() + ")");
+                    log.debug("Turno {} descartado: cruza con horario de almuerzo ({} - {})",
+                        turnoInicial.getFechaHora(), barbero.getHoraInicioAlmuerzo(), barbero.getHoraFinAlmuerzo());
                     continue;
                 }
             }
@@ -216,17 +285,192 @@ public class TurnoServiceImpl implements TurnoService {
             
             if (tieneEspacioConsecutivo) {
                 turnosValidos.add(turnoInicial);
-                System.out.println("   ✓ Turno válido: " + turnoInicial.getFechaHora() + 
-                    " (termina a las " + horaFinServicio + ")");
+                log.debug("Turno válido: {} (termina a las {})", turnoInicial.getFechaHora(), horaFinServicio);
             }
         }
         
-        System.out.println("Total turnos válidos: " + turnosValidos.size());
-        System.out.println("=====================================");
+        log.debug("Turnos consecutivos necesarios: {}, turnos válidos: {}", turnosNecesarios, turnosValidos.size());
         
         return turnosValidos;
     }
 
+    @Override
+    public List<Turno> obtenerTurnosDisponiblesPorDuracionYRango(Long barberoId, Integer duracionMinutos,
+                                                                 LocalDateTime desde, LocalDateTime hasta) {
+        return filtrarRetenidos(barberoId, buscarTurnosPorDuracionYRango(barberoId, duracionMinutos, desde, hasta),
+            duracionMinutos);
+    }
+
+    private List<Turno> buscarTurnosPorDuracionYRango(Long barberoId, Integer duracionMinutos,
+                                                      LocalDateTime desde, LocalDateTime hasta) {
+        if (esModoVirtual()) {
+            return turnosVirtuales(barberoId, duracionMinutos, desde, hasta);
+        }
+
+        if (indiceDisponibilidad.estaHabilitado()) {
+            List<Turno> desdeIndice = indiceDisponibilidad.buscarTurnosConsecutivos(barberoId, duracionMinutos, desde, hasta);
+            if (desdeIndice != null) {
+                return desdeIndice;
+            }
+        }
+
+        Barbero barbero = barberoRepository.findById(barberoId).orElse(null);
+        if (barbero == null || barbero.getHoraFin() == null) {
+            return new ArrayList<>();
+        }
+
+        // Se amplía el rango para ver los turnos consecutivos de los servicios que empiezan al final
+        List<Turno> disponibles = turnoRepository.findByBarberoIdBarberoAndEstadoAndFechaHoraBetween(
+            barberoId, Turno.EstadoTurno.DISPONIBLE, desde, hasta.plusMinutes(duracionMinutos));
+        Set<LocalDateTime> horarios = disponibles.stream()
+            .map(Turno::getFechaHora)
+            .collect(Collectors.toSet());
+
+        int turnosNecesarios = Math.max(1, (int) Math.ceil(duracionMinutos / 15.0));
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Turno> turnosValidos = new ArrayList<>();
+
+        for (Turno turno : disponibles) {
+            LocalDateTime inicio = turno.getFechaHora();
+            if (!inicio.isAfter(ahora) || !inicio.isBefore(hasta) || !cabeEnHorario(barbero, inicio.toLocalTime(), duracionMinutos)) {
+                continue;
+            }
+
+            boolean consecutivos = true;
+            for (int j = 1; j < turnosNecesarios; j++) {
+                if (!horarios.contains(inicio.plusMinutes(15L * j))) {
+                    consecutivos = false;
+                    break;
+                }
+            }
+            if (consecutivos) {
+                turnosValidos.add(turno);
+            }
+        }
+
+        turnosValidos.sort((t1, t2) -> t1.getFechaHora().compareTo(t2.getFechaHora()));
+        return turnosValidos;
+    }
+
+    /**
+     * Quita los inicios cuyo servicio pisa turnos retenidos por clientes que están confirmando
+     */
+    private List<Turno> filtrarRetenidos(Long idBarbero, List<Turno> turnos, int duracionMinutos) {
+        return turnos.stream()
+            .filter(t -> !retencionTurnos.pisaRetencion(idBarbero, t.getFechaHora(), duracionMinutos))
+            .collect(Collectors.toList());
+    }
+
+    private boolean cabeEnHorario(Barbero barbero, LocalTime horaInicio, int duracionMinutos) {
+        LocalTime horaFinServicio = horaInicio.plusMinutes(duracionMinutos);
+        if (horaFinServicio.isAfter(barbero.getHoraFin())) {
+            return false;
+        }
+        if (barbero.getHoraInicioAlmuerzo() != null && barbero.getHoraFinAlmuerzo() != null) {
+            return !(horaInicio.isBefore(barbero.getHoraFinAlmuerzo()) &&
+                horaFinServicio.isAfter(barbero.getHoraInicioAlmuerzo()));
+        }
+        return true;
+    }
+
+    // ===== MODO VIRTUAL =====
+
+    private boolean esModoVirtual() {
+        return disponibilidadConfig.getModo() == DisponibilidadConfigProperties.ModoDisponibilidad.VIRTUAL;
+    }
+
+    /**
+     * Turnos calculados por el motor virtual. No están persistidos (idTurno nulo):
+     * se materializan al reservar con {@link #obtenerOMaterializarTurno}.
+     */
+    private List<Turno> turnosVirtuales(Long idBarbero, int duracionMinutos, LocalDateTime desde, LocalDateTime hasta) {
+        Barbero barbero = barberoRepository.findById(idBarbero).orElse(null);
+        if (barbero == null) {
+            log.debug("Barbero {} no encontrado", idBarbero);
+            return new ArrayList<>();
+        }
+        
+        List<Turno> turnos = new ArrayList<>();
+        for (LocalDateTime inicio : motorTurnosVirtuales.calcularInicios(barbero, duracionMinutos, desde, hasta)) {
+            Turno turno = new Turno();
+            turno.setBarbero(barbero);
+            turno.setFechaHora(inicio);
+            turno.setEstado(Turno.EstadoTurno.DISPONIBLE);
+            turnos.add(turno);
+        }
+        return turnos;
+    }
+
+    @Override
+    @Transactional
+    public Turno obtenerOMaterializarTurno(Long idBarbero, LocalDateTime fechaHora) {
+        List<Turno> existentes = turnoRepository.findByBarberoIdBarberoAndFechaHora(idBarbero, fechaHora);
+        if (!existentes.isEmpty()) {
+            return existentes.get(0);
+        }
+        
+        if (!esModoVirtual()) {
+            return null;
+        }
+        
+        Barbero barbero = barberoRepository.findById(idBarbero).orElse(null);
+        if (barbero == null || !motorTurnosVirtuales.esHorarioLibre(barbero, fechaHora)) {
+            return null;
+        }
+        
+        // Si otra confirmación lo crea a la vez, la clave única deja una sola fila y
+        // el INSERT no falla; la lectura con bloqueo devuelve la que haya quedado
+        insertarMaterializados(idBarbero, List.of(fechaHora));
+        return turnoRepository.bloquearPorBarberoYFechaHora(idBarbero, fechaHora).orElse(null);
+    }
+
+    @Override
+    @Transactional
+    public void materializarTurnos(Long idBarbero, List<LocalDateTime> horarios) {
+        if (!esModoVirtual() || horarios.isEmpty()) {
+            return;
+        }
+        
+        LocalDateTime primero = horarios.stream().min(LocalDateTime::compareTo).get();
+        LocalDateTime ultimo = horarios.stream().max(LocalDateTime::compareTo).get();
+        
+        Set<LocalDateTime> existentes = new HashSet<>(
+            turnoRepository.findFechasHoraByBarberoAndRango(idBarbero, primero, ultimo));
+        if (existentes.containsAll(horarios)) {
+            return;
+        }
+        
+        Barbero barbero = barberoRepository.findById(idBarbero).orElse(null);
+        if (barbero == null) {
+            return;
+        }
+        
+        // Los horarios ocupados no se crean: la reclamación posterior detectará que faltan
+        Set<LocalDateTime> libres = new HashSet<>(motorTurnosVirtuales.calcularInicios(
+            barbero, MotorTurnosVirtuales.MINUTOS_SLOT, primero, ultimo.plusMinutes(MotorTurnosVirtuales.MINUTOS_SLOT)));
+        
+        List<LocalDateTime> nuevos = new ArrayList<>();
+        for (LocalDateTime fechaHora : horarios) {
+            if (!existentes.contains(fechaHora) && libres.contains(fechaHora)) {
+                nuevos.add(fechaHora);
+            }
+        }
+        insertarMaterializados(idBarbero, nuevos);
+    }
+
+    /**
+     * Crea los turnos virtuales como DISPONIBLES con INSERT ... ON DUPLICATE KEY:
+     * dos materializaciones simultáneas del mismo horario dejan una sola fila.
+     */
+    private void insertarMaterializados(Long idBarbero, List<LocalDateTime> horarios) {
+        if (horarios.isEmpty()) {
+            return;
+        }
+        turnoJdbcRepository.insertarTurnosDisponibles(idBarbero, horarios, generacionConfig.getTamanoLote());
+        // Los INSERT por JDBC no pasan por el listener JPA del índice
+        indiceDisponibilidad.invalidarBarberoAlConfirmar(idBarbero);
+    }
+
     // ===== MÉTODOS POR ESTADO =====
 
     @Override
@@ -295,6 +539,43 @@ public class TurnoServiceImpl implements TurnoService {
         return turnoRepository.save(turno);
     }
 
+    @Override
+    public Turno reservarTurno(Long idTurno, Long idCliente) {
+        Turno turno = turnoRepository.findById(idTurno).orElse(null);
+        if (turno == null) {
+            return null;
+        }
+        Long idBarbero = turno.getBarbero().getIdBarbero();
+        return bloqueoPorBarbero.ejecutar(idBarbero, () -> reintentoOptimista.ejecutar("reservarTurno",
+                () -> reservarTurnoUnaVez(idBarbero, idTurno, idCliente)));
+    }
+
+    private Turno reservarTurnoUnaVez(Long idBarbero, Long idTurno, Long idCliente) {
+        Turno turno = turnoRepository.findById(idTurno).orElse(null);
+        if (turno == null) {
+            return null;
+        }
+        List<LocalDateTime> horarios = List.of(turno.getFechaHora());
+
+        // Mismas validaciones que ReservaServiceImpl.crearReserva: retenciones y reclamo condicional
+        if (retencionTurnos.retenidoPorOtro(idBarbero, horarios, idCliente)) {
+            throw new IllegalStateException(
+                "Otro cliente está confirmando una reserva en este horario. Por favor selecciona otro horario.");
+        }
+        if (turnoRepository.cambiarEstadoSiCoincide(
+                idBarbero, horarios, Turno.EstadoTurno.DISPONIBLE, Turno.EstadoTurno.NO_DISPONIBLE) != horarios.size()) {
+            throw new IllegalStateException("El turno seleccionado ya no está disponible");
+        }
+        indiceDisponibilidad.registrarOcupadosAlConfirmar(idBarbero, horarios);
+        if (idCliente != null) {
+            retencionTurnos.convertirAlConfirmar(idCliente);
+        }
+
+        // El UPDATE masivo limpió el contexto de persistencia
+        turno.setEstado(Turno.EstadoTurno.NO_DISPONIBLE);
+        return turno;
+    }
+
     @Override
     @Transactional
     public Turno marcarTurnoNoDisponible(Long idTurno) {
@@ -351,86 +632,95 @@ public class TurnoServiceImpl implements TurnoService {
     public List<Turno> generarTurnosAutomaticos(Long idBarbero, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
         Optional<Barbero> optBarbero = barberoRepository.findById(idBarbero);
         if (!optBarbero.isPresent()) {
-            System.out.println("Barbero no encontrado con ID: " + idBarbero);
+            log.warn("Barbero no encontrado con ID: {}", idBarbero);
             return new ArrayList<>();
         }
         
         Barbero barbero = optBarbero.get();
-        List<Turno> turnosGenerados = new ArrayList<>();
         
-        LocalDate fechaActual = fechaInicio.toLocalDate();
-        LocalDate fechaLimite = fechaFin.toLocalDate();
+        List<Turno> turnosNuevos = new ArrayList<>();
+        for (LocalDateTime fechaHoraTurno : calcularHorariosFaltantes(barbero, fechaInicio.toLocalDate(), fechaFin.toLocalDate())) {
+            Turno turno = new Turno();
+            turno.setBarbero(barbero);
+            turno.setFechaHora(fechaHoraTurno);
+            turno.setEstado(Turno.EstadoTurno.DISPONIBLE);
+            turnosNuevos.add(turno);
+        }
         
-        System.out.println("=== GENERANDO TURNOS AUTOMÁTICOS (15 MIN) ===");
-        System.out.println("Barbero: " + barbero.getNombre() + " (ID: " + idBarbero + ")");
-        System.out.println("Periodo: " + fechaActual + " a " + fechaLimite);
-        System.out.println("Horario: " + barbero.getHoraInicio() + " - " + barbero.getHoraFin());
-        if (barbero.getHoraInicioAlmuerzo() != null && barbero.getHoraFinAlmuerzo() != null) {
-            System.out.println("Almuerzo: " + barbero.getHoraInicioAlmuerzo() + " - " + barbero.getHoraFinAlmuerzo());
+        List<Turno> turnosGenerados = turnoRepository.saveAll(turnosNuevos);
+        
+        log.debug("Turnos automáticos de {} (ID {}) del {} al {}: {} generados", barbero.getNombre(), idBarbero,
+            fechaInicio.toLocalDate(), fechaFin.toLocalDate(), turnosGenerados.size());
+        
+        return turnosGenerados;
+    }
+
+    // ===== GENERACIÓN MASIVA (JDBC POR LOTES) =====
+
+    @Override
+    @Transactional
+    public int generarTurnosMasivo(Long idBarbero, LocalDate fechaInicio, LocalDate fechaFin) {
+        Barbero barbero = barberoRepository.findById(idBarbero).orElse(null);
+        if (barbero == null) {
+            log.warn("Barbero no encontrado con ID: {}", idBarbero);
+            return 0;
         }
+        return insertarTurnosFaltantes(barbero, fechaInicio, fechaFin);
+    }
+
+    @Override
+    @Transactional
+    public Map<Long, Integer> generarTurnosMasivoTodos(LocalDate fechaInicio, LocalDate fechaFin) {
+        Map<Long, Integer> generadosPorBarbero = new LinkedHashMap<>();
         
-        while (!fechaActual.isAfter(fechaLimite)) {
-            if (barbero.getDiaLibre() != null && 
-                barbero.getDiaLibre().equals(fechaActual.getDayOfWeek())) {
-                System.out.println("Saltando día libre: " + fechaActual + " (" + barbero.getDiaLibre() + ")");
-                fechaActual = fechaActual.plusDays(1);
-                continue;
-            }
-            
-            if (fechaActual.getDayOfWeek() == DayOfWeek.SUNDAY) {
-                System.out.println("Saltando domingo: " + fechaActual);
-                fechaActual = fechaActual.plusDays(1);
+        for (Barbero barbero : barberoRepository.findByActivoTrue()) {
+            if (barbero.getHoraInicio() == null || barbero.getHoraFin() == null) {
+                log.warn("Barbero {} sin horario configurado, se omite", barbero.getIdBarbero());
                 continue;
             }
-            
-            LocalTime horaActual = barbero.getHoraInicio();
-            LocalTime horaFin = barbero.getHoraFin();
-            LocalTime horaInicioAlmuerzo = barbero.getHoraInicioAlmuerzo();
-            LocalTime horaFinAlmuerzo = barbero.getHoraFinAlmuerzo();
-            
-            int turnosDelDia = 0;
-            
-            while (horaActual.isBefore(horaFin)) {
-                if (horaInicioAlmuerzo != null && horaFinAlmuerzo != null &&
-                    !horaActual.isBefore(horaInicioAlmuerzo) && horaActual.isBefore(horaFinAlmuerzo)) {
-                    horaActual = horaFinAlmuerzo;
-                    continue;
-                }
-                
-                LocalDateTime fechaHoraTurno = LocalDateTime.of(fechaActual, horaActual);
-                
-                if (fechaHoraTurno.isAfter(LocalDateTime.now())) {
-                    boolean exists = turnoRepository.existsByBarberoIdBarberoAndFechaHora(
-                        idBarbero, fechaHoraTurno
-                    );
-                    
-                    if (!exists) {
-                        Turno turno = new Turno();
-                        turno.setBarbero(barbero);
-                        turno.setFechaHora(fechaHoraTurno);
-                        turno.setEstado(Turno.EstadoTurno.DISPONIBLE);
-                        
-                        Turno turnoGuardado = turnoRepository.save(turno);
-                        turnosGenerados.add(turnoGuardado);
-                        turnosDelDia++;
-                    }
-                }
-                
-                // 🔥 CRÍTICO: Generar turnos cada 15 minutos
-                horaActual = horaActual.plusMinutes(15);
-            }
-            
-            if (turnosDelDia > 0) {
-                System.out.println("Día " + fechaActual + ": " + turnosDelDia + " turnos generados");
-            }
-            
-            fechaActual = fechaActual.plusDays(1);
+            generadosPorBarbero.put(barbero.getIdBarbero(), insertarTurnosFaltantes(barbero, fechaInicio, fechaFin));
+        }
+        
+        return generadosPorBarbero;
+    }
+
+    /**
+     * Calcula en memoria los turnos faltantes del barbero (una sola consulta de los
+     * existentes) y los inserta por lotes JDBC sin crear entidades gestionadas.
+     */
+    private int insertarTurnosFaltantes(Barbero barbero, LocalDate fechaInicio, LocalDate fechaFin) {
+        long inicio = System.currentTimeMillis();
+        
+        List<LocalDateTime> faltantes = calcularHorariosFaltantes(barbero, fechaInicio, fechaFin);
+        int insertados = turnoJdbcRepository.insertarTurnosDisponibles(
+            barbero.getIdBarbero(), faltantes, generacionConfig.getTamanoLote());
+        
+        if (insertados > 0) {
+            // Los INSERT por JDBC no pasan por el listener JPA del índice
+            indiceDisponibilidad.invalidarBarberoAlConfirmar(barbero.getIdBarbero());
         }
         
-        System.out.println("Total turnos generados: " + turnosGenerados.size());
-        System.out.println("==============================================");
+        log.debug("Generación masiva barbero {} ({} a {}): {} turnos en {} ms",
+            barbero.getIdBarbero(), fechaInicio, fechaFin, insertados, System.currentTimeMillis() - inicio);
         
-        return turnosGenerados;
+        return insertados;
+    }
+
+    /**
+     * Horarios de 15 minutos del barbero en el rango de fechas que todavía no existen
+     * como Turno. Los existentes se obtienen con una única consulta.
+     */
+    private List<LocalDateTime> calcularHorariosFaltantes(Barbero barbero, LocalDate fechaInicio, LocalDate fechaFin) {
+        Set<LocalDateTime> existentes = new HashSet<>(turnoRepository.findFechasHoraByBarberoAndRango(
+            barbero.getIdBarbero(), fechaInicio.atStartOfDay(), fechaFin.atTime(23, 59, 59)));
+        
+        List<LocalDateTime> faltantes = new ArrayList<>();
+        for (LocalDateTime fechaHora : motorTurnosVirtuales.horariosDelBarbero(barbero, fechaInicio, fechaFin)) {
+            if (!existentes.contains(fechaHora)) {
+                faltantes.add(fechaHora);
+            }
+        }
+        return faltantes;
     }
 
     // ===== MÉTODOS ADICIONALES =====
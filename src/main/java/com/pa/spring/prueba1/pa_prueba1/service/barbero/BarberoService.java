@@ -1,11 +1,14 @@
 package com.pa.spring.prueba1.pa_prueba1.service.barbero;
 
+import com.pa.spring.prueba1.pa_prueba1.dto.ReservaResumen;
+import com.pa.spring.prueba1.pa_prueba1.dto.ResumenPanelBarbero;
 import com.pa.spring.prueba1.pa_prueba1.model.Notificacion;
 import com.pa.spring.prueba1.pa_prueba1.model.Notificacion.TipoNotificacion;
 import com.pa.spring.prueba1.pa_prueba1.model.Reserva;
 import com.pa.spring.prueba1.pa_prueba1.model.SolicitudAusencia;
 import com.pa.spring.prueba1.pa_prueba1.repository.BarberoRepository;
 import com.pa.spring.prueba1.pa_prueba1.repository.NotificacionRepository;
+import com.pa.spring.prueba1.pa_prueba1.repository.ReservaAgregadosRepository;
 import com.pa.spring.prueba1.pa_prueba1.repository.ReservaRepository;
 import com.pa.spring.prueba1.pa_prueba1.repository.SolicitudAusenciaRepository;
 import com.pa.spring.prueba1.pa_prueba1.repository.TurnoRepository;
@@ -17,8 +20,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.pa.spring.prueba1.pa_prueba1.model.Barbero;
 import com.pa.spring.prueba1.pa_prueba1.service.EmailService;
+import com.pa.spring.prueba1.pa_prueba1.service.catalogo.CatalogoCache;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import java.util.EnumMap;
 import java.util.Map;
 
 import java.time.DayOfWeek;
@@ -42,6 +47,9 @@ public class BarberoService {
     @Autowired
     private ReservaRepository reservaRepository;
 
+    @Autowired
+    private ReservaAgregadosRepository reservaAgregadosRepository;
+
     @Autowired
     private SolicitudAusenciaRepository solicitudAusenciaRepository;
 
@@ -57,6 +65,9 @@ public class BarberoService {
     @Autowired(required = false)
     private TurnoRepository turnoRepository;
 
+    @Autowired
+    private CatalogoCache catalogoCache;
+
     // ==================== MÉTODOS BÁSICOS ====================
 
     public Barbero obtenerBarberoPorEmail(String email) {
@@ -74,7 +85,7 @@ public class BarberoService {
     }
 
     public List<Barbero> obtenerBarberosActivos() {
-        return barberoRepository.findByActivoTrue();
+        return catalogoCache.barberosActivos();
     }
 
     /**
@@ -95,14 +106,54 @@ public class BarberoService {
                 idBarbero, inicioSemana, finSemana);
     }
 
+    /**
+     * Contadores del panel (hoy, semana de lunes a domingo y próxima reserva) en una sola consulta
+     */
+    public ResumenPanelBarbero obtenerResumenPanel(Long idBarbero) {
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime inicioHoy = ahora.toLocalDate().atStartOfDay();
+        LocalDateTime inicioSemana = ahora.toLocalDate().with(DayOfWeek.MONDAY).atStartOfDay();
+
+        return reservaAgregadosRepository.resumenPanelBarbero(idBarbero, inicioSemana, inicioSemana.plusDays(7),
+                inicioHoy, inicioHoy.plusDays(1), ahora);
+    }
+
     public List<Reserva> obtenerTodasReservasBarbero(Long idBarbero) {
         return reservaRepository.findByBarbero_IdBarberoOrderByFechaHoraTurnoAsc(idBarbero);
     }
 
+    /**
+     * Resúmenes de las reservas del barbero en [inicio, fin) para el listado
+     */
+    public List<ReservaResumen> listarResumenesReservas(Long idBarbero, LocalDateTime inicio, LocalDateTime fin) {
+        return reservaRepository.listarResumenesDeBarbero(idBarbero, inicio, fin);
+    }
+
+    /**
+     * Número de reservas del barbero en cada estado (todos los estados presentes, 0 si no hay)
+     */
+    public Map<Reserva.EstadoReserva, Long> contarReservasPorEstado(Long idBarbero) {
+        Map<Reserva.EstadoReserva, Long> conteo = new EnumMap<>(Reserva.EstadoReserva.class);
+        for (Reserva.EstadoReserva estado : Reserva.EstadoReserva.values()) {
+            conteo.put(estado, 0L);
+        }
+        for (Object[] fila : reservaRepository.contarReservasPorEstadoDeBarbero(idBarbero)) {
+            if (fila[0] != null) {
+                conteo.put((Reserva.EstadoReserva) fila[0], (Long) fila[1]);
+            }
+        }
+        return conteo;
+    }
+
     public List<SolicitudAusencia> obtenerSolicitudesBarbero(Long idBarbero) {
         return solicitudAusenciaRepository.findByBarberoIdBarbero(idBarbero);
     }
 
+    public long contarSolicitudesPendientes(Long idBarbero) {
+        return solicitudAusenciaRepository.countByBarberoIdBarberoAndEstado(
+                idBarbero, SolicitudAusencia.EstadoSolicitud.PENDIENTE);
+    }
+
     @Transactional
     public Barbero registrarBarbero(Barbero barbero, String passwordPlain) {
         if (barberoRepository.existsByEmail(barbero.getEmail())) {
@@ -158,6 +209,8 @@ public class BarberoService {
     @Transactional
     public void cambiarEstadoBarbero(Long idBarbero, boolean activo) {
         barberoRepository.actualizarEstado(idBarbero, activo);
+        // El UPDATE directo no pasa por CatalogoCacheListener
+        catalogoCache.invalidar(CatalogoCache.Catalogo.BARBEROS);
     }
 
     // ==================== MÉTODOS DE SOFT DELETE ====================
@@ -751,7 +804,7 @@ public class BarberoService {
     }
 
     public List<Barbero> obtenerTodos() {
-        return barberoRepository.findAll();
+        return catalogoCache.barberos();
     }
 
     public Barbero obtenerPorId(Long id) {
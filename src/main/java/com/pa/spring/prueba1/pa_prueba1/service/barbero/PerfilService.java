@@ -1,9 +1,9 @@
 package com.pa.spring.prueba1.pa_prueba1.service.barbero;
 
+import com.pa.spring.prueba1.pa_prueba1.dto.ResumenReservas;
 import com.pa.spring.prueba1.pa_prueba1.model.Barbero;
-import com.pa.spring.prueba1.pa_prueba1.model.Reserva;
 import com.pa.spring.prueba1.pa_prueba1.repository.BarberoRepository;
-import com.pa.spring.prueba1.pa_prueba1.repository.ReservaRepository;
+import com.pa.spring.prueba1.pa_prueba1.repository.ReservaAgregadosRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -21,7 +21,6 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @Service
@@ -31,7 +30,7 @@ public class PerfilService {
     private BarberoRepository barberoRepository;
 
     @Autowired
-    private ReservaRepository reservaRepository;
+    private ReservaAgregadosRepository reservaAgregadosRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
@@ -44,36 +43,19 @@ public class PerfilService {
         Map<String, Object> estadisticas = new HashMap<>();
         try {
             LocalDate inicioMes = LocalDate.now().withDayOfMonth(1);
-            LocalDate finMes = LocalDate.now().withDayOfMonth(LocalDate.now().lengthOfMonth());
-
-            List<Reserva> reservasMes = reservaRepository
-                    .findByBarberoIdBarberoAndFechaHoraTurnoBetween(
-                            idBarbero,
-                            inicioMes.atStartOfDay(),
-                            finMes.atTime(23, 59, 59)
-                    );
-
-            long cortesEsteMes = reservasMes.stream()
-                    .filter(r -> r.getEstado() == Reserva.EstadoReserva.COMPLETADA)
-                    .count();
-
-            double ingresos = reservasMes.stream()
-                    .filter(r -> r.getEstado() == Reserva.EstadoReserva.COMPLETADA)
-                    .filter(r -> r.getCorte() != null)
-                    .mapToDouble(r -> r.getCorte().getPrecio())
-                    .sum();
-
-            List<Reserva> todasReservas = reservaRepository
-                    .findByBarberoIdBarberoAndEstado(idBarbero, Reserva.EstadoReserva.COMPLETADA);
-
-            double satisfaccion = todasReservas.size() > 0 ? 96.0 : 0.0;
-            double valoracion = todasReservas.size() > 0 ? 4.8 : 0.0;
-            long totalValoraciones = todasReservas.size();
-
-            long clientesAtendidos = todasReservas.stream()
-                    .map(r -> r.getCliente().getIdCliente())
-                    .distinct()
-                    .count();
+
+            // Dos consultas agregadas: el mes actual y todo el historial del barbero
+            ResumenReservas mes = reservaAgregadosRepository.resumenDeBarberoPorRango(
+                    idBarbero, inicioMes.atStartOfDay(), inicioMes.plusMonths(1).atStartOfDay());
+            ResumenReservas historial = reservaAgregadosRepository.resumenDeBarbero(idBarbero);
+
+            long cortesEsteMes = mes.getCompletadas();
+            double ingresos = mes.getIngresos();
+
+            double satisfaccion = historial.getCompletadas() > 0 ? 96.0 : 0.0;
+            double valoracion = historial.getCompletadas() > 0 ? 4.8 : 0.0;
+            long totalValoraciones = historial.getCompletadas();
+            long clientesAtendidos = historial.getClientesAtendidos();
 
             estadisticas.put("cortesEsteMes", cortesEsteMes);
             estadisticas.put("ingresos", formatearMoneda(ingresos));
@@ -0,0 +1,164 @@
+package com.pa.spring.prueba1.pa_prueba1.service.catalogo;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pa.spring.prueba1.pa_prueba1.config.CatalogoCacheConfigProperties;
+import com.pa.spring.prueba1.pa_prueba1.model.Barbero;
+import com.pa.spring.prueba1.pa_prueba1.model.CorteDeCabello;
+import com.pa.spring.prueba1.pa_prueba1.repository.BarberoRepository;
+import com.pa.spring.prueba1.pa_prueba1.repository.CorteDeCabelloRepository;
+import com.pa.spring.prueba1.pa_prueba1.service.concurrencia.Transacciones;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria de las listas del catálogo: cortes activos, todos los
+ * barberos y barberos activos. Se leen en cada formulario de reserva y en los
+ * paneles del admin y cambian muy de vez en cuando.
+ *
+ * La caché guarda su propia copia de cada lista y nunca la entrega: cada lectura
+ * devuelve una lista nueva con copias nuevas de las entidades (Barbero y
+ * CorteDeCabello no tienen relaciones), así que quien la recibe puede modificarla
+ * sin afectar a otras peticiones. Cualquier cambio de un barbero o un corte invalida su catálogo
+ * después del commit (CatalogoCacheListener y las actualizaciones directas de
+ * BarberoService), y el TTL acota lo que puede durar una lista en otra instancia.
+ * Aciertos y fallos se publican como cache.gets{cache=catalogo}.
+ */
+@Component
+public class CatalogoCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogoCache.class);
+
+    /** Grupo de listas que se invalida junto */
+    public enum Catalogo {
+        CORTES,
+        BARBEROS
+    }
+
+    private enum Entrada {
+        CORTES_ACTIVOS(Catalogo.CORTES),
+        BARBEROS(Catalogo.BARBEROS),
+        BARBEROS_ACTIVOS(Catalogo.BARBEROS);
+
+        private final Catalogo catalogo;
+
+        Entrada(Catalogo catalogo) {
+            this.catalogo = catalogo;
+        }
+    }
+
+    @Autowired
+    private CatalogoCacheConfigProperties config;
+
+    @Autowired
+    private CorteDeCabelloRepository corteDeCabelloRepository;
+
+    @Autowired
+    private BarberoRepository barberoRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private DifusionInvalidacionCatalogo difusion;
+
+    private Cache<Entrada, List<?>> listas;
+
+    @PostConstruct
+    public void init() {
+        listas = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofSeconds(Math.max(1, config.getTtlSegundos())))
+            .maximumSize(Math.max(Entrada.values().length, config.getTamanoMaximo()))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, listas, "catalogo");
+    }
+
+    // ===== LECTURA =====
+
+    public List<CorteDeCabello> cortesActivos() {
+        return obtener(Entrada.CORTES_ACTIVOS, corteDeCabelloRepository::findByActivoTrue, CorteDeCabello::new);
+    }
+
+    public List<Barbero> barberos() {
+        return obtener(Entrada.BARBEROS, barberoRepository::findAll, Barbero::new);
+    }
+
+    public List<Barbero> barberosActivos() {
+        return obtener(Entrada.BARBEROS_ACTIVOS, barberoRepository::findByActivoTrue, Barbero::new);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> obtener(Entrada entrada, Supplier<List<T>> carga, Supplier<T> nueva) {
+        if (!config.isHabilitada()) {
+            return carga.get();
+        }
+        // Una sola carga por entrada aunque lleguen varias peticiones a la vez
+        List<T> guardada = (List<T>) listas.get(entrada, e -> List.copyOf(copiar(carga.get(), nueva)));
+        return copiar(guardada, nueva);
+    }
+
+    /**
+     * Copia campo a campo cada entidad en una instancia nueva
+     */
+    private static <T> List<T> copiar(List<T> origen, Supplier<T> nueva) {
+        List<T> copia = new ArrayList<>(origen.size());
+        for (T entidad : origen) {
+            T nuevaEntidad = nueva.get();
+            BeanUtils.copyProperties(entidad, nuevaEntidad);
+            copia.add(nuevaEntidad);
+        }
+        return copia;
+    }
+
+    // ===== INVALIDACIÓN =====
+
+    /**
+     * Descarta las listas del catálogo después del commit de la transacción en
+     * curso (o en el acto si no hay ninguna) y avisa a las demás instancias.
+     */
+    public void invalidar(Catalogo catalogo) {
+        Transacciones.alConfirmar(() -> invalidarYDifundir(catalogo));
+    }
+
+    /**
+     * Aplica una invalidación recibida de otra instancia (no se vuelve a difundir).
+     */
+    public void aplicarInvalidacionRemota(Catalogo catalogo) {
+        invalidarLocal(catalogo);
+    }
+
+    private void invalidarYDifundir(Catalogo catalogo) {
+        invalidarLocal(catalogo);
+        if (difusion != null) {
+            try {
+                difusion.publicar(catalogo);
+            } catch (RuntimeException e) {
+                // Las demás instancias lo verán al caducar su caché
+                log.warn("No se pudo difundir la invalidación del catálogo {}: {}", catalogo, e.getMessage());
+            }
+        }
+    }
+
+    private void invalidarLocal(Catalogo catalogo) {
+        for (Entrada entrada : Entrada.values()) {
+            if (entrada.catalogo == catalogo) {
+                listas.invalidate(entrada);
+            }
+        }
+    }
+}
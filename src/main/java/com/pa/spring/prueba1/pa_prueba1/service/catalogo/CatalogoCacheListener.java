@@ -0,0 +1,39 @@
+package com.pa.spring.prueba1.pa_prueba1.service.catalogo;
+
+import com.pa.spring.prueba1.pa_prueba1.model.Barbero;
+import com.pa.spring.prueba1.pa_prueba1.model.CorteDeCabello;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Listener JPA que invalida {@link CatalogoCache} cuando se crea, modifica o
+ * elimina un Barbero o un CorteDeCabello, venga el cambio del admin, del perfil
+ * o del login. La invalidación se aplica después del commit.
+ *
+ * Las actualizaciones con UPDATE directo (BarberoRepository.actualizarEstado)
+ * no pasan por aquí; quien las usa invalida la caché explícitamente.
+ */
+public class CatalogoCacheListener {
+
+    @Autowired(required = false)
+    private CatalogoCache catalogoCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void entidadCambiada(Object entidad) {
+        if (catalogoCache == null) {
+            return;
+        }
+
+        if (entidad instanceof Barbero) {
+            catalogoCache.invalidar(CatalogoCache.Catalogo.BARBEROS);
+        } else if (entidad instanceof CorteDeCabello) {
+            catalogoCache.invalidar(CatalogoCache.Catalogo.CORTES);
+        }
+    }
+}
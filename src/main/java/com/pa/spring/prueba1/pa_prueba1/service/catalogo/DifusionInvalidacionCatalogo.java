@@ -0,0 +1,15 @@
+package com.pa.spring.prueba1.pa_prueba1.service.catalogo;
+
+/**
+ * Punto de extensión para avisar a las demás instancias de que un catálogo
+ * cambió. Si hay un bean que lo implemente, {@link CatalogoCache} le pasa cada
+ * invalidación local (después del commit); la instancia que recibe el aviso debe
+ * llamar a {@link CatalogoCache#aplicarInvalidacionRemota}, que no lo reenvía.
+ *
+ * Sin implementación cada instancia solo ve sus propios cambios y el resto
+ * llega al caducar la caché (app.catalogo.cache.ttl-segundos).
+ */
+public interface DifusionInvalidacionCatalogo {
+
+    void publicar(CatalogoCache.Catalogo catalogo);
+}
@@ -0,0 +1,122 @@
+package com.pa.spring.prueba1.pa_prueba1.service.concurrencia;
+
+import com.pa.spring.prueba1.pa_prueba1.config.BloqueoTareasConfigProperties;
+import com.pa.spring.prueba1.pa_prueba1.repository.BloqueoTareaRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bloqueo de tareas programadas entre instancias, con arrendamiento en la tabla
+ * bloqueo_tarea de MySQL.
+ *
+ * En cada ciclo todas las instancias lanzan la tarea, pero solo la que consigue
+ * el bloqueo la ejecuta; mientras dura la ejecución se renueva en segundo plano.
+ * Si la instancia muere, el bloqueo vence a los {@code app.bloqueo-tareas.duracion-segundos}
+ * y otra lo toma en su siguiente ciclo.
+ *
+ * Lo usan las tareas que trabajan sobre datos compartidos (recordatorios,
+ * generación de turnos). No lo necesitan las que ya reparten el trabajo fila a
+ * fila (despachador de correos) ni las que limpian memoria local (retenciones).
+ */
+@Component
+public class BloqueoDistribuido {
+
+    private static final Logger log = LoggerFactory.getLogger(BloqueoDistribuido.class);
+
+    @Autowired
+    private BloqueoTareaRepository bloqueoTareaRepository;
+
+    @Autowired
+    private BloqueoTareasConfigProperties config;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** Identifica a esta instancia: pid@host más un sufijo distinto en cada arranque */
+    private final String propietario = ManagementFactory.getRuntimeMXBean().getName() + "#" +
+        UUID.randomUUID().toString().substring(0, 8);
+
+    private ScheduledExecutorService renovador;
+
+    @PostConstruct
+    public void init() {
+        renovador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "renovacion-bloqueos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        renovador.shutdownNow();
+    }
+
+    /**
+     * Ejecuta la tarea solo si esta instancia consigue su bloqueo.
+     *
+     * @return true si se ejecutó aquí, false si la tiene otra instancia
+     */
+    public boolean ejecutar(String tarea, Runnable accion) {
+        if (!adquirir(tarea)) {
+            meterRegistry.counter("tareas.programadas.omitidas", "tarea", tarea).increment();
+            return false;
+        }
+
+        ScheduledFuture<?> renovacion = renovador.scheduleAtFixedRate(() -> renovar(tarea),
+            config.getRenovacionSegundos(), config.getRenovacionSegundos(), TimeUnit.SECONDS);
+        try {
+            accion.run();
+            return true;
+        } finally {
+            renovacion.cancel(false);
+            liberar(tarea);
+        }
+    }
+
+    private boolean adquirir(String tarea) {
+        try {
+            bloqueoTareaRepository.crearSiNoExiste(tarea);
+            return bloqueoTareaRepository.adquirir(tarea, propietario, config.getDuracionSegundos()) == 1;
+        } catch (Exception e) {
+            // Sin BD no se puede saber quién la tiene: mejor saltarse este ciclo
+            log.warn("No se pudo obtener el bloqueo de la tarea {}: {}", tarea, e.getMessage());
+            return false;
+        }
+    }
+
+    private void renovar(String tarea) {
+        try {
+            if (bloqueoTareaRepository.renovar(tarea, propietario, config.getDuracionSegundos()) == 0) {
+                meterRegistry.counter("tareas.programadas.bloqueo.perdido", "tarea", tarea).increment();
+                log.warn("Se perdió el bloqueo de la tarea {} mientras se ejecutaba", tarea);
+            }
+        } catch (Exception e) {
+            log.warn("Error renovando el bloqueo de la tarea {}: {}", tarea, e.getMessage());
+        }
+    }
+
+    private void liberar(String tarea) {
+        try {
+            bloqueoTareaRepository.liberar(tarea, propietario, config.getRetencionMinimaSegundos());
+        } catch (Exception e) {
+            // Vencerá solo al final del arrendamiento
+            log.warn("Error liberando el bloqueo de la tarea {}: {}", tarea, e.getMessage());
+        }
+    }
+}
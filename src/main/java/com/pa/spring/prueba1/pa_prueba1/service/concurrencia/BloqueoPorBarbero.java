@@ -0,0 +1,76 @@
+package com.pa.spring.prueba1.pa_prueba1.service.concurrencia;
+
+import com.pa.spring.prueba1.pa_prueba1.config.BloqueoBarberoConfigProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Cerrojos en franjas por barbero: las operaciones sobre un mismo barbero se
+ * ejecutan de una en una, mientras que las de barberos distintos (casi siempre
+ * en franjas distintas) van en paralelo. Así los choques de un mismo barbero se
+ * resuelven en memoria antes de llegar a MySQL.
+ *
+ * Los cerrojos son reentrantes y se toman fuera de la transacción, de modo que
+ * se liberan después del commit. Si no se consigue el cerrojo en el tiempo
+ * configurado, la operación falla con un mensaje de "intenta de nuevo".
+ */
+@Component
+public class BloqueoPorBarbero {
+
+    private static final Logger log = LoggerFactory.getLogger(BloqueoPorBarbero.class);
+
+    @Autowired
+    private BloqueoBarberoConfigProperties config;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ReentrantLock[] franjas;
+
+    @PostConstruct
+    public void init() {
+        franjas = new ReentrantLock[Math.max(1, config.getFranjas())];
+        for (int i = 0; i < franjas.length; i++) {
+            franjas[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T ejecutar(Long idBarbero, Supplier<T> accion) {
+        if (idBarbero == null) {
+            return accion.get();
+        }
+
+        ReentrantLock cerrojo = franjas[Math.floorMod(Long.hashCode(idBarbero), franjas.length)];
+        boolean adquirido;
+        try {
+            adquirido = cerrojo.tryLock(config.getEsperaMaximaMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Operación interrumpida. Por favor intenta nuevamente.", e);
+        }
+
+        if (!adquirido) {
+            meterRegistry.counter("reservas.bloqueo.barbero.agotados").increment();
+            log.warn("Tiempo de espera agotado para el cerrojo del barbero {}", idBarbero);
+            throw new IllegalStateException(
+                "Hay muchas reservas en curso para este barbero. Por favor intenta nuevamente en unos segundos.");
+        }
+
+        try {
+            return accion.get();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+}
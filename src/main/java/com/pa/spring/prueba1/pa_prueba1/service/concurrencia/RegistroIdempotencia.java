@@ -0,0 +1,144 @@
+package com.pa.spring.prueba1.pa_prueba1.service.concurrencia;
+
+import com.pa.spring.prueba1.pa_prueba1.config.IdempotenciaConfigProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Resultados recientes de operaciones identificadas por una clave de idempotencia.
+ *
+ * La primera petición con una clave ejecuta la operación; las repeticiones
+ * (doble clic, reintentos del móvil) reciben el mismo resultado sin volver a
+ * validar ni escribir en la BD. Si la original sigue en curso, la repetición
+ * espera a que termine. Los rechazos de negocio (IllegalStateException,
+ * IllegalArgumentException: turno no disponible, límites...) también se guardan
+ * y se repiten sin volver a la BD; solo los errores inesperados se olvidan para
+ * que la operación pueda reintentarse con la misma clave.
+ *
+ * Memoria acotada: como mucho {@code app.idempotencia.capacidad} claves, cada
+ * una durante {@code app.idempotencia.ttl-segundos}. Las que siguen en curso no
+ * se descartan nunca (una repetición volvería a ejecutar la operación); si todas
+ * lo están, las claves nuevas se rechazan hasta que quede sitio.
+ */
+@Component
+public class RegistroIdempotencia {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistroIdempotencia.class);
+
+    private static final int LONGITUD_MAXIMA_CLAVE = 200;
+
+    @Autowired
+    private IdempotenciaConfigProperties config;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** En orden de inserción: las entradas vencidas siempre están al principio */
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <T> T ejecutar(String clave, Supplier<T> accion) {
+        if (clave == null || clave.isBlank()) {
+            return accion.get();
+        }
+        if (clave.length() > LONGITUD_MAXIMA_CLAVE) {
+            throw new IllegalArgumentException("La clave de idempotencia es demasiado larga");
+        }
+
+        CompletableFuture<Object> resultado;
+        boolean esOriginal = false;
+        long ahora = System.currentTimeMillis();
+
+        synchronized (entradas) {
+            eliminarVencidas(ahora);
+            Entrada entrada = entradas.get(clave);
+            if (entrada == null) {
+                if (entradas.size() >= config.getCapacidad()) {
+                    throw new IllegalStateException(
+                        "Hay demasiadas solicitudes en curso. Intenta nuevamente en unos segundos.");
+                }
+                entrada = new Entrada(new CompletableFuture<>(), ahora + config.getTtlSegundos() * 1000L);
+                entradas.put(clave, entrada);
+                esOriginal = true;
+            }
+            resultado = entrada.resultado;
+        }
+
+        if (!esOriginal) {
+            meterRegistry.counter("idempotencia.repeticiones").increment();
+            log.debug("Petición repetida con la clave de idempotencia {}, se devuelve el resultado original", clave);
+            return (T) esperar(resultado);
+        }
+
+        try {
+            T valor = accion.get();
+            resultado.complete(valor);
+            return valor;
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            // Rechazo de negocio: la repetición recibe el mismo error
+            resultado.completeExceptionally(e);
+            throw e;
+        } catch (RuntimeException e) {
+            synchronized (entradas) {
+                entradas.remove(clave);
+            }
+            resultado.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object esperar(CompletableFuture<Object> resultado) {
+        try {
+            return resultado.get(config.getEsperaMaximaSegundos(), TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("La solicitud original todavía se está procesando. Intenta nuevamente.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Operación interrumpida", e);
+        }
+    }
+
+    private void eliminarVencidas(long ahora) {
+        Iterator<Map.Entry<String, Entrada>> it = entradas.entrySet().iterator();
+        while (it.hasNext()) {
+            Entrada entrada = it.next().getValue();
+            if (entrada.expira > ahora && entradas.size() < config.getCapacidad()) {
+                break;
+            }
+            // Una entrada en curso se conserva aunque haya vencido o falte sitio
+            if (entrada.resultado.isDone()) {
+                it.remove();
+            }
+        }
+    }
+
+    private static class Entrada {
+
+        private final CompletableFuture<Object> resultado;
+        private final long expira;
+
+        Entrada(CompletableFuture<Object> resultado, long expira) {
+            this.resultado = resultado;
+            this.expira = expira;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.pa.spring.prueba1.pa_prueba1.service.concurrencia;
+
+import com.pa.spring.prueba1.pa_prueba1.config.ReintentosConfigProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta una operación en su propia transacción y la repite si falla por un
+ * conflicto de bloqueo optimista (@Version en Turno y Reserva).
+ *
+ * Cada intento vuelve a leer los datos, así que el reintento trabaja sobre el
+ * estado que dejó la otra operación. Entre intentos se espera un tiempo aleatorio
+ * entre 0 y base * 2^intento (con tope) para que los que chocaron no vuelvan a
+ * chocar a la vez.
+ *
+ * Métricas (Micrometer, tag "operacion"):
+ *   reservas.conflictos.optimistas  conflictos detectados
+ *   reservas.reintentos             reintentos realizados
+ *   reservas.reintentos.agotados    operaciones que fallaron tras agotar los intentos
+ */
+@Component
+public class ReintentoOptimista {
+
+    private static final Logger log = LoggerFactory.getLogger(ReintentoOptimista.class);
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReintentosConfigProperties config;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public <T> T ejecutar(String operacion, Supplier<T> accion) {
+        // Dentro de una transacción ajena no se puede reintentar: el conflicto la deja marcada para rollback
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return accion.get();
+        }
+
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        int maxIntentos = Math.max(1, config.getMaxIntentos());
+
+        for (int intento = 1; ; intento++) {
+            try {
+                return transaccion.execute(estado -> accion.get());
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("reservas.conflictos.optimistas", "operacion", operacion).increment();
+
+                if (intento >= maxIntentos) {
+                    meterRegistry.counter("reservas.reintentos.agotados", "operacion", operacion).increment();
+                    log.warn("{}: conflicto de concurrencia tras {} intentos", operacion, intento);
+                    throw new IllegalStateException(
+                        "Otra operación modificó estos datos al mismo tiempo. Por favor intenta nuevamente.", e);
+                }
+
+                meterRegistry.counter("reservas.reintentos", "operacion", operacion).increment();
+                log.debug("{}: conflicto de concurrencia, reintento {}/{}", operacion, intento, maxIntentos - 1);
+                esperar(intento);
+            }
+        }
+    }
+
+    private void esperar(int intento) {
+        long tope = Math.min(config.getEsperaMaximaMs(), config.getEsperaBaseMs() << Math.min(intento, 20));
+        if (tope <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(tope + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Operación interrumpida", e);
+        }
+    }
+}
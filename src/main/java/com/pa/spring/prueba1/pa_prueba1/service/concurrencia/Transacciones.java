@@ -0,0 +1,31 @@
+package com.pa.spring.prueba1.pa_prueba1.service.concurrencia;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utilidades sobre la transacción en curso.
+ */
+public final class Transacciones {
+
+    private Transacciones() {
+    }
+
+    /**
+     * Ejecuta la acción cuando confirme la transacción actual, o en el momento si
+     * no hay ninguna. Si la transacción se deshace la acción no se ejecuta: así
+     * las cachés e índices en memoria nunca reflejan datos que no están en la BD.
+     */
+    public static void alConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.pa.spring.prueba1.pa_prueba1.service.correo;
+
+import com.pa.spring.prueba1.pa_prueba1.model.CorreoPendiente;
+import com.pa.spring.prueba1.pa_prueba1.repository.CorreoPendienteRepository;
+import com.pa.spring.prueba1.pa_prueba1.service.concurrencia.Transacciones;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bandeja de salida de correos (patrón outbox).
+ *
+ * El correo se guarda como {@link CorreoPendiente} dentro de la transacción que
+ * esté en curso, así que solo existe si el cambio de negocio se confirma y nunca
+ * se pierde aunque el SMTP esté caído. Tras el commit se avisa al
+ * {@link DespachadorCorreos} para que lo envíe sin esperar al siguiente sondeo.
+ */
+@Component
+public class BandejaSalidaCorreos {
+
+    @Autowired
+    private CorreoPendienteRepository correoPendienteRepository;
+
+    @Autowired
+    private DespachadorCorreos despachadorCorreos;
+
+    public CorreoPendiente encolar(String destinatario, String asunto, String cuerpo, boolean html) {
+        LocalDateTime ahora = LocalDateTime.now();
+
+        CorreoPendiente correo = new CorreoPendiente();
+        correo.setDestinatario(destinatario);
+        correo.setAsunto(asunto);
+        correo.setCuerpo(cuerpo);
+        correo.setHtml(html);
+        correo.setEstado(CorreoPendiente.EstadoCorreo.PENDIENTE);
+        correo.setProximoIntento(ahora);
+        correo.setFechaCreacion(ahora);
+        correo = correoPendienteRepository.save(correo);
+
+        Transacciones.alConfirmar(despachadorCorreos::despertar);
+
+        return correo;
+    }
+}
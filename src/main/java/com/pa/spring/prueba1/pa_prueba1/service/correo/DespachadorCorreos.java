@@ -0,0 +1,295 @@
+package com.pa.spring.prueba1.pa_prueba1.service.correo;
+
+import com.pa.spring.prueba1.pa_prueba1.config.CorreoConfigProperties;
+import com.pa.spring.prueba1.pa_prueba1.model.CorreoPendiente;
+import com.pa.spring.prueba1.pa_prueba1.repository.CorreoPendienteRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envía por SMTP los correos de la bandeja de salida con un pool de hilos acotado.
+ * Los correos se agrupan en lotes de {@code app.correo.mensajes-por-conexion} y
+ * cada hilo envía su lote por una sola conexión ({@link EnvioSmtpMasivo}), así que
+ * {@code app.correo.hilos} es también el número de conexiones SMTP en paralelo.
+ *
+ * Se activa tras cada commit que encola correos y, por si acaso, con un sondeo
+ * periódico que también recoge los pendientes tras un reinicio. Cada correo se
+ * reserva con un UPDATE condicional que lo marca con el token de su lote, así que
+ * dos pasadas (o dos instancias) no lo envían dos veces. La reserva se renueva
+ * cuando el lote sale de la cola y el resultado solo se registra si el correo
+ * sigue siendo del lote: un hilo lento no pisa lo que hizo el que lo retomó.
+ * Si el envío falla se reintenta con espera exponencial; al agotar
+ * {@code app.correo.max-intentos} queda como FALLIDO.
+ *
+ * Métricas: correos.pendientes, correos.cola.envio, correos.envio (latencia),
+ * correos.enviados, correos.reintentos y correos.fallidos.
+ */
+@Component
+public class DespachadorCorreos {
+
+    private static final Logger log = LoggerFactory.getLogger(DespachadorCorreos.class);
+
+    private static final List<CorreoPendiente.EstadoCorreo> ESTADOS_ENVIABLES =
+        List.of(CorreoPendiente.EstadoCorreo.PENDIENTE, CorreoPendiente.EstadoCorreo.ENVIANDO);
+
+    private static final int LONGITUD_MAXIMA_ERROR = 500;
+
+    @Autowired
+    private CorreoPendienteRepository correoPendienteRepository;
+
+    @Autowired
+    private EnvioSmtpMasivo envioSmtpMasivo;
+
+    @Autowired
+    private CorreoConfigProperties config;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor executor;
+
+    private Timer tiempoEnvio;
+
+    /** Evita lanzar varias pasadas sobre la bandeja a la vez */
+    private final AtomicBoolean drenando = new AtomicBoolean(false);
+
+    private final AtomicLong pendientes = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger contador = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+            config.getHilos(), config.getHilos(),
+            60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(config.getCapacidadCola()),
+            tarea -> {
+                Thread hilo = new Thread(tarea, "envio-correos-" + contador.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            },
+            // Con la cola llena se rechaza: los correos siguen en la BD y los recoge el siguiente sondeo
+            new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+
+        tiempoEnvio = meterRegistry.timer("correos.envio");
+        meterRegistry.gauge("correos.pendientes", pendientes);
+        meterRegistry.gauge("correos.cola.envio", executor, e -> e.getQueue().size());
+    }
+
+    @PreDestroy
+    public void cerrar() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Pide una pasada sobre la bandeja de salida sin bloquear al que llama
+     */
+    public void despertar() {
+        if (!drenando.compareAndSet(false, true)) {
+            return; // Ya hay una pasada en curso; recogerá también los nuevos
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    drenar();
+                } finally {
+                    drenando.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            drenando.set(false);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.correo.retraso-inicial-ms:20000}",
+               fixedDelayString = "${app.correo.sondeo-ms:15000}")
+    public void sondear() {
+        pendientes.set(correoPendienteRepository.countByEstado(CorreoPendiente.EstadoCorreo.PENDIENTE));
+        despertar();
+    }
+
+    private void drenar() {
+        while (true) {
+            LocalDateTime ahora = LocalDateTime.now();
+            List<Long> ids = correoPendienteRepository.findIdsListosParaEnviar(
+                ESTADOS_ENVIABLES, ahora, PageRequest.of(0, config.getTamanoLote()));
+            if (ids.isEmpty()) {
+                return;
+            }
+
+            List<Long> lote = new ArrayList<>();
+            String token = UUID.randomUUID().toString();
+            for (Long idCorreo : ids) {
+                // Sin hueco en la cola no se reserva nada más: el resto espera al siguiente sondeo
+                if (lote.isEmpty() && executor.getQueue().remainingCapacity() == 0) {
+                    return;
+                }
+                LocalDateTime reservadoHasta = ahora.plusSeconds(config.getReservaEnvioSegundos());
+                if (correoPendienteRepository.reservarParaEnvio(idCorreo, ESTADOS_ENVIABLES,
+                        CorreoPendiente.EstadoCorreo.ENVIANDO, ahora, reservadoHasta, token) == 0) {
+                    continue; // Lo tomó otro hilo u otra instancia
+                }
+                lote.add(idCorreo);
+                if (lote.size() >= config.getMensajesPorConexion()) {
+                    if (!programarLote(lote, token)) {
+                        return;
+                    }
+                    lote = new ArrayList<>();
+                    token = UUID.randomUUID().toString();
+                }
+            }
+            if (!lote.isEmpty() && !programarLote(lote, token)) {
+                return;
+            }
+
+            if (ids.size() < config.getTamanoLote()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Entrega un lote a un hilo de envío. Si la cola está llena devuelve false y los
+     * correos del lote se retoman cuando vence su reserva.
+     */
+    private boolean programarLote(List<Long> lote, String token) {
+        try {
+            executor.execute(() -> enviarLote(lote, token));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Envía un lote de correos por una sola conexión SMTP y registra el resultado de cada uno
+     */
+    void enviarLote(List<Long> idsCorreo, String token) {
+        // El lote pudo esperar en la cola: renovar la reserva antes de abrir la conexión
+        correoPendienteRepository.renovarReserva(idsCorreo, token, CorreoPendiente.EstadoCorreo.ENVIANDO,
+            LocalDateTime.now().plusSeconds(config.getReservaEnvioSegundos()));
+
+        // Solo los que siguen siendo del lote; los demás los retomó otro hilo
+        List<CorreoPendiente> correos = new ArrayList<>();
+        for (CorreoPendiente correo : correoPendienteRepository.findAllById(idsCorreo)) {
+            if (correo.getEstado() == CorreoPendiente.EstadoCorreo.ENVIANDO && token.equals(correo.getTokenReserva())) {
+                correos.add(correo);
+            }
+        }
+
+        Map<MimeMessage, CorreoPendiente> porMensaje = new IdentityHashMap<>();
+        List<MimeMessage> mensajes = new ArrayList<>();
+        for (CorreoPendiente correo : correos) {
+            try {
+                MimeMessage mensaje = envioSmtpMasivo.crearMensaje(correo.getDestinatario(), correo.getAsunto(),
+                    correo.getCuerpo(), correo.isHtml());
+                porMensaje.put(mensaje, correo);
+                mensajes.add(mensaje);
+            } catch (Exception e) {
+                registrarFallo(correo, token, e);
+            }
+        }
+        if (mensajes.isEmpty()) {
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        Map<MimeMessage, Exception> fallos = envioSmtpMasivo.enviarPorUnaConexion(mensajes);
+        // Latencia media por mensaje, comparable con el envío individual
+        tiempoEnvio.record((System.nanoTime() - inicio) / mensajes.size(), TimeUnit.NANOSECONDS);
+
+        for (MimeMessage mensaje : mensajes) {
+            CorreoPendiente correo = porMensaje.get(mensaje);
+            Exception error = fallos.get(mensaje);
+            if (error != null) {
+                registrarFallo(correo, token, error);
+            } else {
+                registrarEnvio(correo, token);
+            }
+        }
+
+        log.debug("Lote de correos enviado por una conexión: {} enviados, {} fallidos",
+            mensajes.size() - fallos.size(), fallos.size());
+    }
+
+    private void registrarEnvio(CorreoPendiente correo, String token) {
+        if (!registrarResultado(correo, token, CorreoPendiente.EstadoCorreo.ENVIADO, correo.getIntentos() + 1,
+                correo.getProximoIntento(), LocalDateTime.now(), null)) {
+            return;
+        }
+
+        meterRegistry.counter("correos.enviados").increment();
+    }
+
+    private void registrarFallo(CorreoPendiente correo, String token, Exception e) {
+        int intentos = correo.getIntentos() + 1;
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        String ultimoError = error.length() > LONGITUD_MAXIMA_ERROR ? error.substring(0, LONGITUD_MAXIMA_ERROR) : error;
+
+        if (intentos >= config.getMaxIntentos()) {
+            if (!registrarResultado(correo, token, CorreoPendiente.EstadoCorreo.FALLIDO, intentos,
+                    correo.getProximoIntento(), null, ultimoError)) {
+                return;
+            }
+            meterRegistry.counter("correos.fallidos").increment();
+            log.warn("Email a {} descartado tras {} intentos: {}", correo.getDestinatario(), intentos, error);
+        } else {
+            if (!registrarResultado(correo, token, CorreoPendiente.EstadoCorreo.PENDIENTE, intentos,
+                    LocalDateTime.now().plusSeconds(calcularEspera(intentos)), null, ultimoError)) {
+                return;
+            }
+            meterRegistry.counter("correos.reintentos").increment();
+            log.warn("Error al enviar email a {} (intento {}), se reintentará: {}",
+                correo.getDestinatario(), intentos, error);
+        }
+    }
+
+    /**
+     * Guarda el resultado con un UPDATE condicional al token del lote. Devuelve
+     * false si la reserva venció y otro lote retomó el correo: su resultado manda.
+     */
+    private boolean registrarResultado(CorreoPendiente correo, String token, CorreoPendiente.EstadoCorreo estado,
+            int intentos, LocalDateTime proximoIntento, LocalDateTime fechaEnvio, String ultimoError) {
+        if (correoPendienteRepository.registrarResultado(correo.getIdCorreo(), token, estado, intentos,
+                proximoIntento, fechaEnvio, ultimoError) == 0) {
+            log.warn("El correo {} lo retomó otro envío; se descarta este resultado", correo.getIdCorreo());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Espera exponencial: base, 2·base, 4·base... hasta el máximo configurado
+     */
+    private long calcularEspera(int intentos) {
+        long espera = config.getEsperaBaseSegundos() << Math.min(intentos - 1, 20);
+        return Math.min(espera, config.getEsperaMaximaSegundos());
+    }
+}
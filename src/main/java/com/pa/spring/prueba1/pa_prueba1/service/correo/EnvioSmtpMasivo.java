@@ -0,0 +1,75 @@
+package com.pa.spring.prueba1.pa_prueba1.service.correo;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Envío de varios mensajes por una sola conexión SMTP.
+ *
+ * {@link JavaMailSender#send(MimeMessage...)} abre el transporte (y negocia
+ * STARTTLS) una vez para todo el lote en lugar de una vez por mensaje. Si algún
+ * mensaje falla, el resto se sigue enviando y los fallos se devuelven por mensaje.
+ */
+@Component
+public class EnvioSmtpMasivo {
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    public MimeMessage crearMensaje(String destinatario, String asunto, String cuerpo, boolean html)
+            throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+
+        helper.setFrom(fromEmail);
+        helper.setTo(destinatario);
+        helper.setSubject(asunto);
+        helper.setText(cuerpo, html);
+
+        return mimeMessage;
+    }
+
+    /**
+     * Envía los mensajes por una única conexión.
+     *
+     * @return los mensajes que fallaron con su error (vacío si todo fue bien)
+     */
+    public Map<MimeMessage, Exception> enviarPorUnaConexion(List<MimeMessage> mensajes) {
+        Map<MimeMessage, Exception> fallos = new IdentityHashMap<>();
+        if (mensajes.isEmpty()) {
+            return fallos;
+        }
+
+        try {
+            mailSender.send(mensajes.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                mensajes.forEach(m -> fallos.put(m, e));
+            }
+            e.getFailedMessages().forEach((mensaje, error) -> {
+                if (mensaje instanceof MimeMessage) {
+                    fallos.put((MimeMessage) mensaje, error);
+                }
+            });
+        } catch (Exception e) {
+            // Autenticación o conexión: no salió ninguno
+            mensajes.forEach(m -> fallos.put(m, e));
+        }
+
+        return fallos;
+    }
+}
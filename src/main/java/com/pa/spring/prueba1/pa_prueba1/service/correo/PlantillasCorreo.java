@@ -0,0 +1,132 @@
+package com.pa.spring.prueba1.pa_prueba1.service.correo;
+
+import com.pa.spring.prueba1.pa_prueba1.config.CorreoConfigProperties;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Motor de plantillas de los correos (templates/email/*.html).
+ *
+ * Tiene su propio motor Thymeleaf, independiente del de las vistas web, con la
+ * caché de plantillas siempre activa (spring.thymeleaf.cache=false solo afecta a
+ * las vistas) y el compilador de SpEL habilitado. Al arrancar se procesan todas
+ * las plantillas una vez para dejarlas parseadas en caché, y las variables comunes
+ * (nombre de la barbería, enlaces) se calculan una sola vez.
+ *
+ * Cada hilo reutiliza su buffer de salida entre correos.
+ */
+@Component
+public class PlantillasCorreo {
+
+    private static final Logger log = LoggerFactory.getLogger(PlantillasCorreo.class);
+
+    public static final String CONFIRMACION = "confirmacion";
+    public static final String CANCELACION = "cancelacion";
+    public static final String CANCELACION_AUSENCIA = "cancelacion-ausencia";
+    public static final String CANCELACION_DESVINCULACION = "cancelacion-desvinculacion";
+    public static final String REASIGNACION = "reasignacion";
+    public static final String RECORDATORIO = "recordatorio";
+
+    private static final List<String> PLANTILLAS = List.of(CONFIRMACION, CANCELACION, CANCELACION_AUSENCIA,
+        CANCELACION_DESVINCULACION, REASIGNACION, RECORDATORIO);
+
+    private static final Locale LOCALE = Locale.forLanguageTag("es");
+
+    /** Las plantillas generan unos 8-10 KB de HTML */
+    private static final int TAMANO_BUFFER = 16 * 1024;
+
+    /** Un buffer que creció más que esto no se conserva para el siguiente correo */
+    private static final int TAMANO_MAXIMO_BUFFER = 256 * 1024;
+
+    @Autowired
+    private CorreoConfigProperties config;
+
+    @Value("${app.nombre:Barbería Estilo}")
+    private String nombreBarberia;
+
+    private SpringTemplateEngine motor;
+
+    private Map<String, Object> variablesComunes;
+
+    private String urlBase;
+
+    private final ThreadLocal<StringWriter> buffers = ThreadLocal.withInitial(() -> new StringWriter(TAMANO_BUFFER));
+
+    @PostConstruct
+    public void init() {
+        configurar(nombreBarberia, config.getUrlBase());
+    }
+
+    /**
+     * Crea el motor y deja las plantillas en caché. Separado de {@link #init()}
+     * para poder usarlo sin contexto de Spring (benchmark).
+     */
+    void configurar(String nombreBarberia, String urlBase) {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/email/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+
+        motor = new SpringTemplateEngine();
+        motor.setTemplateResolver(resolver);
+        motor.setEnableSpringELCompiler(true);
+
+        this.urlBase = urlBase;
+        Map<String, Object> comunes = new HashMap<>();
+        comunes.put("appName", nombreBarberia);
+        comunes.put("urlMisReservas", urlBase + "/reserva/mis-reservas");
+        comunes.put("urlNuevaReserva", urlBase + "/reserva");
+        variablesComunes = Map.copyOf(comunes);
+
+        long inicio = System.currentTimeMillis();
+        for (String plantilla : PLANTILLAS) {
+            try {
+                renderizar(plantilla, Map.of());
+            } catch (Exception e) {
+                // Sin variables alguna expresión puede fallar, pero la plantilla ya quedó parseada en caché
+            }
+        }
+        log.info("Plantillas de correo cargadas en {} ms", System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Renderiza una plantilla de templates/email con las variables del destinatario
+     * (las comunes se añaden solas y pueden sobrescribirse).
+     */
+    public String renderizar(String plantilla, Map<String, Object> variables) {
+        Context contexto = new Context(LOCALE, variablesComunes);
+        contexto.setVariables(variables);
+
+        StringWriter buffer = buffers.get();
+        buffer.getBuffer().setLength(0);
+        motor.process(plantilla, contexto, buffer);
+        String html = buffer.toString();
+
+        if (buffer.getBuffer().capacity() > TAMANO_MAXIMO_BUFFER) {
+            buffers.remove();
+        }
+        return html;
+    }
+
+    public String getUrlBase() {
+        return urlBase;
+    }
+}
@@ -0,0 +1,221 @@
+package com.pa.spring.prueba1.pa_prueba1.service.disponibilidad;
+
+import com.pa.spring.prueba1.pa_prueba1.config.BusquedaTurnosConfigProperties;
+import com.pa.spring.prueba1.pa_prueba1.model.Barbero;
+import com.pa.spring.prueba1.pa_prueba1.model.Turno;
+import com.pa.spring.prueba1.pa_prueba1.repository.BarberoRepository;
+import com.pa.spring.prueba1.pa_prueba1.service.TurnoService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Búsqueda "primer barbero disponible": recorre en paralelo a todos los barberos
+ * activos y devuelve los N inicios más tempranos para un servicio.
+ *
+ * Las búsquedas por barbero avanzan día a día y comparten los mejores resultados
+ * encontrados hasta el momento; en cuanto ya hay N opciones anteriores al día que
+ * le toca revisar a un barbero, ese barbero deja de buscar.
+ */
+@Service
+public class BusquedaPrimerBarbero {
+
+    private static final Logger log = LoggerFactory.getLogger(BusquedaPrimerBarbero.class);
+
+    private static final Comparator<OpcionTurno> POR_FECHA =
+        Comparator.comparing(OpcionTurno::getFechaHora).thenComparing(OpcionTurno::getIdBarbero);
+
+    @Autowired
+    private TurnoService turnoService;
+
+    @Autowired
+    private BarberoRepository barberoRepository;
+
+    @Autowired
+    private BusquedaTurnosConfigProperties config;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger contador = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+            config.getHilos(), config.getHilos(),
+            60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(config.getCapacidadCola()),
+            tarea -> {
+                Thread hilo = new Thread(tarea, "busqueda-turnos-" + contador.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            },
+            // Con la cola llena la búsqueda se hace en el hilo de la petición (no se pierde ni se encola sin límite)
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Los {@code cantidad} inicios más tempranos en [desde, hasta) entre todos los
+     * barberos activos, para un servicio de la duración indicada.
+     */
+    public List<OpcionTurno> buscar(int duracionMinutos, LocalDateTime desde, LocalDateTime hasta, int cantidad) {
+        long inicio = System.currentTimeMillis();
+        MejoresOpciones mejores = new MejoresOpciones(cantidad);
+
+        List<Future<?>> tareas = new ArrayList<>();
+        for (Barbero barbero : barberoRepository.findByActivoTrue()) {
+            if (barbero.getHoraInicio() == null || barbero.getHoraFin() == null) {
+                continue;
+            }
+            tareas.add(executor.submit(() -> buscarEnBarbero(barbero, duracionMinutos, desde, hasta, mejores)));
+        }
+
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getTimeoutSegundos());
+        for (Future<?> tarea : tareas) {
+            try {
+                tarea.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                tarea.cancel(true);
+                log.warn("Búsqueda de turnos cancelada por tiempo de espera");
+            } catch (ExecutionException e) {
+                log.warn("Error buscando turnos de un barbero: {}", e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                tareas.forEach(t -> t.cancel(true));
+                break;
+            }
+        }
+
+        List<OpcionTurno> resultado = mejores.ordenadas();
+        log.debug("Primer barbero disponible: {} opciones de {} barberos en {} ms",
+            resultado.size(), tareas.size(), System.currentTimeMillis() - inicio);
+        return resultado;
+    }
+
+    private void buscarEnBarbero(Barbero barbero, int duracionMinutos, LocalDateTime desde,
+                                 LocalDateTime hasta, MejoresOpciones mejores) {
+        int encontrados = 0;
+
+        for (LocalDate dia = desde.toLocalDate(); dia.atStartOfDay().isBefore(hasta); dia = dia.plusDays(1)) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+
+            LocalDateTime inicioDia = dia.atStartOfDay().isBefore(desde) ? desde : dia.atStartOfDay();
+            LocalDateTime finDia = dia.plusDays(1).atStartOfDay().isAfter(hasta) ? hasta : dia.plusDays(1).atStartOfDay();
+
+            // Corte temprano: ya hay suficientes opciones antes de este día
+            if (!mejores.puedeMejorar(inicioDia)) {
+                return;
+            }
+
+            List<Turno> turnos = turnoService.obtenerTurnosDisponiblesPorDuracionYRango(
+                barbero.getIdBarbero(), duracionMinutos, inicioDia, finDia);
+
+            for (Turno turno : turnos) {
+                OpcionTurno opcion = new OpcionTurno(turno.getIdTurno(), turno.getFechaHora(),
+                    barbero.getIdBarbero(), barbero.getNombre());
+                // Los turnos vienen ordenados: si este no entra, los siguientes tampoco
+                if (!mejores.ofrecer(opcion) || ++encontrados >= mejores.capacidad) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Las N opciones más tempranas vistas hasta ahora, compartidas entre hilos.
+     * Se guarda un montículo de máximos para conocer en O(1) la peor de ellas.
+     */
+    private static class MejoresOpciones {
+
+        private final int capacidad;
+        private final PriorityQueue<OpcionTurno> cola;
+
+        MejoresOpciones(int capacidad) {
+            this.capacidad = capacidad;
+            this.cola = new PriorityQueue<>(capacidad, POR_FECHA.reversed());
+        }
+
+        synchronized boolean puedeMejorar(LocalDateTime fechaHora) {
+            return cola.size() < capacidad || fechaHora.isBefore(cola.peek().getFechaHora());
+        }
+
+        synchronized boolean ofrecer(OpcionTurno opcion) {
+            if (cola.size() < capacidad) {
+                cola.add(opcion);
+                return true;
+            }
+            if (POR_FECHA.compare(opcion, cola.peek()) < 0) {
+                cola.poll();
+                cola.add(opcion);
+                return true;
+            }
+            return false;
+        }
+
+        synchronized List<OpcionTurno> ordenadas() {
+            List<OpcionTurno> lista = new ArrayList<>(cola);
+            lista.sort(POR_FECHA);
+            return lista;
+        }
+    }
+
+    /**
+     * Un inicio posible para el servicio. En modo virtual idTurno es null y el
+     * turno se crea al reservar a partir de fechaHora.
+     */
+    public static class OpcionTurno {
+
+        private final Long idTurno;
+        private final LocalDateTime fechaHora;
+        private final Long idBarbero;
+        private final String nombreBarbero;
+
+        public OpcionTurno(Long idTurno, LocalDateTime fechaHora, Long idBarbero, String nombreBarbero) {
+            this.idTurno = idTurno;
+            this.fechaHora = fechaHora;
+            this.idBarbero = idBarbero;
+            this.nombreBarbero = nombreBarbero;
+        }
+
+        public Long getIdTurno() {
+            return idTurno;
+        }
+
+        public LocalDateTime getFechaHora() {
+            return fechaHora;
+        }
+
+        public Long getIdBarbero() {
+            return idBarbero;
+        }
+
+        public String getNombreBarbero() {
+            return nombreBarbero;
+        }
+    }
+}
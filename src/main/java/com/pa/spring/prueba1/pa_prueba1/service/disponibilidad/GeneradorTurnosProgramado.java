@@ -0,0 +1,114 @@
+package com.pa.spring.prueba1.pa_prueba1.service.disponibilidad;
+
+import com.pa.spring.prueba1.pa_prueba1.config.DisponibilidadConfigProperties;
+import com.pa.spring.prueba1.pa_prueba1.config.GeneracionTurnosConfigProperties;
+import com.pa.spring.prueba1.pa_prueba1.model.Barbero;
+import com.pa.spring.prueba1.pa_prueba1.model.ProgresoGeneracionTurnos;
+import com.pa.spring.prueba1.pa_prueba1.repository.BarberoRepository;
+import com.pa.spring.prueba1.pa_prueba1.repository.ProgresoGeneracionTurnosRepository;
+import com.pa.spring.prueba1.pa_prueba1.service.TurnoService;
+import com.pa.spring.prueba1.pa_prueba1.service.concurrencia.BloqueoDistribuido;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Mantiene generados los turnos de los próximos días para todos los barberos
+ * activos, fuera de las peticiones de los clientes.
+ *
+ * Cada ejecución continúa desde la fecha registrada en {@link ProgresoGeneracionTurnos}
+ * hasta hoy + horizonte, así que normalmente solo genera el día que entra en el
+ * horizonte. Es idempotente: la generación masiva omite los turnos que ya existen,
+ * por lo que repetir un tramo (por ejemplo tras un fallo antes de guardar el
+ * progreso) no duplica nada.
+ */
+@Component
+public class GeneradorTurnosProgramado {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneradorTurnosProgramado.class);
+
+    @Autowired
+    private TurnoService turnoService;
+
+    @Autowired
+    private BarberoRepository barberoRepository;
+
+    @Autowired
+    private ProgresoGeneracionTurnosRepository progresoRepository;
+
+    @Autowired
+    private GeneracionTurnosConfigProperties generacionConfig;
+
+    @Autowired
+    private DisponibilidadConfigProperties disponibilidadConfig;
+
+    @Autowired
+    private BloqueoDistribuido bloqueoDistribuido;
+
+    @Scheduled(initialDelayString = "${app.turnos.generacion.retraso-inicial-ms:30000}",
+               fixedDelayString = "${app.turnos.generacion.intervalo-ms:3600000}")
+    public void mantenerHorizonte() {
+        if (!generacionConfig.isProgramadaHabilitada()) {
+            return;
+        }
+        if (disponibilidadConfig.getModo() == DisponibilidadConfigProperties.ModoDisponibilidad.VIRTUAL) {
+            return; // En modo virtual los turnos se crean solo al reservar
+        }
+
+        // Con varias instancias solo una genera en cada ciclo
+        bloqueoDistribuido.ejecutar("generacion-turnos", this::generarHorizonte);
+    }
+
+    private void generarHorizonte() {
+        long inicio = System.currentTimeMillis();
+        LocalDate hoy = LocalDate.now();
+        LocalDate objetivo = hoy.plusDays(generacionConfig.getHorizonteDias());
+        int total = 0;
+
+        for (Barbero barbero : barberoRepository.findByActivoTrue()) {
+            if (barbero.getHoraInicio() == null || barbero.getHoraFin() == null) {
+                continue;
+            }
+            try {
+                total += generarHastaObjetivo(barbero.getIdBarbero(), hoy, objetivo);
+            } catch (Exception e) {
+                // Un barbero con datos inválidos no debe impedir generar los demás
+                log.warn("Error generando turnos del barbero {}: {}", barbero.getIdBarbero(), e.getMessage());
+            }
+        }
+
+        log.debug("Generación programada de turnos hasta {}: {} turnos nuevos en {} ms",
+            objetivo, total, System.currentTimeMillis() - inicio);
+    }
+
+    private int generarHastaObjetivo(Long idBarbero, LocalDate hoy, LocalDate objetivo) {
+        ProgresoGeneracionTurnos progreso = progresoRepository.findById(idBarbero).orElseGet(() -> {
+            ProgresoGeneracionTurnos nuevo = new ProgresoGeneracionTurnos();
+            nuevo.setIdBarbero(idBarbero);
+            return nuevo;
+        });
+
+        LocalDate desde = hoy;
+        if (progreso.getGeneradoHasta() != null && !progreso.getGeneradoHasta().isBefore(hoy)) {
+            desde = progreso.getGeneradoHasta().plusDays(1);
+        }
+        if (desde.isAfter(objetivo)) {
+            return 0;
+        }
+
+        int generados = turnoService.generarTurnosMasivo(idBarbero, desde, objetivo);
+
+        progreso.setGeneradoHasta(objetivo);
+        progreso.setUltimaEjecucion(LocalDateTime.now());
+        progreso.setTurnosGenerados(generados);
+        progresoRepository.save(progreso);
+
+        return generados;
+    }
+}
@@ -0,0 +1,398 @@
+package com.pa.spring.prueba1.pa_prueba1.service.disponibilidad;
+
+import com.pa.spring.prueba1.pa_prueba1.config.DisponibilidadConfigProperties;
+import com.pa.spring.prueba1.pa_prueba1.model.Barbero;
+import com.pa.spring.prueba1.pa_prueba1.model.Turno;
+import com.pa.spring.prueba1.pa_prueba1.repository.BarberoRepository;
+import com.pa.spring.prueba1.pa_prueba1.repository.TurnoRepository;
+import com.pa.spring.prueba1.pa_prueba1.service.concurrencia.Transacciones;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en memoria de la disponibilidad de turnos por barbero y día.
+ *
+ * Cada día se representa como un mapa de bits de 96 posiciones (una por cada
+ * bloque de 15 minutos): el bit está encendido si existe un turno DISPONIBLE en
+ * ese bloque. Buscar "N bloques consecutivos libres" se reduce a un AND de la
+ * palabra consigo misma desplazada, sin recorrer entidades.
+ *
+ * El índice se carga por barbero con una sola consulta la primera vez que se
+ * necesita y después se mantiene con los cambios confirmados de cada Turno
+ * (ver {@link IndiceDisponibilidadListener}).
+ */
+@Component
+public class IndiceDisponibilidad {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceDisponibilidad.class);
+
+    static final int MINUTOS_SLOT = 15;
+    static final int SLOTS_POR_DIA = 24 * 60 / MINUTOS_SLOT;
+    private static final int PALABRAS_POR_DIA = (SLOTS_POR_DIA + 63) / 64;
+
+    @Autowired
+    private TurnoRepository turnoRepository;
+
+    @Autowired
+    private BarberoRepository barberoRepository;
+
+    @Autowired
+    private DisponibilidadConfigProperties config;
+
+    private final Map<Long, IndiceBarbero> indices = new ConcurrentHashMap<>();
+
+    // ===== CONSULTAS =====
+
+    public boolean estaHabilitado() {
+        return config.isIndiceHabilitado();
+    }
+
+    /**
+     * Devuelve los turnos desde los que hay suficientes bloques consecutivos
+     * libres para un servicio de la duración indicada, dentro del horizonte del
+     * índice y respetando hora de fin y almuerzo del barbero.
+     *
+     * @return lista ordenada por fecha, o null si el índice no puede responder
+     *         (barbero inexistente o turnos fuera de la rejilla de 15 minutos)
+     */
+    public List<Turno> buscarTurnosConsecutivos(Long idBarbero, int duracionMinutos) {
+        LocalDateTime ahora = LocalDateTime.now();
+        return buscarTurnosConsecutivos(idBarbero, duracionMinutos, ahora, ahora.plusDays(config.getHorizonteDias()));
+    }
+
+    /**
+     * Igual que {@link #buscarTurnosConsecutivos(Long, int)} pero solo con inicios
+     * futuros dentro de [desde, hasta).
+     *
+     * @return lista ordenada por fecha, o null si el índice no puede responder
+     *         (además de los casos anteriores, si el rango sale del horizonte)
+     */
+    public List<Turno> buscarTurnosConsecutivos(Long idBarbero, int duracionMinutos,
+                                                LocalDateTime desde, LocalDateTime hasta) {
+        return buscarTurnosConsecutivos(idBarbero, duracionMinutos, desde, hasta, LocalDateTime.now());
+    }
+
+    List<Turno> buscarTurnosConsecutivos(Long idBarbero, int duracionMinutos,
+                                         LocalDateTime desde, LocalDateTime hasta, LocalDateTime ahora) {
+        LocalDate hoy = ahora.toLocalDate();
+        if (hasta.isAfter(ahora.plusDays(config.getHorizonteDias()))) {
+            return null;
+        }
+
+        IndiceBarbero indice = obtenerIndice(idBarbero);
+        if (indice == null) {
+            return null;
+        }
+
+        int slotsNecesarios = Math.max(1, (int) Math.ceil(duracionMinutos / (double) MINUTOS_SLOT));
+        List<Turno> resultado = new ArrayList<>();
+
+        synchronized (indice) {
+            asegurarRango(idBarbero, indice, hoy, hasta.toLocalDate().plusDays(1));
+            if (indice.irregular) {
+                return null;
+            }
+
+            LocalDate primerDia = desde.toLocalDate().isAfter(hoy) ? desde.toLocalDate() : hoy;
+            for (LocalDate dia = primerDia; !dia.isAfter(hasta.toLocalDate()); dia = dia.plusDays(1)) {
+                DiaSlots slots = indice.dias.get(dia);
+                if (slots == null) {
+                    continue;
+                }
+
+                long[] inicios = iniciosDeRachas(slots.libres, slotsNecesarios);
+                for (int w = 0; w < inicios.length; w++) {
+                    long palabra = inicios[w];
+                    while (palabra != 0) {
+                        int slot = (w << 6) + Long.numberOfTrailingZeros(palabra);
+                        palabra &= palabra - 1;
+
+                        LocalDateTime inicio = dia.atStartOfDay().plusMinutes((long) slot * MINUTOS_SLOT);
+                        if (!inicio.isAfter(ahora) || inicio.isBefore(desde) || !inicio.isBefore(hasta)) {
+                            continue;
+                        }
+                        if (!cabeEnHorario(indice, inicio.toLocalTime(), duracionMinutos)) {
+                            continue;
+                        }
+                        resultado.add(crearTurno(idBarbero, slots.ids[slot], inicio));
+                    }
+                }
+            }
+        }
+
+        return resultado;
+    }
+
+    // ===== ACTUALIZACIONES =====
+
+    /**
+     * Refleja en el índice el estado confirmado de un turno. Es idempotente:
+     * aplicar dos veces el mismo cambio deja el índice igual.
+     */
+    public void registrarCambio(Long idBarbero, Long idTurno, LocalDateTime fechaHora, Turno.EstadoTurno estado) {
+        IndiceBarbero indice = indices.get(idBarbero);
+        if (indice == null) {
+            return; // Se cargará desde la BD cuando se consulte
+        }
+        synchronized (indice) {
+            quitar(indice, idTurno);
+            if (estado == Turno.EstadoTurno.DISPONIBLE) {
+                marcarLibre(indice, idTurno, fechaHora);
+            }
+        }
+    }
+
+    public void registrarEliminacion(Long idBarbero, Long idTurno) {
+        IndiceBarbero indice = indices.get(idBarbero);
+        if (indice == null) {
+            return;
+        }
+        synchronized (indice) {
+            quitar(indice, idTurno);
+        }
+    }
+
+    /**
+     * Marca como ocupados los turnos de esas fechas y horas cuando confirme la
+     * transacción actual. Para los UPDATE masivos de estado, que no pasan por el
+     * listener JPA.
+     */
+    public void registrarOcupadosAlConfirmar(Long idBarbero, List<LocalDateTime> horarios) {
+        List<LocalDateTime> copia = new ArrayList<>(horarios);
+        Runnable accion = () -> {
+            IndiceBarbero indice = indices.get(idBarbero);
+            if (indice == null) {
+                return;
+            }
+            synchronized (indice) {
+                for (LocalDateTime fechaHora : copia) {
+                    DiaSlots slots = indice.dias.get(fechaHora.toLocalDate());
+                    if (slots == null || fechaHora.getMinute() % MINUTOS_SLOT != 0) {
+                        continue;
+                    }
+                    long idTurno = slots.ids[(fechaHora.getHour() * 60 + fechaHora.getMinute()) / MINUTOS_SLOT];
+                    if (idTurno != 0L) {
+                        quitar(indice, idTurno);
+                    }
+                }
+            }
+        };
+
+        Transacciones.alConfirmar(accion);
+    }
+
+    /**
+     * Descarta el índice de un barbero (por ejemplo al cambiar su horario);
+     * se reconstruye en la siguiente consulta.
+     */
+    public void invalidarBarbero(Long idBarbero) {
+        indices.remove(idBarbero);
+    }
+
+    /**
+     * Invalida el índice del barbero cuando confirme la transacción actual (o de
+     * inmediato si no hay ninguna). Para escrituras que no pasan por JPA, como
+     * los INSERT por lotes de la generación masiva.
+     */
+    public void invalidarBarberoAlConfirmar(Long idBarbero) {
+        Transacciones.alConfirmar(() -> invalidarBarbero(idBarbero));
+    }
+
+    // ===== CARGA =====
+
+    private IndiceBarbero obtenerIndice(Long idBarbero) {
+        IndiceBarbero indice = indices.get(idBarbero);
+        if (indice != null) {
+            return indice;
+        }
+
+        Barbero barbero = barberoRepository.findById(idBarbero).orElse(null);
+        if (barbero == null) {
+            return null;
+        }
+
+        IndiceBarbero nuevo = new IndiceBarbero(barbero);
+        IndiceBarbero existente = indices.putIfAbsent(idBarbero, nuevo);
+        return existente != null ? existente : nuevo;
+    }
+
+    /**
+     * Garantiza que el índice cubre [desde, hasta). Descarta los días pasados y
+     * carga solo los días que faltan, con una única consulta.
+     */
+    private void asegurarRango(Long idBarbero, IndiceBarbero indice, LocalDate desde, LocalDate hasta) {
+        if (indice.desde == null || desde.isBefore(indice.desde)) {
+            indice.dias.clear();
+            indice.posiciones.clear();
+            indice.irregular = false;
+            cargarDias(idBarbero, indice, desde, hasta);
+            indice.desde = desde;
+            indice.hasta = hasta;
+            return;
+        }
+
+        if (desde.isAfter(indice.desde)) {
+            indice.dias.keySet().removeIf(dia -> dia.isBefore(desde));
+            indice.posiciones.values().removeIf(pos -> pos < desde.toEpochDay() * SLOTS_POR_DIA);
+            indice.desde = desde;
+        }
+
+        if (hasta.isAfter(indice.hasta)) {
+            cargarDias(idBarbero, indice, indice.hasta, hasta);
+            indice.hasta = hasta;
+        }
+    }
+
+    private void cargarDias(Long idBarbero, IndiceBarbero indice, LocalDate desde, LocalDate hasta) {
+        for (LocalDate dia = desde; dia.isBefore(hasta); dia = dia.plusDays(1)) {
+            indice.dias.put(dia, new DiaSlots());
+        }
+
+        List<Object[]> filas = turnoRepository.findSlotsByBarberoAndRango(
+            idBarbero, desde.atStartOfDay(), hasta.atStartOfDay());
+
+        for (Object[] fila : filas) {
+            Long idTurno = (Long) fila[0];
+            LocalDateTime fechaHora = (LocalDateTime) fila[1];
+            Turno.EstadoTurno estado = (Turno.EstadoTurno) fila[2];
+            if (fechaHora != null && estado == Turno.EstadoTurno.DISPONIBLE) {
+                marcarLibre(indice, idTurno, fechaHora);
+            }
+        }
+
+        log.debug("Índice de disponibilidad cargado para barbero {} ({} a {}): {} turnos",
+            idBarbero, desde, hasta, filas.size());
+    }
+
+    // ===== OPERACIONES SOBRE BITS =====
+
+    private void marcarLibre(IndiceBarbero indice, Long idTurno, LocalDateTime fechaHora) {
+        if (fechaHora.getMinute() % MINUTOS_SLOT != 0 || fechaHora.getSecond() != 0 || fechaHora.getNano() != 0) {
+            // Turno fuera de la rejilla: el índice no puede representarlo con exactitud
+            indice.irregular = true;
+            return;
+        }
+
+        DiaSlots slots = indice.dias.get(fechaHora.toLocalDate());
+        if (slots == null) {
+            return; // Fuera del rango cargado
+        }
+
+        int slot = (fechaHora.getHour() * 60 + fechaHora.getMinute()) / MINUTOS_SLOT;
+        slots.libres[slot >>> 6] |= 1L << (slot & 63);
+        slots.ids[slot] = idTurno;
+        indice.posiciones.put(idTurno, fechaHora.toLocalDate().toEpochDay() * SLOTS_POR_DIA + slot);
+    }
+
+    private void quitar(IndiceBarbero indice, Long idTurno) {
+        Long posicion = indice.posiciones.remove(idTurno);
+        if (posicion == null) {
+            return;
+        }
+
+        DiaSlots slots = indice.dias.get(LocalDate.ofEpochDay(posicion / SLOTS_POR_DIA));
+        int slot = (int) (posicion % SLOTS_POR_DIA);
+        if (slots != null && slots.ids[slot] == idTurno) {
+            slots.libres[slot >>> 6] &= ~(1L << (slot & 63));
+            slots.ids[slot] = 0L;
+        }
+    }
+
+    /**
+     * Bit i del resultado encendido si los bits i..i+n-1 de la entrada lo están.
+     */
+    static long[] iniciosDeRachas(long[] libres, int n) {
+        long[] resultado = libres.clone();
+        for (int k = 1; k < n; k++) {
+            long[] desplazado = desplazarDerecha(libres, k);
+            for (int w = 0; w < resultado.length; w++) {
+                resultado[w] &= desplazado[w];
+            }
+        }
+        return resultado;
+    }
+
+    private static long[] desplazarDerecha(long[] bits, int k) {
+        long[] resultado = new long[bits.length];
+        int palabras = k >>> 6;
+        int resto = k & 63;
+        for (int w = 0; w + palabras < bits.length; w++) {
+            long valor = bits[w + palabras] >>> resto;
+            if (resto != 0 && w + palabras + 1 < bits.length) {
+                valor |= bits[w + palabras + 1] << (64 - resto);
+            }
+            resultado[w] = valor;
+        }
+        return resultado;
+    }
+
+    // ===== AUXILIARES =====
+
+    private boolean cabeEnHorario(IndiceBarbero indice, LocalTime horaInicio, int duracionMinutos) {
+        LocalTime horaFinServicio = horaInicio.plusMinutes(duracionMinutos);
+
+        if (indice.horaFin != null && horaFinServicio.isAfter(indice.horaFin)) {
+            return false;
+        }
+
+        if (indice.horaInicioAlmuerzo != null && indice.horaFinAlmuerzo != null) {
+            boolean cruzaConAlmuerzo = horaInicio.isBefore(indice.horaFinAlmuerzo) &&
+                horaFinServicio.isAfter(indice.horaInicioAlmuerzo);
+            if (cruzaConAlmuerzo) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private Turno crearTurno(Long idBarbero, long idTurno, LocalDateTime fechaHora) {
+        Barbero barbero = new Barbero();
+        barbero.setIdBarbero(idBarbero);
+
+        Turno turno = new Turno();
+        turno.setIdTurno(idTurno);
+        turno.setFechaHora(fechaHora);
+        turno.setEstado(Turno.EstadoTurno.DISPONIBLE);
+        turno.setBarbero(barbero);
+        return turno;
+    }
+
+    // ===== ESTRUCTURAS INTERNAS =====
+
+    private static final class IndiceBarbero {
+        private final LocalTime horaFin;
+        private final LocalTime horaInicioAlmuerzo;
+        private final LocalTime horaFinAlmuerzo;
+
+        private LocalDate desde;
+        private LocalDate hasta;
+        private boolean irregular;
+
+        private final Map<LocalDate, DiaSlots> dias = new HashMap<>();
+        private final Map<Long, Long> posiciones = new HashMap<>();
+
+        private IndiceBarbero(Barbero barbero) {
+            this.horaFin = barbero.getHoraFin();
+            this.horaInicioAlmuerzo = barbero.getHoraInicioAlmuerzo();
+            this.horaFinAlmuerzo = barbero.getHoraFinAlmuerzo();
+        }
+    }
+
+    private static final class DiaSlots {
+        private final long[] libres = new long[PALABRAS_POR_DIA];
+        private final long[] ids = new long[SLOTS_POR_DIA];
+    }
+}
@@ -0,0 +1,72 @@
+package com.pa.spring.prueba1.pa_prueba1.service.disponibilidad;
+
+import com.pa.spring.prueba1.pa_prueba1.model.Barbero;
+import com.pa.spring.prueba1.pa_prueba1.model.Turno;
+import com.pa.spring.prueba1.pa_prueba1.service.concurrencia.Transacciones;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+
+/**
+ * Listener JPA que mantiene {@link IndiceDisponibilidad} sincronizado con los
+ * cambios de Turno y Barbero. Los cambios se aplican solo después del commit,
+ * para que un rollback nunca deje el índice con datos que no están en la BD.
+ *
+ * Hibernate lo instancia a través del contenedor de beans de Spring
+ * (configurado en DatabaseConfig), por eso puede recibir dependencias.
+ */
+public class IndiceDisponibilidadListener {
+
+    @Autowired(required = false)
+    private IndiceDisponibilidad indice;
+
+    @PostPersist
+    @PostUpdate
+    public void entidadGuardada(Object entidad) {
+        if (indice == null) {
+            return;
+        }
+
+        if (entidad instanceof Turno turno) {
+            Long idBarbero = idBarbero(turno);
+            if (idBarbero == null || turno.getIdTurno() == null || turno.getFechaHora() == null) {
+                return;
+            }
+            Long idTurno = turno.getIdTurno();
+            LocalDateTime fechaHora = turno.getFechaHora();
+            Turno.EstadoTurno estado = turno.getEstado();
+            Transacciones.alConfirmar(() -> indice.registrarCambio(idBarbero, idTurno, fechaHora, estado));
+        } else if (entidad instanceof Barbero barbero && barbero.getIdBarbero() != null) {
+            // Cambió el horario (o cualquier dato): el índice se reconstruye al consultarlo
+            Long idBarbero = barbero.getIdBarbero();
+            Transacciones.alConfirmar(() -> indice.invalidarBarbero(idBarbero));
+        }
+    }
+
+    @PostRemove
+    public void entidadEliminada(Object entidad) {
+        if (indice == null) {
+            return;
+        }
+
+        if (entidad instanceof Turno turno) {
+            Long idBarbero = idBarbero(turno);
+            Long idTurno = turno.getIdTurno();
+            if (idBarbero != null && idTurno != null) {
+                Transacciones.alConfirmar(() -> indice.registrarEliminacion(idBarbero, idTurno));
+            }
+        } else if (entidad instanceof Barbero barbero && barbero.getIdBarbero() != null) {
+            Long idBarbero = barbero.getIdBarbero();
+            Transacciones.alConfirmar(() -> indice.invalidarBarbero(idBarbero));
+        }
+    }
+
+    private Long idBarbero(Turno turno) {
+        return turno.getBarbero() != null ? turno.getBarbero().getIdBarbero() : null;
+    }
+}
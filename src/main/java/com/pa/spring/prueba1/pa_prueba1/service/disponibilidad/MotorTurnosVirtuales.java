@@ -0,0 +1,249 @@
+package com.pa.spring.prueba1.pa_prueba1.service.disponibilidad;
+
+import com.pa.spring.prueba1.pa_prueba1.model.Barbero;
+import com.pa.spring.prueba1.pa_prueba1.model.Reserva;
+import com.pa.spring.prueba1.pa_prueba1.model.SolicitudAusencia;
+import com.pa.spring.prueba1.pa_prueba1.model.Turno;
+import com.pa.spring.prueba1.pa_prueba1.repository.ReservaRepository;
+import com.pa.spring.prueba1.pa_prueba1.repository.SolicitudAusenciaRepository;
+import com.pa.spring.prueba1.pa_prueba1.repository.TurnoRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Calcula la disponibilidad de un barbero al vuelo, sin filas de Turno generadas
+ * de antemano: parte del horario semanal del barbero y le resta las ausencias
+ * aprobadas, las reservas activas y los turnos bloqueados (NO_DISPONIBLE).
+ *
+ * Los horarios se expresan en pasos de 15 minutos, igual que los turnos materializados,
+ * para que los dos modos de disponibilidad sean intercambiables.
+ */
+@Component
+public class MotorTurnosVirtuales {
+
+    public static final int MINUTOS_SLOT = IndiceDisponibilidad.MINUTOS_SLOT;
+
+    @Autowired
+    private TurnoRepository turnoRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private SolicitudAusenciaRepository solicitudAusenciaRepository;
+
+    // ===== HORARIO BASE =====
+
+    /**
+     * Todos los horarios futuros de 15 minutos según el horario del barbero,
+     * saltando domingos, su día libre y la hora de almuerzo.
+     */
+    public List<LocalDateTime> horariosDelBarbero(Barbero barbero, LocalDate fechaInicio, LocalDate fechaFin) {
+        List<LocalDateTime> horarios = new ArrayList<>();
+        if (barbero.getHoraInicio() == null || barbero.getHoraFin() == null) {
+            return horarios;
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalTime horaFin = barbero.getHoraFin();
+        LocalTime horaInicioAlmuerzo = barbero.getHoraInicioAlmuerzo();
+        LocalTime horaFinAlmuerzo = barbero.getHoraFinAlmuerzo();
+
+        for (LocalDate fechaActual = fechaInicio; !fechaActual.isAfter(fechaFin); fechaActual = fechaActual.plusDays(1)) {
+            if (barbero.getDiaLibre() != null && barbero.getDiaLibre().equals(fechaActual.getDayOfWeek())) {
+                continue;
+            }
+
+            if (fechaActual.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+
+            LocalTime horaActual = barbero.getHoraInicio();
+
+            while (horaActual.isBefore(horaFin)) {
+                if (horaInicioAlmuerzo != null && horaFinAlmuerzo != null &&
+                    !horaActual.isBefore(horaInicioAlmuerzo) && horaActual.isBefore(horaFinAlmuerzo)) {
+                    horaActual = horaFinAlmuerzo;
+                    continue;
+                }
+
+                LocalDateTime fechaHoraTurno = LocalDateTime.of(fechaActual, horaActual);
+                if (fechaHoraTurno.isAfter(ahora)) {
+                    horarios.add(fechaHoraTurno);
+                }
+
+                LocalTime siguiente = horaActual.plusMinutes(MINUTOS_SLOT);
+                if (siguiente.isBefore(horaActual)) {
+                    break; // Cruce de medianoche
+                }
+                horaActual = siguiente;
+            }
+        }
+
+        return horarios;
+    }
+
+    // ===== DISPONIBILIDAD VIRTUAL =====
+
+    /**
+     * Horarios de inicio en [desde, hasta) donde el barbero tiene libres los
+     * turnos consecutivos necesarios para un servicio de la duración indicada,
+     * sin pasarse de su hora de salida ni cruzar el almuerzo.
+     */
+    public List<LocalDateTime> calcularInicios(Barbero barbero, int duracionMinutos,
+                                               LocalDateTime desde, LocalDateTime hasta) {
+        List<LocalDateTime> inicios = new ArrayList<>();
+        if (barbero.getHoraInicio() == null || barbero.getHoraFin() == null) {
+            return inicios;
+        }
+
+        List<LocalDateTime> libres = horariosLibres(barbero, desde, hasta);
+        Set<LocalDateTime> conjuntoLibres = new HashSet<>(libres);
+        int turnosNecesarios = Math.max(1, (int) Math.ceil(duracionMinutos / (double) MINUTOS_SLOT));
+
+        for (LocalDateTime inicio : libres) {
+            if (!cabeEnHorario(barbero, inicio.toLocalTime(), duracionMinutos)) {
+                continue;
+            }
+
+            boolean consecutivos = true;
+            for (int j = 1; j < turnosNecesarios; j++) {
+                if (!conjuntoLibres.contains(inicio.plusMinutes((long) MINUTOS_SLOT * j))) {
+                    consecutivos = false;
+                    break;
+                }
+            }
+
+            if (consecutivos) {
+                inicios.add(inicio);
+            }
+        }
+
+        return inicios;
+    }
+
+    /**
+     * Indica si el turno de 15 minutos que empieza en esa fecha y hora está libre
+     * para el barbero (pertenece a su horario y nada lo ocupa).
+     */
+    public boolean esHorarioLibre(Barbero barbero, LocalDateTime fechaHora) {
+        return horariosLibres(barbero, fechaHora, fechaHora.plusMinutes(MINUTOS_SLOT)).contains(fechaHora);
+    }
+
+    /**
+     * Horarios del barbero en [desde, hasta) menos los ocupados. Se hacen tres
+     * consultas por llamada (turnos bloqueados, reservas activas y ausencias),
+     * independientemente del tamaño del rango.
+     */
+    private List<LocalDateTime> horariosLibres(Barbero barbero, LocalDateTime desde, LocalDateTime hasta) {
+        Ocupacion ocupacion = calcularOcupacion(barbero.getIdBarbero(), desde, hasta);
+
+        List<LocalDateTime> libres = new ArrayList<>();
+        for (LocalDateTime fechaHora : horariosDelBarbero(barbero, desde.toLocalDate(), hasta.toLocalDate())) {
+            if (fechaHora.isBefore(desde) || !fechaHora.isBefore(hasta)) {
+                continue;
+            }
+            if (!ocupacion.turnos.contains(fechaHora) && !ocupacion.dias.contains(fechaHora.toLocalDate())) {
+                libres.add(fechaHora);
+            }
+        }
+        return libres;
+    }
+
+    private Ocupacion calcularOcupacion(Long idBarbero, LocalDateTime desde, LocalDateTime hasta) {
+        Ocupacion ocupacion = new Ocupacion();
+        Set<LocalDateTime> ocupados = ocupacion.turnos;
+
+        // Turnos bloqueados (reservados o deshabilitados a mano)
+        ocupados.addAll(turnoRepository.findFechasHoraByBarberoAndEstadoAndRango(
+            idBarbero, Turno.EstadoTurno.NO_DISPONIBLE, desde, hasta));
+
+        // Reservas activas: ocupan tantos turnos como dure el corte. Se amplía el rango
+        // hacia atrás para incluir reservas que empiezan antes y terminan dentro.
+        List<Object[]> intervalos = reservaRepository.obtenerIntervalosOcupados(
+            idBarbero, Reserva.EstadoReserva.CANCELADA, desde.minusDays(1), hasta);
+        for (Object[] intervalo : intervalos) {
+            LocalDateTime inicio = (LocalDateTime) intervalo[0];
+            Integer duracion = (Integer) intervalo[1];
+            marcarOcupado(ocupados, inicio, duracion != null ? duracion : MINUTOS_SLOT);
+        }
+
+        // Ausencias aprobadas
+        List<SolicitudAusencia> ausencias = solicitudAusenciaRepository
+            .findByBarberoIdBarberoAndEstado(idBarbero, SolicitudAusencia.EstadoSolicitud.APROBADA);
+        for (SolicitudAusencia ausencia : ausencias) {
+            if (ausencia.getTipoAusencia() == SolicitudAusencia.TipoAusencia.HORAS_ESPECIFICAS) {
+                if (ausencia.getFecha() == null || ausencia.getHoraInicio() == null || ausencia.getHoraFin() == null) {
+                    continue;
+                }
+                LocalDateTime inicio = LocalDateTime.of(ausencia.getFecha(), alinear(ausencia.getHoraInicio()));
+                LocalDateTime fin = LocalDateTime.of(ausencia.getFecha(), ausencia.getHoraFin());
+                for (LocalDateTime t = inicio; t.isBefore(fin); t = t.plusMinutes(MINUTOS_SLOT)) {
+                    ocupados.add(t);
+                }
+            } else if (ausencia.getFechaInicio() != null && ausencia.getFechaFin() != null) {
+                LocalDate primerDia = max(ausencia.getFechaInicio(), desde.toLocalDate());
+                LocalDate ultimoDia = min(ausencia.getFechaFin(), hasta.toLocalDate());
+                for (LocalDate dia = primerDia; !dia.isAfter(ultimoDia); dia = dia.plusDays(1)) {
+                    ocupacion.dias.add(dia);
+                }
+            }
+        }
+
+        return ocupacion;
+    }
+
+    private void marcarOcupado(Set<LocalDateTime> ocupados, LocalDateTime inicio, int duracionMinutos) {
+        LocalDateTime primerTurno = LocalDateTime.of(inicio.toLocalDate(), alinear(inicio.toLocalTime()));
+        LocalDateTime fin = inicio.plusMinutes(duracionMinutos);
+        for (LocalDateTime t = primerTurno; t.isBefore(fin); t = t.plusMinutes(MINUTOS_SLOT)) {
+            ocupados.add(t);
+        }
+    }
+
+    private boolean cabeEnHorario(Barbero barbero, LocalTime horaInicio, int duracionMinutos) {
+        LocalTime horaFinServicio = horaInicio.plusMinutes(duracionMinutos);
+
+        if (horaFinServicio.isAfter(barbero.getHoraFin()) || horaFinServicio.isBefore(horaInicio)) {
+            return false;
+        }
+
+        if (barbero.getHoraInicioAlmuerzo() != null && barbero.getHoraFinAlmuerzo() != null) {
+            return !(horaInicio.isBefore(barbero.getHoraFinAlmuerzo()) &&
+                horaFinServicio.isAfter(barbero.getHoraInicioAlmuerzo()));
+        }
+
+        return true;
+    }
+
+    private LocalTime alinear(LocalTime hora) {
+        int minutos = hora.getHour() * 60 + hora.getMinute();
+        return LocalTime.of(0, 0).plusMinutes(minutos - (minutos % MINUTOS_SLOT));
+    }
+
+    /**
+     * Turnos de 15 minutos ocupados y días completos de ausencia
+     */
+    private static class Ocupacion {
+        final Set<LocalDateTime> turnos = new HashSet<>();
+        final Set<LocalDate> dias = new HashSet<>();
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,193 @@
+package com.pa.spring.prueba1.pa_prueba1.service.disponibilidad;
+
+import com.pa.spring.prueba1.pa_prueba1.config.ReservaConfigProperties;
+import com.pa.spring.prueba1.pa_prueba1.service.concurrencia.Transacciones;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Retenciones temporales de turnos mientras un cliente confirma su reserva.
+ *
+ * Al elegir un horario en reserva.html se retienen los turnos consecutivos que
+ * necesita el servicio durante {@code app.reserva.retencion-segundos}. Mientras
+ * dure la retención esos turnos no aparecen como disponibles para los demás y
+ * nadie más puede reservarlos; al confirmar, la reserva "convierte" la retención.
+ *
+ * Cada cliente tiene como máximo una retención: elegir otro horario libera la
+ * anterior. Las retenciones vencidas se ignoran al consultarlas y una tarea
+ * programada las elimina. Vive en memoria: no se comparte entre instancias.
+ */
+@Component
+public class RetencionTurnos {
+
+    private static final Logger log = LoggerFactory.getLogger(RetencionTurnos.class);
+
+    @Autowired
+    private ReservaConfigProperties config;
+
+    /** idBarbero -> horario retenido -> retención */
+    private final Map<Long, Map<LocalDateTime, Retencion>> porBarbero = new ConcurrentHashMap<>();
+
+    /** idCliente -> su retención actual */
+    private final Map<Long, Retencion> porCliente = new ConcurrentHashMap<>();
+
+    // ===== RETENER Y LIBERAR =====
+
+    /**
+     * Retiene los horarios para el cliente, liberando su retención anterior.
+     *
+     * @return la retención creada, o null si algún horario lo retiene otro cliente
+     */
+    public Retencion retener(Long idCliente, Long idBarbero, List<LocalDateTime> horarios) {
+        liberar(idCliente);
+
+        Map<LocalDateTime, Retencion> retenidos = porBarbero.computeIfAbsent(idBarbero, id -> new HashMap<>());
+        LocalDateTime ahora = LocalDateTime.now();
+
+        synchronized (retenidos) {
+            for (LocalDateTime horario : horarios) {
+                Retencion existente = retenidos.get(horario);
+                if (existente != null && existente.estaVigente(ahora) && !existente.idCliente.equals(idCliente)) {
+                    return null;
+                }
+            }
+
+            Retencion retencion = new Retencion(idCliente, idBarbero, new ArrayList<>(horarios),
+                ahora.plusSeconds(config.getRetencionSegundos()));
+            for (LocalDateTime horario : horarios) {
+                retenidos.put(horario, retencion);
+            }
+            porCliente.put(idCliente, retencion);
+            return retencion;
+        }
+    }
+
+    public void liberar(Long idCliente) {
+        Retencion retencion = porCliente.remove(idCliente);
+        if (retencion != null) {
+            quitar(retencion);
+        }
+    }
+
+    private void quitar(Retencion retencion) {
+        Map<LocalDateTime, Retencion> retenidos = porBarbero.get(retencion.idBarbero);
+        if (retenidos == null) {
+            return;
+        }
+        synchronized (retenidos) {
+            for (LocalDateTime horario : retencion.horarios) {
+                retenidos.remove(horario, retencion);
+            }
+        }
+    }
+
+    /**
+     * Libera la retención del cliente cuando confirme la transacción actual:
+     * la reserva ya bloqueó los turnos en la BD.
+     */
+    public void convertirAlConfirmar(Long idCliente) {
+        Transacciones.alConfirmar(() -> liberar(idCliente));
+    }
+
+    // ===== CONSULTAS =====
+
+    /**
+     * Indica si alguno de los horarios está retenido por un cliente distinto
+     * (idCliente null = cualquier cliente).
+     */
+    public boolean retenidoPorOtro(Long idBarbero, List<LocalDateTime> horarios, Long idCliente) {
+        Map<LocalDateTime, Retencion> retenidos = porBarbero.get(idBarbero);
+        if (retenidos == null) {
+            return false;
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        synchronized (retenidos) {
+            for (LocalDateTime horario : horarios) {
+                Retencion retencion = retenidos.get(horario);
+                if (retencion != null && retencion.estaVigente(ahora) && !retencion.idCliente.equals(idCliente)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indica si el servicio que empieza en ese horario pisa algún turno retenido
+     */
+    public boolean pisaRetencion(Long idBarbero, LocalDateTime inicio, int duracionMinutos) {
+        Map<LocalDateTime, Retencion> retenidos = porBarbero.get(idBarbero);
+        if (retenidos == null || retenidos.isEmpty()) {
+            return false;
+        }
+        return retenidoPorOtro(idBarbero, horariosDelServicio(inicio, duracionMinutos), null);
+    }
+
+    public static List<LocalDateTime> horariosDelServicio(LocalDateTime inicio, int duracionMinutos) {
+        int turnos = Math.max(1, (int) Math.ceil(duracionMinutos / (double) IndiceDisponibilidad.MINUTOS_SLOT));
+        List<LocalDateTime> horarios = new ArrayList<>(turnos);
+        for (int i = 0; i < turnos; i++) {
+            horarios.add(inicio.plusMinutes((long) IndiceDisponibilidad.MINUTOS_SLOT * i));
+        }
+        return horarios;
+    }
+
+    // ===== LIMPIEZA =====
+
+    @Scheduled(fixedDelayString = "${app.reserva.retencion-limpieza-ms:30000}")
+    public void eliminarVencidas() {
+        LocalDateTime ahora = LocalDateTime.now();
+        int eliminadas = 0;
+
+        for (Retencion retencion : new ArrayList<>(porCliente.values())) {
+            // remove(clave, valor): no toca una retención nueva creada entretanto por el mismo cliente
+            if (!retencion.estaVigente(ahora) && porCliente.remove(retencion.idCliente, retencion)) {
+                quitar(retencion);
+                eliminadas++;
+            }
+        }
+
+        if (eliminadas > 0) {
+            log.debug("Retenciones de turnos vencidas eliminadas: {}", eliminadas);
+        }
+    }
+
+    public static class Retencion {
+
+        private final Long idCliente;
+        private final Long idBarbero;
+        private final List<LocalDateTime> horarios;
+        private final LocalDateTime expira;
+
+        Retencion(Long idCliente, Long idBarbero, List<LocalDateTime> horarios, LocalDateTime expira) {
+            this.idCliente = idCliente;
+            this.idBarbero = idBarbero;
+            this.horarios = horarios;
+            this.expira = expira;
+        }
+
+        boolean estaVigente(LocalDateTime ahora) {
+            return expira.isAfter(ahora);
+        }
+
+        public List<LocalDateTime> getHorarios() {
+            return horarios;
+        }
+
+        public LocalDateTime getExpira() {
+            return expira;
+        }
+    }
+}
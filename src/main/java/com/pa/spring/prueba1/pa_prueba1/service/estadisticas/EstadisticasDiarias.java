@@ -0,0 +1,189 @@
+package com.pa.spring.prueba1.pa_prueba1.service.estadisticas;
+
+import com.pa.spring.prueba1.pa_prueba1.config.EstadisticasConfigProperties;
+import com.pa.spring.prueba1.pa_prueba1.dto.EstadisticaDia;
+import com.pa.spring.prueba1.pa_prueba1.dto.ServicioPeriodo;
+import com.pa.spring.prueba1.pa_prueba1.model.Reserva;
+import com.pa.spring.prueba1.pa_prueba1.repository.EstadisticasDiariasJdbcRepository;
+import com.pa.spring.prueba1.pa_prueba1.repository.ReservaRepository;
+import com.pa.spring.prueba1.pa_prueba1.service.concurrencia.BloqueoDistribuido;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resumen diario precalculado de las reservas de cada barbero, para que
+ * /barbero/estadisticas lea unas pocas filas por día en vez de todas las reservas
+ * del período.
+ *
+ * Cada cambio confirmado de una Reserva recalcula el día afectado (ver
+ * {@link EstadisticasDiariasListener}); los cambios de una misma transacción se
+ * agrupan y el día se recalcula una sola vez después del commit. Una tarea nocturna
+ * recalcula además una ventana completa de días por si algún recálculo falló.
+ */
+@Component
+public class EstadisticasDiarias {
+
+    private static final Logger log = LoggerFactory.getLogger(EstadisticasDiarias.class);
+
+    @Autowired
+    private EstadisticasDiariasJdbcRepository estadisticasRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private EstadisticasConfigProperties config;
+
+    @Autowired
+    private BloqueoDistribuido bloqueoDistribuido;
+
+    // ===== MANTENIMIENTO =====
+
+    /**
+     * Marca el día de un barbero para recalcularlo después del commit (o en el
+     * momento si no hay transacción).
+     */
+    public void registrarCambio(Long idBarbero, LocalDate dia) {
+        if (idBarbero == null || dia == null) {
+            return;
+        }
+        DiaBarbero clave = new DiaBarbero(idBarbero, dia);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recalcular(Set.of(clave));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<DiaBarbero> pendientes = (Set<DiaBarbero>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            Set<DiaBarbero> nuevos = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, nuevos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recalcular(nuevos);
+                }
+
+                @Override
+                public void afterCompletion(int estado) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(EstadisticasDiarias.this);
+                }
+            });
+            pendientes = nuevos;
+        }
+        pendientes.add(clave);
+    }
+
+    private void recalcular(Set<DiaBarbero> dias) {
+        for (DiaBarbero clave : dias) {
+            try {
+                estadisticasRepository.recalcular(clave.idBarbero(), clave.dia(), clave.dia().plusDays(1));
+            } catch (Exception e) {
+                // La reserva ya está confirmada: la reconciliación nocturna corregirá el día
+                log.warn("Error recalculando estadísticas del barbero {} del {}: {}",
+                    clave.idBarbero(), clave.dia(), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(cron = "${app.estadisticas.cron-reconciliacion:0 30 3 * * *}")
+    public void reconciliar() {
+        // Con varias instancias solo una recalcula la ventana
+        bloqueoDistribuido.ejecutar("estadisticas-reconciliacion", this::reconciliarVentana);
+    }
+
+    /**
+     * Recalcula todos los barberos en [hoy - atrás, hoy + adelante), mes a mes
+     * para no mantener una transacción larga sobre toda la ventana.
+     */
+    private void reconciliarVentana() {
+        long inicio = System.currentTimeMillis();
+        LocalDate hoy = LocalDate.now();
+        LocalDate desde = hoy.minusDays(config.getDiasReconciliacionAtras());
+        LocalDate hasta = hoy.plusDays(config.getDiasReconciliacionAdelante());
+        int filas = 0;
+
+        for (LocalDate tramo = desde; tramo.isBefore(hasta); ) {
+            LocalDate finTramo = tramo.plusMonths(1).isBefore(hasta) ? tramo.plusMonths(1) : hasta;
+            try {
+                filas += estadisticasRepository.recalcular(null, tramo, finTramo);
+            } catch (Exception e) {
+                log.warn("Error reconciliando estadísticas del {} al {}: {}", tramo, finTramo, e.getMessage());
+            }
+            tramo = finTramo;
+        }
+
+        log.debug("Estadísticas diarias reconciliadas del {} al {}: {} días de barbero en {} ms",
+            desde, hasta, filas, System.currentTimeMillis() - inicio);
+    }
+
+    // ===== CONSULTAS =====
+
+    /**
+     * Días con actividad del barbero entre desde y hasta (ambos incluidos)
+     */
+    public List<EstadisticaDia> listarDias(Long idBarbero, LocalDate desde, LocalDate hasta) {
+        return estadisticasRepository.listarDias(idBarbero, desde, hasta.plusDays(1));
+    }
+
+    /**
+     * Suma de los días entre desde y hasta (ambos incluidos). clientesDistintos
+     * queda en 0: no se puede sumar entre días (ver {@link #contarClientesAtendidos}).
+     */
+    public EstadisticaDia totales(Long idBarbero, LocalDate desde, LocalDate hasta) {
+        return sumar(listarDias(idBarbero, desde, hasta));
+    }
+
+    /**
+     * Clientes distintos con reservas completadas entre desde y hasta (ambos
+     * incluidos), contados sobre Reserva con el índice (idBarbero, fechaHoraTurno, estado)
+     */
+    public long contarClientesAtendidos(Long idBarbero, LocalDate desde, LocalDate hasta) {
+        return reservaRepository.contarClientesDistintos(idBarbero, Reserva.EstadoReserva.COMPLETADA,
+            desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay());
+    }
+
+    public List<ServicioPeriodo> listarServicios(Long idBarbero, LocalDate desde, LocalDate hasta) {
+        return estadisticasRepository.listarServicios(idBarbero, desde, hasta.plusDays(1));
+    }
+
+    /**
+     * Ingresos por mes entre el mes desde y el mes hasta (ambos incluidos)
+     */
+    public Map<YearMonth, Double> ingresosPorMes(Long idBarbero, YearMonth desde, YearMonth hasta) {
+        return estadisticasRepository.ingresosPorMes(idBarbero, desde.atDay(1), hasta.plusMonths(1).atDay(1));
+    }
+
+    public static EstadisticaDia sumar(List<EstadisticaDia> dias) {
+        int completadas = 0;
+        int canceladas = 0;
+        double ingresos = 0;
+        int[] franjas = new int[EstadisticaDia.FRANJAS.length];
+        for (EstadisticaDia dia : dias) {
+            completadas += dia.getCompletadas();
+            canceladas += dia.getCanceladas();
+            ingresos += dia.getIngresos();
+            for (int i = 0; i < franjas.length; i++) {
+                franjas[i] += dia.getFranjas()[i];
+            }
+        }
+        return new EstadisticaDia(null, completadas, canceladas, ingresos, 0, franjas);
+    }
+
+    private record DiaBarbero(Long idBarbero, LocalDate dia) {
+    }
+}
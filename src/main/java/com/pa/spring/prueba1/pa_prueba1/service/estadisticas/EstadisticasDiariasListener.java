@@ -0,0 +1,65 @@
+package com.pa.spring.prueba1.pa_prueba1.service.estadisticas;
+
+import com.pa.spring.prueba1.pa_prueba1.model.Reserva;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+
+/**
+ * Listener JPA de Reserva que avisa a {@link EstadisticasDiarias} de los días que
+ * hay que recalcular. Si la reserva cambia de barbero o de fecha se recalculan
+ * el día anterior y el nuevo, por eso al cargarla se guarda cómo estaba.
+ *
+ * Como {@link com.pa.spring.prueba1.pa_prueba1.service.disponibilidad.IndiceDisponibilidadListener},
+ * lo instancia el contenedor de Spring.
+ */
+public class EstadisticasDiariasListener {
+
+    @Autowired(required = false)
+    private EstadisticasDiarias estadisticas;
+
+    @PostLoad
+    public void reservaCargada(Reserva reserva) {
+        recordarEstado(reserva);
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void reservaGuardada(Reserva reserva) {
+        if (estadisticas != null) {
+            registrar(reserva.getIdBarberoCargado(), reserva.getFechaHoraTurnoCargada());
+            registrar(idBarbero(reserva), reserva.getFechaHoraTurno());
+        }
+        recordarEstado(reserva);
+    }
+
+    @PostRemove
+    public void reservaEliminada(Reserva reserva) {
+        if (estadisticas != null) {
+            registrar(reserva.getIdBarberoCargado(), reserva.getFechaHoraTurnoCargada());
+            registrar(idBarbero(reserva), reserva.getFechaHoraTurno());
+        }
+    }
+
+    private void registrar(Long idBarbero, LocalDateTime fechaHora) {
+        if (idBarbero != null && fechaHora != null) {
+            estadisticas.registrarCambio(idBarbero, fechaHora.toLocalDate());
+        }
+    }
+
+    private void recordarEstado(Reserva reserva) {
+        reserva.setIdBarberoCargado(idBarbero(reserva));
+        reserva.setFechaHoraTurnoCargada(reserva.getFechaHoraTurno());
+    }
+
+    private Long idBarbero(Reserva reserva) {
+        // Con la relación LAZY el id sale del proxy sin inicializarlo
+        return reserva.getBarbero() != null ? reserva.getBarbero().getIdBarbero() : null;
+    }
+}
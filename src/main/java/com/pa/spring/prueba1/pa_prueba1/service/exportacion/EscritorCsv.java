@@ -0,0 +1,103 @@
+package com.pa.spring.prueba1.pa_prueba1.service.exportacion;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Escribe CSV (RFC 4180) en UTF-8 con BOM, para que Excel abra bien las tildes.
+ *
+ * Solo mantiene el búfer del writer: las filas se escriben según llegan y el
+ * búfer se vuelca a la respuesta cuando se llena.
+ */
+class EscritorCsv {
+
+    private static final DateTimeFormatter FORMATO_FECHA_HORA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final Writer writer;
+    private boolean inicioDeLinea = true;
+    private long filas;
+
+    EscritorCsv(OutputStream salida) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), 16 * 1024);
+        escribir("\uFEFF");
+    }
+
+    EscritorCsv texto(String valor) {
+        if (valor == null) {
+            return celda("");
+        }
+        // Evita que Excel interprete el texto como fórmula (inyección CSV)
+        if (!valor.isEmpty() && "=+-@\t\r".indexOf(valor.charAt(0)) >= 0) {
+            valor = "'" + valor;
+        }
+        if (valor.contains(",") || valor.contains("\"") || valor.contains("\n") || valor.contains("\r")) {
+            valor = "\"" + valor.replace("\"", "\"\"") + "\"";
+        }
+        return celda(valor);
+    }
+
+    EscritorCsv numero(Number valor) {
+        return celda(valor != null ? valor.toString() : "");
+    }
+
+    EscritorCsv importe(double valor) {
+        return celda(String.format(Locale.ROOT, "%.2f", valor));
+    }
+
+    EscritorCsv fechaHora(LocalDateTime valor) {
+        return celda(valor != null ? valor.format(FORMATO_FECHA_HORA) : "");
+    }
+
+    EscritorCsv cabecera(String... columnas) {
+        for (String columna : columnas) {
+            texto(columna);
+        }
+        return finDeFila();
+    }
+
+    EscritorCsv finDeFila() {
+        escribir("\r\n");
+        inicioDeLinea = true;
+        filas++;
+        return this;
+    }
+
+    /** Filas escritas, cabecera incluida */
+    long getFilas() {
+        return filas;
+    }
+
+    void cerrar() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private EscritorCsv celda(String valor) {
+        if (!inicioDeLinea) {
+            escribir(",");
+        }
+        escribir(valor);
+        inicioDeLinea = false;
+        return this;
+    }
+
+    private void escribir(String valor) {
+        try {
+            writer.write(valor);
+        } catch (IOException e) {
+            // Normalmente el cliente cerró la descarga
+            throw new UncheckedIOException(e);
+        }
+    }
+}
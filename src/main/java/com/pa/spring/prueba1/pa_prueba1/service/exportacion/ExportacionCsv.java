@@ -0,0 +1,137 @@
+package com.pa.spring.prueba1.pa_prueba1.service.exportacion;
+
+import com.pa.spring.prueba1.pa_prueba1.repository.ExportacionJdbcRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Exportaciones CSV del admin: reservas, turnos e ingresos por barbero entre dos
+ * fechas (ambas incluidas).
+ *
+ * Cada fila se escribe en la salida según la entrega la base de datos (ver
+ * {@link ExportacionJdbcRepository}), sin pasar por entidades ni listas: la memoria
+ * no depende del tamaño del rango.
+ */
+@Service
+public class ExportacionCsv {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportacionCsv.class);
+
+    @Autowired
+    private ExportacionJdbcRepository exportacionRepository;
+
+    /**
+     * @return número de reservas exportadas
+     */
+    public long exportarReservas(LocalDate desde, LocalDate hasta, OutputStream salida) {
+        validarRango(desde, hasta);
+        long inicio = System.currentTimeMillis();
+        EscritorCsv csv = new EscritorCsv(salida);
+        csv.cabecera("id", "turno", "creada", "estado", "cliente", "correo", "telefono",
+            "id_barbero", "barbero", "servicio", "precio", "comentarios");
+
+        exportacionRepository.recorrerReservas(desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay(), rs -> {
+            csv.numero(rs.getLong(1))
+                .fechaHora(fechaHora(rs, 2))
+                .fechaHora(fechaHora(rs, 3))
+                .texto(rs.getString(4))
+                .texto(rs.getString(5))
+                .texto(rs.getString(6))
+                .texto(rs.getString(7))
+                .numero((Number) rs.getObject(8))
+                .texto(nombreCompleto(rs.getString(9), rs.getString(10)))
+                .texto(rs.getString(11))
+                .numero((Number) rs.getObject(12))
+                .texto(rs.getString(13))
+                .finDeFila();
+        });
+
+        return terminar(csv, "reservas", desde, hasta, inicio);
+    }
+
+    /**
+     * @param idBarbero barbero a exportar, o null para todos
+     * @return número de turnos exportados
+     */
+    public long exportarTurnos(LocalDate desde, LocalDate hasta, Long idBarbero, OutputStream salida) {
+        validarRango(desde, hasta);
+        long inicio = System.currentTimeMillis();
+        EscritorCsv csv = new EscritorCsv(salida);
+        csv.cabecera("id", "fecha_hora", "estado", "id_barbero", "barbero");
+
+        exportacionRepository.recorrerTurnos(desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay(), idBarbero, rs -> {
+            csv.numero(rs.getLong(1))
+                .fechaHora(fechaHora(rs, 2))
+                .texto(rs.getString(3))
+                .numero((Number) rs.getObject(4))
+                .texto(nombreCompleto(rs.getString(5), rs.getString(6)))
+                .finDeFila();
+        });
+
+        return terminar(csv, "turnos", desde, hasta, inicio);
+    }
+
+    /**
+     * @return número de barberos exportados
+     */
+    public long exportarIngresosPorBarbero(LocalDate desde, LocalDate hasta, OutputStream salida) {
+        validarRango(desde, hasta);
+        long inicio = System.currentTimeMillis();
+        EscritorCsv csv = new EscritorCsv(salida);
+        csv.cabecera("id_barbero", "barbero", "reservas", "completadas", "canceladas", "ingresos");
+
+        exportacionRepository.recorrerIngresosPorBarbero(desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay(), rs -> {
+            csv.numero(rs.getLong(1))
+                .texto(nombreCompleto(rs.getString(2), rs.getString(3)))
+                .numero(rs.getLong(4))
+                .numero(rs.getLong(5))
+                .numero(rs.getLong(6))
+                .importe(rs.getDouble(7))
+                .finDeFila();
+        });
+
+        return terminar(csv, "ingresos por barbero", desde, hasta, inicio);
+    }
+
+    /**
+     * Comprueba el rango antes de empezar a escribir la respuesta
+     */
+    public void validarRango(LocalDate desde, LocalDate hasta) {
+        if (desde == null || hasta == null) {
+            throw new IllegalArgumentException("Debe indicar la fecha inicial y la final");
+        }
+        if (hasta.isBefore(desde)) {
+            throw new IllegalArgumentException("La fecha final no puede ser anterior a la inicial");
+        }
+    }
+
+    private long terminar(EscritorCsv csv, String nombre, LocalDate desde, LocalDate hasta, long inicio) {
+        csv.cerrar();
+        long filas = csv.getFilas() - 1;
+        log.debug("Exportación de {} del {} al {}: {} filas en {} ms",
+            nombre, desde, hasta, filas, System.currentTimeMillis() - inicio);
+        return filas;
+    }
+
+    private static LocalDateTime fechaHora(ResultSet rs, int columna) throws SQLException {
+        Timestamp valor = rs.getTimestamp(columna);
+        return valor != null ? valor.toLocalDateTime() : null;
+    }
+
+    private static String nombreCompleto(String nombre, String apellido) {
+        if (nombre == null) {
+            return null;
+        }
+        return apellido != null && !apellido.isBlank() ? nombre + " " + apellido : nombre;
+    }
+}
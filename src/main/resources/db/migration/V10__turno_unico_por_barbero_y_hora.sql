@@ -0,0 +1,30 @@
+-- Un solo turno por barbero y hora. La generación masiva concurrente y la
+-- materialización de turnos virtuales podían crear filas repetidas, y con ellas
+-- el UPDATE condicional de la reserva marcaba más filas de las pedidas.
+
+-- De cada grupo repetido se conserva el primer turno ocupado o, si no hay, el primero
+create temporary table turno_duplicado as
+select t.idTurno, g.idConservado
+from Turno t
+join (select idBarbero, fechaHora,
+             coalesce(min(case when estado = 'NO_DISPONIBLE' then idTurno end), min(idTurno)) as idConservado
+      from Turno
+      where idBarbero is not null and fechaHora is not null
+      group by idBarbero, fechaHora
+      having count(*) > 1) g
+  on g.idBarbero = t.idBarbero and g.fechaHora = t.fechaHora
+where t.idTurno <> g.idConservado;
+
+-- Las reservas que apuntaban a un duplicado pasan al turno conservado
+update Reserva r
+join turno_duplicado d on d.idTurno = r.idTurno
+set r.idTurno = d.idConservado;
+
+delete t
+from Turno t
+join turno_duplicado d on d.idTurno = t.idTurno;
+
+drop temporary table turno_duplicado;
+
+alter table Turno
+    add constraint uk_turno_barbero_fecha unique (idBarbero, fechaHora);
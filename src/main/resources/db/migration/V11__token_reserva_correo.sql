@@ -0,0 +1,7 @@
+-- Reserva de envío con dueño: cada lote del despachador marca sus correos con un
+-- token y solo quien lo tiene puede renovar la reserva o registrar el resultado.
+-- version: bloqueo optimista de CorreoPendiente.
+
+alter table correo_pendiente
+    add column token_reserva varchar(36),
+    add column version bigint not null default 0;
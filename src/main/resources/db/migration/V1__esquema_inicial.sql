@@ -0,0 +1,231 @@
+-- Esquema inicial: las tablas tal y como las dejaba ddl-auto=update en la versión
+-- anterior a Flyway. Las bases de datos existentes se marcan con esta versión
+-- (baseline) y no lo ejecutan; todo lo añadido después va en V2 en adelante.
+
+    create table Administrador (
+        nivelAcceso integer,
+        id bigint not null auto_increment,
+        correo varchar(255) not null,
+        nombre varchar(255),
+        password varchar(255) not null,
+        usuario varchar(255) not null,
+        primary key (id)
+    ) engine=InnoDB;
+
+    create table administrador_roles (
+        administrador_id bigint not null,
+        rol_id bigint not null,
+        usuario_id bigint not null,
+        primary key (administrador_id, rol_id, usuario_id)
+    ) engine=InnoDB;
+
+    create table barbero (
+        activo bit not null,
+        autenticacion_dos_pasos bit not null,
+        duracion_turno integer,
+        experiencia_anios integer,
+        fecha_ingreso date,
+        fecha_nacimiento date,
+        hora_fin time(6),
+        hora_fin_almuerzo time(6),
+        hora_inicio time(6),
+        hora_inicio_almuerzo time(6),
+        notif_cancelaciones bit not null,
+        notif_recordatorios bit not null,
+        notif_reservas bit not null,
+        fecha_desvinculacion datetime(6),
+        idBarbero bigint not null auto_increment,
+        ultima_sesion datetime(6),
+        dia_libre enum ('FRIDAY','MONDAY','SATURDAY','SUNDAY','THURSDAY','TUESDAY','WEDNESDAY'),
+        telefono varchar(20),
+        documento varchar(50),
+        rol varchar(50) not null,
+        apellido varchar(100),
+        especialidad varchar(100),
+        nombre varchar(100) not null,
+        email varchar(150) not null,
+        direccion varchar(200),
+        foto_perfil varchar(500),
+        motivo_desvinculacion varchar(500),
+        certificaciones TEXT,
+        password varchar(255) not null,
+        primary key (idBarbero)
+    ) engine=InnoDB;
+
+    create table Cliente (
+        activo bit not null,
+        idCliente bigint not null auto_increment,
+        clave varchar(255) not null,
+        correo varchar(255) not null,
+        nombre varchar(255) not null,
+        rol varchar(255),
+        telefono varchar(255),
+        primary key (idCliente)
+    ) engine=InnoDB;
+
+    create table CorteDeCabello (
+        activo bit,
+        duracion integer,
+        precio float(53),
+        id bigint not null auto_increment,
+        nombre varchar(255),
+        primary key (id)
+    ) engine=InnoDB;
+
+    create table notificaciones (
+        leida bit,
+        fecha_creacion datetime(6),
+        id_barbero bigint,
+        id_notificacion bigint not null auto_increment,
+        id_reserva bigint,
+        mensaje TEXT,
+        tipo enum ('AUSENCIA_APROBADA','AUSENCIA_RECHAZADA','NUEVA_RESERVA','RECORDATORIO','RESERVA_CANCELADA','RESERVA_CONFIRMADA','SISTEMA','VALORACION'),
+        titulo varchar(255),
+        primary key (id_notificacion)
+    ) engine=InnoDB;
+
+    create table peticiones (
+        fecha date not null,
+        fecha_creacion date not null,
+        fecha_respuesta date,
+        hora_fin time(6),
+        hora_inicio time(6),
+        idBarbero bigint,
+        idPeticion bigint not null auto_increment,
+        motivo varchar(500) not null,
+        respuesta_admin varchar(500),
+        estado enum ('APROBADA','PENDIENTE','RECHAZADA') not null,
+        tipo enum ('AUSENCIA','CAMBIO_HORARIO') not null,
+        primary key (idPeticion)
+    ) engine=InnoDB;
+
+    create table Reserva (
+        fechaHoraReserva datetime(6),
+        fechaHoraTurno datetime(6),
+        idBarbero bigint,
+        idCliente bigint,
+        idCorte bigint,
+        idReserva bigint not null auto_increment,
+        idTurno bigint,
+        comentarios varchar(100),
+        estado enum ('CANCELADA','COMPLETADA','PENDIENTE'),
+        primary key (idReserva)
+    ) engine=InnoDB;
+
+    create table roles (
+        id bigint not null auto_increment,
+        nombre varchar(255) not null,
+        primary key (id)
+    ) engine=InnoDB;
+
+    create table SolicitudAusencia (
+        fecha date,
+        fechaFin date,
+        fechaInicio date,
+        horaFin time(6),
+        horaInicio time(6),
+        fechaCreacion datetime(6),
+        fechaRespuesta datetime(6),
+        idSolicitud bigint not null auto_increment,
+        id_barbero bigint not null,
+        motivo varchar(500),
+        motivoRechazo varchar(500),
+        estado enum ('APROBADA','PENDIENTE','RECHAZADA'),
+        tipoAusencia enum ('DIA_COMPLETO','HORAS_ESPECIFICAS') not null,
+        primary key (idSolicitud)
+    ) engine=InnoDB;
+
+    create table Turno (
+        fechaHora datetime(6),
+        idBarbero bigint,
+        idTurno bigint not null auto_increment,
+        estado enum ('DISPONIBLE','NO_DISPONIBLE'),
+        primary key (idTurno)
+    ) engine=InnoDB;
+
+    create table usuarios (
+        activo bit not null,
+        id bigint not null auto_increment,
+        email varchar(255),
+        password varchar(255),
+        username varchar(255),
+        primary key (id)
+    ) engine=InnoDB;
+
+    alter table Administrador
+       add constraint UK_r2ftq2dbfnbciti0103d6clbo unique (correo);
+
+    alter table Administrador
+       add constraint UK_lyat7nhg77eki0rh1ddl1cb1b unique (usuario);
+
+    alter table barbero
+       add constraint UK_lodtbfbg0v8vrk5xqxq8l59gc unique (documento);
+
+    alter table barbero
+       add constraint UK_jivanrey0iep7pd2g5097hmko unique (email);
+
+    alter table Cliente
+       add constraint UK_dgau9dfddwsd9jwi5i3kygt2x unique (correo);
+
+    alter table roles
+       add constraint UK_ldv0v52e0udsh2h1rs0r0gw1n unique (nombre);
+
+    alter table administrador_roles
+       add constraint FK20bacl4cvuvgsm72o3cxdgi94
+       foreign key (rol_id)
+       references roles (id);
+
+    alter table administrador_roles
+       add constraint FKnx6k3skab59pbirmnppeg2rtb
+       foreign key (administrador_id)
+       references Administrador (id);
+
+    alter table administrador_roles
+       add constraint FK8dpk9wea31h6pub93jcsy6aug
+       foreign key (usuario_id)
+       references usuarios (id);
+
+    alter table notificaciones
+       add constraint FKp5nmixtpmugi7kax1p119bcuv
+       foreign key (id_barbero)
+       references barbero (idBarbero);
+
+    alter table notificaciones
+       add constraint FKlnroqcmrfcuwbjf33mi55q46c
+       foreign key (id_reserva)
+       references Reserva (idReserva);
+
+    alter table peticiones
+       add constraint FKgap3yntumqt7hpkwf2u53b85q
+       foreign key (idBarbero)
+       references barbero (idBarbero);
+
+    alter table Reserva
+       add constraint FKfiqxa5j7lmrvjr0o5cv7a00xf
+       foreign key (idBarbero)
+       references barbero (idBarbero);
+
+    alter table Reserva
+       add constraint FKiwix5auho9ugkkli7jd257y1k
+       foreign key (idCliente)
+       references Cliente (idCliente);
+
+    alter table Reserva
+       add constraint FK2j507hdrwno7doq5r9yhf8lsg
+       foreign key (idCorte)
+       references CorteDeCabello (id);
+
+    alter table Reserva
+       add constraint FK1hybhafque7qofg30hb253r2k
+       foreign key (idTurno)
+       references Turno (idTurno);
+
+    alter table SolicitudAusencia
+       add constraint FK12ux6ltvi86mcwxqwplsvd0m8
+       foreign key (id_barbero)
+       references barbero (idBarbero);
+
+    alter table Turno
+       add constraint FKbwrdl14w49nrjo0cnpt67kv41
+       foreign key (idBarbero)
+       references barbero (idBarbero);
@@ -0,0 +1,39 @@
+-- Índices para las consultas frecuentes de TurnoRepository, ReservaRepository y
+-- NotificacionRepository. IndicesConsultasTest comprueba que cada consulta tenga uno.
+
+-- Turnos de un barbero por rango de fechas y estado (agenda, disponibilidad, generación).
+-- Cubre las consultas que solo leen fechaHora/estado sin tocar la tabla.
+create index idx_turno_barbero_fecha_estado
+    on Turno (idBarbero, fechaHora, estado);
+
+-- Turnos de todos los barberos por estado y rango (filtros semanales del admin)
+create index idx_turno_estado_fecha
+    on Turno (estado, fechaHora);
+
+create index idx_turno_fecha
+    on Turno (fechaHora);
+
+-- Reservas de un barbero por rango de fechas y estado (panel del barbero, disponibilidad)
+create index idx_reserva_barbero_fecha_estado
+    on Reserva (idBarbero, fechaHoraTurno, estado);
+
+-- Reservas de un cliente por estado (mis reservas, límite de reservas pendientes)
+create index idx_reserva_cliente_estado_fecha
+    on Reserva (idCliente, estado, fechaHoraTurno);
+
+-- Reservas por estado en una ventana de tiempo (recordatorios, contadores del admin)
+create index idx_reserva_estado_fecha
+    on Reserva (estado, fechaHoraTurno);
+
+create index idx_reserva_fecha
+    on Reserva (fechaHoraTurno);
+
+-- Notificaciones de un barbero: no leídas, por tipo y la lista completa, ya ordenadas por fecha
+create index idx_notificacion_barbero_leida_fecha
+    on notificaciones (id_barbero, leida, fecha_creacion);
+
+create index idx_notificacion_barbero_tipo_fecha
+    on notificaciones (id_barbero, tipo, fecha_creacion);
+
+create index idx_notificacion_barbero_fecha
+    on notificaciones (id_barbero, fecha_creacion);
@@ -0,0 +1,60 @@
+-- Estadísticas diarias por barbero (resumen precalculado para /barbero/estadisticas).
+-- Las mantiene EstadisticasDiarias: recalcula el día de cada reserva que cambia y
+-- una tarea nocturna reconcilia una ventana de días completa.
+
+create table estadistica_barbero_dia (
+    id_barbero bigint not null,
+    dia date not null,
+    completadas integer not null,
+    canceladas integer not null,
+    ingresos double not null,
+    clientes_distintos integer not null,
+    -- Reservas activas (pendientes o completadas) por franja horaria de inicio
+    franja_8_10 integer not null,
+    franja_10_12 integer not null,
+    franja_12_14 integer not null,
+    franja_14_16 integer not null,
+    franja_16_18 integer not null,
+    franja_18_20 integer not null,
+    franja_otra integer not null,
+    actualizado datetime(6) not null,
+    primary key (id_barbero, dia)
+) engine=InnoDB;
+
+-- Reservas completadas e ingresos por servicio
+create table estadistica_barbero_dia_servicio (
+    id_barbero bigint not null,
+    dia date not null,
+    id_corte bigint not null,
+    cantidad integer not null,
+    ingresos double not null,
+    primary key (id_barbero, dia, id_corte)
+) engine=InnoDB;
+
+-- Carga inicial con todo el histórico (mismas consultas que EstadisticasDiariasJdbcRepository)
+insert into estadistica_barbero_dia (id_barbero, dia, completadas, canceladas, ingresos, clientes_distintos,
+        franja_8_10, franja_10_12, franja_12_14, franja_14_16, franja_16_18, franja_18_20, franja_otra, actualizado)
+select r.idBarbero, date(r.fechaHoraTurno),
+       sum(r.estado = 'COMPLETADA'),
+       sum(r.estado = 'CANCELADA'),
+       coalesce(sum(case when r.estado = 'COMPLETADA' then c.precio end), 0),
+       count(distinct case when r.estado = 'COMPLETADA' then r.idCliente end),
+       sum(r.estado in ('PENDIENTE', 'COMPLETADA') and hour(r.fechaHoraTurno) between 8 and 9),
+       sum(r.estado in ('PENDIENTE', 'COMPLETADA') and hour(r.fechaHoraTurno) between 10 and 11),
+       sum(r.estado in ('PENDIENTE', 'COMPLETADA') and hour(r.fechaHoraTurno) between 12 and 13),
+       sum(r.estado in ('PENDIENTE', 'COMPLETADA') and hour(r.fechaHoraTurno) between 14 and 15),
+       sum(r.estado in ('PENDIENTE', 'COMPLETADA') and hour(r.fechaHoraTurno) between 16 and 17),
+       sum(r.estado in ('PENDIENTE', 'COMPLETADA') and hour(r.fechaHoraTurno) between 18 and 19),
+       sum(r.estado in ('PENDIENTE', 'COMPLETADA') and (hour(r.fechaHoraTurno) < 8 or hour(r.fechaHoraTurno) >= 20)),
+       now(6)
+from Reserva r
+left join CorteDeCabello c on c.id = r.idCorte
+where r.idBarbero is not null and r.fechaHoraTurno is not null
+group by r.idBarbero, date(r.fechaHoraTurno);
+
+insert into estadistica_barbero_dia_servicio (id_barbero, dia, id_corte, cantidad, ingresos)
+select r.idBarbero, date(r.fechaHoraTurno), r.idCorte, count(*), coalesce(sum(c.precio), 0)
+from Reserva r
+join CorteDeCabello c on c.id = r.idCorte
+where r.estado = 'COMPLETADA' and r.idBarbero is not null and r.fechaHoraTurno is not null
+group by r.idBarbero, date(r.fechaHoraTurno), r.idCorte;
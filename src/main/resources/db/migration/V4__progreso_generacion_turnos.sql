@@ -0,0 +1,9 @@
+-- Hasta qué día tiene generados sus turnos cada barbero (GeneradorTurnosProgramado).
+
+create table progreso_generacion_turnos (
+    generado_hasta date,
+    turnos_generados integer,
+    id_barbero bigint not null,
+    ultima_ejecucion datetime(6),
+    primary key (id_barbero)
+) engine=InnoDB;
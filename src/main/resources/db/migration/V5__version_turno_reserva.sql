@@ -0,0 +1,8 @@
+-- Columna de versión para el bloqueo optimista (@Version) de Turno y Reserva.
+-- Las filas existentes empiezan en 0.
+
+alter table Turno
+    add column version bigint not null default 0;
+
+alter table Reserva
+    add column version bigint not null default 0;
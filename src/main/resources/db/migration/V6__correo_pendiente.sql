@@ -0,0 +1,20 @@
+-- Bandeja de salida de correos (BandejaSalidaCorreos / DespachadorCorreos).
+
+create table correo_pendiente (
+    html bit not null,
+    intentos integer not null,
+    fecha_creacion datetime(6) not null,
+    fecha_envio datetime(6),
+    id_correo bigint not null,
+    proximo_intento datetime(6) not null,
+    estado enum ('ENVIADO','ENVIANDO','FALLIDO','PENDIENTE') not null,
+    ultimo_error varchar(500),
+    asunto varchar(255) not null,
+    cuerpo MEDIUMTEXT not null,
+    destinatario varchar(255) not null,
+    primary key (id_correo)
+) engine=InnoDB;
+
+-- Correos pendientes cuyo próximo intento ya llegó, en orden
+create index idx_correo_pendiente_estado_proximo
+    on correo_pendiente (estado, proximo_intento);
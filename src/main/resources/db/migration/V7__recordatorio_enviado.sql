@@ -0,0 +1,13 @@
+-- Recordatorios ya enviados: la clave única impide mandar dos veces el mismo
+-- recordatorio de una reserva aunque lo intenten dos instancias a la vez.
+
+create table recordatorio_enviado (
+    fecha_envio datetime(6) not null,
+    id_recordatorio bigint not null,
+    id_reserva bigint not null,
+    tipo enum ('HORAS_2','HORAS_24') not null,
+    primary key (id_recordatorio)
+) engine=InnoDB;
+
+alter table recordatorio_enviado
+    add constraint uk_recordatorio_reserva_tipo unique (id_reserva, tipo);
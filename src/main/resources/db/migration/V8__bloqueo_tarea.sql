@@ -0,0 +1,10 @@
+-- Bloqueos con caducidad de las tareas programadas (BloqueoDistribuido): una
+-- fila por tarea con la instancia que la ejecuta y hasta cuándo.
+
+create table bloqueo_tarea (
+    bloqueado_desde datetime(6) not null,
+    bloqueado_hasta datetime(6) not null,
+    nombre varchar(100) not null,
+    propietario varchar(150) not null,
+    primary key (nombre)
+) engine=InnoDB;
@@ -0,0 +1,8 @@
+-- Contadores de los @TableGenerator (notificaciones, correos, recordatorios).
+-- SecuenciasIdJdbcRepository los sube al arrancar por encima del mayor ID existente.
+
+create table secuencia_id (
+    siguiente bigint,
+    nombre varchar(255) not null,
+    primary key (nombre)
+) engine=InnoDB;
@@ -0,0 +1,127 @@
+package com.pa.spring.prueba1.pa_prueba1.repository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Compara contra un MySQL real las dos formas de pedir las reservas de un día
+ * de un barbero:
+ *
+ *  1. DATE(fechaHoraTurno) = ? (como hacían contarReservasHoyPorEstado,
+ *     obtenerReservasPorFecha y obtenerReservasDeHoy)
+ *  2. fechaHoraTurno >= ? AND fechaHoraTurno < ? (rango del día, forma actual)
+ *
+ * Siembra una tabla propia con el mismo índice que Reserva (idBarbero,
+ * fechaHoraTurno, estado) y mide con los contadores Handler_read_* cuántas
+ * entradas del índice recorre cada consulta, además del tiempo medio.
+ * No es un test (no lo ejecuta surefire); se lanza a mano:
+ * {@code ...ConsultasPorDiaBenchmark jdbc:mysql://localhost:3306/barberia usuario clave [barberos] [dias]}
+ */
+public class ConsultasPorDiaBenchmark {
+
+    private static final String TABLA = "benchmark_reservas_dia";
+
+    private static final int RESERVAS_POR_DIA = 24;
+
+    private static final int REPETICIONES = 200;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.out.println("Uso: ConsultasPorDiaBenchmark <url-jdbc> <usuario> <clave> [barberos] [dias]");
+            return;
+        }
+        int barberos = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        int dias = args.length > 4 ? Integer.parseInt(args[4]) : 365;
+        LocalDate primerDia = LocalDate.now().minusDays(dias / 2);
+        LocalDate dia = LocalDate.now();
+
+        try (Connection conexion = DriverManager.getConnection(args[0], args[1], args[2])) {
+            sembrar(conexion, barberos, dias, primerDia);
+            System.out.printf("%d reservas (%d barberos x %d días x %d al día)%n",
+                (long) barberos * dias * RESERVAS_POR_DIA, barberos, dias, RESERVAS_POR_DIA);
+
+            medir(conexion, "DATE(fechaHoraTurno) = ?",
+                "SELECT COUNT(*) FROM " + TABLA + " WHERE idBarbero = ? AND estado = 'PENDIENTE' " +
+                "AND DATE(fechaHoraTurno) = ?", dia, false);
+            medir(conexion, "rango [inicio, fin)     ",
+                "SELECT COUNT(*) FROM " + TABLA + " WHERE idBarbero = ? AND estado = 'PENDIENTE' " +
+                "AND fechaHoraTurno >= ? AND fechaHoraTurno < ?", dia, true);
+
+            try (Statement st = conexion.createStatement()) {
+                st.execute("DROP TABLE " + TABLA);
+            }
+        }
+    }
+
+    private static void medir(Connection conexion, String nombre, String sql, LocalDate dia,
+                              boolean rango) throws Exception {
+        try (PreparedStatement ps = conexion.prepareStatement(sql);
+             Statement st = conexion.createStatement()) {
+            ps.setLong(1, 1);
+            if (rango) {
+                ps.setTimestamp(2, Timestamp.valueOf(dia.atStartOfDay()));
+                ps.setTimestamp(3, Timestamp.valueOf(dia.plusDays(1).atStartOfDay()));
+            } else {
+                ps.setObject(2, dia);
+            }
+
+            // Contadores de una sola ejecución
+            st.execute("FLUSH STATUS");
+            long resultado;
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                resultado = rs.getLong(1);
+            }
+            long leidas = filasLeidas(st);
+
+            long inicio = System.nanoTime();
+            for (int i = 0; i < REPETICIONES; i++) {
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                }
+            }
+            double msPorConsulta = (System.nanoTime() - inicio) / 1_000_000.0 / REPETICIONES;
+
+            System.out.printf("%s: %3d reservas, %7d entradas leídas, %.3f ms por consulta%n",
+                nombre, resultado, leidas, msPorConsulta);
+        }
+    }
+
+    private static long filasLeidas(Statement st) throws Exception {
+        long total = 0;
+        try (ResultSet rs = st.executeQuery("SHOW SESSION STATUS LIKE 'Handler_read%'")) {
+            while (rs.next()) {
+                total += rs.getLong(2);
+            }
+        }
+        return total;
+    }
+
+    private static void sembrar(Connection conexion, int barberos, int dias, LocalDate primerDia) throws Exception {
+        int reservas = dias * RESERVAS_POR_DIA;
+        try (Statement st = conexion.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS " + TABLA);
+            st.execute("CREATE TABLE " + TABLA + " (idReserva BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "idBarbero BIGINT NOT NULL, fechaHoraTurno DATETIME(6) NOT NULL, estado VARCHAR(20) NOT NULL, " +
+                "INDEX idx_barbero_fecha_estado (idBarbero, fechaHoraTurno, estado))");
+            st.execute("SET SESSION cte_max_recursion_depth = " + Math.max(1000, Math.max(reservas, barberos)));
+
+            // Cada barbero: RESERVAS_POR_DIA reservas cada 30 minutos desde las 8:00, todos los días
+            LocalDateTime inicio = primerDia.atTime(8, 0);
+            st.execute("INSERT INTO " + TABLA + " (idBarbero, fechaHoraTurno, estado) " +
+                "WITH RECURSIVE b (id) AS (SELECT 1 UNION ALL SELECT id + 1 FROM b WHERE id < " + barberos + "), " +
+                "n (i) AS (SELECT 0 UNION ALL SELECT i + 1 FROM n WHERE i < " + (reservas - 1) + ") " +
+                "SELECT b.id, TIMESTAMP('" + Timestamp.valueOf(inicio) + "') " +
+                "+ INTERVAL (n.i DIV " + RESERVAS_POR_DIA + ") DAY " +
+                "+ INTERVAL ((n.i MOD " + RESERVAS_POR_DIA + ") * 30) MINUTE, " +
+                "IF(n.i MOD 5 = 0, 'CANCELADA', 'PENDIENTE') FROM b CROSS JOIN n");
+            st.execute("ANALYZE TABLE " + TABLA);
+        }
+    }
+}
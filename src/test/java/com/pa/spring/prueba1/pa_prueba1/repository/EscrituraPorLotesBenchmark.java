@@ -0,0 +1,107 @@
+package com.pa.spring.prueba1.pa_prueba1.repository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Compara contra un MySQL real las formas de escribir en bloque que usa la
+ * aplicación antes y después de activar los lotes JDBC:
+ *
+ *  1. una sentencia por fila (lo que hace Hibernate con IDENTITY o sin batch_size)
+ *  2. lotes JDBC sin rewriteBatchedStatements
+ *  3. lotes JDBC con rewriteBatchedStatements=true (configuración actual)
+ *
+ * para INSERT y para UPDATE versionados. Trabaja sobre una tabla temporal propia.
+ * No es un test (no lo ejecuta surefire); se lanza a mano:
+ * {@code ...EscrituraPorLotesBenchmark jdbc:mysql://localhost:3306/barberia usuario clave [filas]}
+ */
+public class EscrituraPorLotesBenchmark {
+
+    private static final int TAMANO_LOTE = 50;
+
+    private static final String TABLA = "benchmark_escritura_lotes";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.out.println("Uso: EscrituraPorLotesBenchmark <url-jdbc> <usuario> <clave> [filas]");
+            return;
+        }
+        String url = args[0];
+        int filas = args.length > 3 ? Integer.parseInt(args[3]) : 5_000;
+
+        medir("INSERT fila a fila        ", url, args, filas, false, false, false);
+        medir("INSERT en lotes           ", url, args, filas, false, true, false);
+        medir("INSERT en lotes reescritos", url, args, filas, false, true, true);
+        medir("UPDATE fila a fila        ", url, args, filas, true, false, false);
+        medir("UPDATE en lotes           ", url, args, filas, true, true, false);
+        medir("UPDATE en lotes reescritos", url, args, filas, true, true, true);
+    }
+
+    private static void medir(String nombre, String url, String[] args, int filas,
+                              boolean actualizar, boolean enLotes, boolean reescribir) throws Exception {
+        String separador = url.contains("?") ? "&" : "?";
+        try (Connection conexion = DriverManager.getConnection(
+                url + separador + "rewriteBatchedStatements=" + reescribir, args[1], args[2])) {
+            prepararTabla(conexion, actualizar ? filas : 0);
+            conexion.setAutoCommit(false);
+
+            String sql = actualizar
+                ? "UPDATE " + TABLA + " SET estado = ?, version = version + 1 WHERE id = ? AND version = 0"
+                : "INSERT INTO " + TABLA + " (id, destinatario, estado, creado, version) VALUES (?, ?, ?, ?, 0)";
+
+            long inicio = System.nanoTime();
+            try (PreparedStatement ps = conexion.prepareStatement(sql)) {
+                for (int i = 1; i <= filas; i++) {
+                    if (actualizar) {
+                        ps.setString(1, "ENVIADO");
+                        ps.setLong(2, i);
+                    } else {
+                        ps.setLong(1, i);
+                        ps.setString(2, "cliente" + i + "@correo.com");
+                        ps.setString(3, "PENDIENTE");
+                        ps.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+                    }
+
+                    if (!enLotes) {
+                        ps.executeUpdate();
+                        continue;
+                    }
+                    ps.addBatch();
+                    if (i % TAMANO_LOTE == 0) {
+                        ps.executeBatch();
+                    }
+                }
+                if (enLotes) {
+                    ps.executeBatch();
+                }
+            }
+            conexion.commit();
+            long ms = (System.nanoTime() - inicio) / 1_000_000;
+
+            System.out.printf("%s: %6d filas en %6d ms (%.0f filas/s)%n", nombre, filas, ms, filas * 1000.0 / Math.max(1, ms));
+
+            conexion.setAutoCommit(true);
+            try (Statement st = conexion.createStatement()) {
+                st.execute("DROP TABLE " + TABLA);
+            }
+        }
+    }
+
+    private static void prepararTabla(Connection conexion, int filasIniciales) throws Exception {
+        try (Statement st = conexion.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS " + TABLA);
+            st.execute("CREATE TABLE " + TABLA + " (id BIGINT PRIMARY KEY, destinatario VARCHAR(255), " +
+                "estado VARCHAR(20), creado DATETIME(6), version BIGINT NOT NULL)");
+            if (filasIniciales > 0) {
+                st.execute("SET SESSION cte_max_recursion_depth = " + Math.max(1000, filasIniciales));
+                st.execute("INSERT INTO " + TABLA + " (id, destinatario, estado, creado, version) " +
+                    "WITH RECURSIVE n (i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < " + filasIniciales + ") " +
+                    "SELECT i, CONCAT('cliente', i, '@correo.com'), 'PENDIENTE', NOW(6), 0 FROM n");
+            }
+        }
+    }
+}
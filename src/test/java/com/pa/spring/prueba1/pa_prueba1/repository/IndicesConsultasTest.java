@@ -0,0 +1,312 @@
+package com.pa.spring.prueba1.pa_prueba1.repository;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Comprueba, sin base de datos, que cada consulta de los repositorios frecuentes
+ * tenga un índice que la soporte en las migraciones de db/migration.
+ *
+ * Un índice soporta una consulta si empieza por una de las columnas filtradas y
+ * contiene todas las demás (se busca por el prefijo y el resto se filtra dentro del
+ * índice), o si es único y todas sus columnas están filtradas (una sola fila).
+ * Como en InnoDB, cada índice secundario lleva al final la clave primaria.
+ *
+ * Solo se tienen en cuenta las condiciones del WHERE sobre columnas de la tabla
+ * principal. Las condiciones con funciones de fecha sobre una columna
+ * (DATE(r.fechaHoraTurno) = ...) se rechazan siempre: no pueden usar ningún índice.
+ * En GROUP BY y ORDER BY sí se permiten (YEAR(r.fechaHoraTurno) para agrupar por mes).
+ */
+class IndicesConsultasTest {
+
+    private static final List<Class<?>> REPOSITORIOS = List.of(
+        TurnoRepository.class,
+        ReservaRepository.class,
+        ReservaAgregadosRepository.class,
+        NotificacionRepository.class,
+        CorreoPendienteRepository.class);
+
+    /** Consultas que recorren la tabla a propósito: Repositorio.metodo -> motivo */
+    private static final Map<String, String> EXCEPCIONES = Map.of(
+        "ReservaRepository.countAllReservas", "COUNT de toda la tabla: MySQL recorre el índice secundario más pequeño",
+        "ReservaRepository.listarResumenes", "listado completo del admin, recorrido en orden por idx_reserva_fecha");
+
+    private static final Pattern ENTIDAD_JPQL = Pattern.compile(
+        "(?:from|update)\\s+(\\w+)\\s+(?:as\\s+)?(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern FUNCION_DE_FECHA = Pattern.compile(
+        "\\b(?:date|year|month|day|hour|minute|extract|function)\\s*\\(\\s*\\w+\\.", Pattern.CASE_INSENSITIVE);
+
+    private static final String CONDICION_JPQL =
+        "\\.([\\w.]+)\\s*(?:=|<>|!=|>=|<=|>|<|\\bin\\b|\\bbetween\\b|\\bis\\b)";
+
+    @Test
+    void cadaConsultaTieneUnIndiceQueLaSoporta() throws Exception {
+        Map<String, List<Indice>> indices = leerIndicesDeMigraciones();
+        List<String> sinIndice = new ArrayList<>();
+
+        for (Class<?> repositorio : REPOSITORIOS) {
+            Class<?> entidad = entidadDe(repositorio);
+            String tabla = tablaDe(entidad);
+
+            for (Method metodo : repositorio.getDeclaredMethods()) {
+                String nombre = repositorio.getSimpleName() + "." + metodo.getName();
+                // Los métodos default delegan en otras consultas del repositorio
+                if (metodo.isDefault() || EXCEPCIONES.containsKey(nombre)) {
+                    continue;
+                }
+                if (filtraConFuncionDeFecha(metodo)) {
+                    sinIndice.add(nombre + " filtra con una función de fecha sobre la columna (usar un rango [inicio, fin))");
+                    continue;
+                }
+
+                Set<String> columnas = columnasFiltradas(metodo, entidad);
+                if (columnas.isEmpty()) {
+                    sinIndice.add(nombre + " no filtra por ninguna columna de " + tabla);
+                } else if (!tieneIndice(indices.getOrDefault(tabla, List.of()), columnas)) {
+                    sinIndice.add(nombre + " filtra " + tabla + " por " + columnas);
+                }
+            }
+        }
+
+        assertTrue(sinIndice.isEmpty(), "Consultas sin índice que las soporte (añadir una migración " +
+            "o una excepción justificada):\n  " + String.join("\n  ", sinIndice));
+    }
+
+    private boolean tieneIndice(List<Indice> indices, Set<String> columnas) {
+        for (Indice indice : indices) {
+            if (indice.unico && columnas.containsAll(indice.columnasPropias)) {
+                return true;
+            }
+            if (columnas.contains(indice.columnas.get(0)) && indice.columnas.containsAll(columnas)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ===== CONSULTAS =====
+
+    private Set<String> columnasFiltradas(Method metodo, Class<?> entidad) {
+        Set<String> columnas = new LinkedHashSet<>();
+        Query query = metodo.getAnnotation(Query.class);
+
+        if (query == null) {
+            // Consulta derivada del nombre del método
+            for (PartTree.OrPart or : new PartTree(metodo.getName(), entidad)) {
+                for (Part parte : or) {
+                    agregarColumna(columnas, entidad, parte.getProperty().toDotPath());
+                }
+            }
+            return columnas;
+        }
+
+        String jpql = query.value();
+        Matcher raiz = ENTIDAD_JPQL.matcher(jpql);
+        String where = clausulaWhere(jpql);
+        if (!raiz.find() || where.isEmpty()) {
+            return columnas;
+        }
+
+        Matcher condicion = Pattern.compile("\\b" + raiz.group(2) + CONDICION_JPQL, Pattern.CASE_INSENSITIVE)
+            .matcher(where);
+        while (condicion.find()) {
+            agregarColumna(columnas, entidad, condicion.group(1));
+        }
+        return columnas;
+    }
+
+    /**
+     * DATE(r.fechaHoraTurno) = ... y similares obligan a evaluar la función en cada
+     * fila: ningún índice sobre la columna sirve para esa condición.
+     */
+    private boolean filtraConFuncionDeFecha(Method metodo) {
+        Query query = metodo.getAnnotation(Query.class);
+        if (query == null) {
+            return false;
+        }
+        return FUNCION_DE_FECHA.matcher(clausulaWhere(query.value())).find();
+    }
+
+    /**
+     * Desde el WHERE hasta el GROUP BY / ORDER BY (vacío si la consulta no filtra)
+     */
+    private String clausulaWhere(String jpql) {
+        String minusculas = jpql.toLowerCase(Locale.ROOT);
+        int where = minusculas.indexOf(" where ");
+        if (where < 0) {
+            return "";
+        }
+        int fin = minusculas.length();
+        for (String clausula : List.of(" group by ", " order by ")) {
+            int posicion = minusculas.indexOf(clausula, where);
+            if (posicion >= 0) {
+                fin = Math.min(fin, posicion);
+            }
+        }
+        return jpql.substring(where, fin);
+    }
+
+    /**
+     * Traduce una propiedad (barbero.idBarbero, estado...) a su columna en la tabla
+     * de la entidad. Las propiedades de otras tablas se ignoran.
+     */
+    private void agregarColumna(Set<String> columnas, Class<?> entidad, String propiedad) {
+        String[] partes = propiedad.split("\\.");
+        Field campo = campo(entidad, partes[0]);
+
+        JoinColumn joinColumn = campo.getAnnotation(JoinColumn.class);
+        if (joinColumn != null) {
+            // Solo la clave foránea está en esta tabla (barbero o barbero.idBarbero)
+            if (partes.length == 1 || esId(campo.getType(), partes[1])) {
+                columnas.add(normalizar(joinColumn.name()));
+            }
+            return;
+        }
+
+        Column column = campo.getAnnotation(Column.class);
+        columnas.add(normalizar(column != null && !column.name().isEmpty() ? column.name() : campo.getName()));
+    }
+
+    private boolean esId(Class<?> entidad, String propiedad) {
+        return campo(entidad, propiedad).isAnnotationPresent(jakarta.persistence.Id.class);
+    }
+
+    private Field campo(Class<?> entidad, String nombre) {
+        for (Class<?> c = entidad; c != null; c = c.getSuperclass()) {
+            for (Field campo : c.getDeclaredFields()) {
+                if (campo.getName().equals(nombre)) {
+                    return campo;
+                }
+            }
+        }
+        throw new IllegalArgumentException("La entidad " + entidad.getSimpleName() + " no tiene la propiedad " + nombre);
+    }
+
+    private Class<?> entidadDe(Class<?> repositorio) {
+        ParameterizedType tipo = (ParameterizedType) repositorio.getGenericInterfaces()[0];
+        return (Class<?>) tipo.getActualTypeArguments()[0];
+    }
+
+    private String tablaDe(Class<?> entidad) {
+        Table table = entidad.getAnnotation(Table.class);
+        return normalizar(table != null && !table.name().isEmpty() ? table.name() : entidad.getSimpleName());
+    }
+
+    // ===== MIGRACIONES =====
+
+    private Map<String, List<Indice>> leerIndicesDeMigraciones() throws IOException, URISyntaxException {
+        Path carpeta = Paths.get(getClass().getClassLoader().getResource("db/migration").toURI());
+        StringBuilder sql = new StringBuilder();
+        try (Stream<Path> archivos = Files.list(carpeta)) {
+            List<Path> ordenados = archivos.filter(p -> p.toString().endsWith(".sql"))
+                .sorted(Comparator.comparing(IndicesConsultasTest::version)).toList();
+            for (Path archivo : ordenados) {
+                sql.append(Files.readString(archivo).replaceAll("--[^\\n]*", "")).append('\n');
+            }
+        }
+        String ddl = sql.toString().toLowerCase(Locale.ROOT);
+
+        Map<String, List<String>> primarias = new HashMap<>();
+        Matcher tablas = Pattern.compile("create table (\\w+) \\((.*?)\\) engine", Pattern.DOTALL).matcher(ddl);
+        while (tablas.find()) {
+            Matcher pk = Pattern.compile("primary key \\(([^)]*)\\)").matcher(tablas.group(2));
+            if (pk.find()) {
+                primarias.put(tablas.group(1), columnas(pk.group(1)));
+            }
+        }
+
+        Map<String, List<Indice>> indices = new HashMap<>();
+        primarias.forEach((tabla, pk) -> agregarIndice(indices, tabla, pk, true, pk));
+
+        Matcher creados = Pattern.compile("create (unique )?index \\w+\\s+on (\\w+) \\(([^)]*)\\)").matcher(ddl);
+        while (creados.find()) {
+            agregarIndice(indices, creados.group(2), columnas(creados.group(3)), creados.group(1) != null,
+                primarias.get(creados.group(2)));
+        }
+
+        Matcher unicos = Pattern.compile("alter table (\\w+)\\s+add constraint \\w+ unique \\(([^)]*)\\)").matcher(ddl);
+        while (unicos.find()) {
+            agregarIndice(indices, unicos.group(1), columnas(unicos.group(2)), true, primarias.get(unicos.group(1)));
+        }
+
+        // MySQL crea un índice para cada clave foránea
+        Matcher foraneas = Pattern.compile("alter table (\\w+)\\s+add constraint \\w+\\s+foreign key \\(([^)]*)\\)")
+            .matcher(ddl);
+        while (foraneas.find()) {
+            agregarIndice(indices, foraneas.group(1), columnas(foraneas.group(2)), false,
+                primarias.get(foraneas.group(1)));
+        }
+
+        return indices;
+    }
+
+    private void agregarIndice(Map<String, List<Indice>> indices, String tabla, List<String> columnas,
+                               boolean unico, List<String> primaria) {
+        List<String> conPrimaria = new ArrayList<>(columnas);
+        if (primaria != null) {
+            primaria.stream().filter(c -> !conPrimaria.contains(c)).forEach(conPrimaria::add);
+        }
+        indices.computeIfAbsent(tabla, t -> new ArrayList<>()).add(new Indice(columnas, conPrimaria, unico));
+    }
+
+    private static List<String> columnas(String lista) {
+        List<String> columnas = new ArrayList<>();
+        for (String columna : lista.split(",")) {
+            columnas.add(normalizar(columna));
+        }
+        return columnas;
+    }
+
+    private static int version(Path archivo) {
+        String nombre = archivo.getFileName().toString();
+        return Integer.parseInt(nombre.substring(1, nombre.indexOf("__")));
+    }
+
+    private static String normalizar(String identificador) {
+        return identificador.trim().replace("`", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static class Indice {
+
+        /** Columnas declaradas en el índice */
+        final List<String> columnasPropias;
+        /** Columnas declaradas seguidas de la clave primaria */
+        final List<String> columnas;
+        final boolean unico;
+
+        Indice(List<String> columnasPropias, List<String> columnas, boolean unico) {
+            this.columnasPropias = columnasPropias;
+            this.columnas = columnas;
+            this.unico = unico;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.pa.spring.prueba1.pa_prueba1.service.concurrencia;
+
+import com.pa.spring.prueba1.pa_prueba1.config.IdempotenciaConfigProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Qué resultados recuerda {@link RegistroIdempotencia} y cuándo los descarta.
+ */
+class RegistroIdempotenciaTest {
+
+    private IdempotenciaConfigProperties config;
+    private SimpleMeterRegistry meterRegistry;
+    private RegistroIdempotencia registro;
+    private final AtomicInteger ejecuciones = new AtomicInteger();
+
+    @BeforeEach
+    void preparar() {
+        config = new IdempotenciaConfigProperties();
+        config.setEsperaMaximaSegundos(5);
+
+        registro = new RegistroIdempotencia();
+        ReflectionTestUtils.setField(registro, "config", config);
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(registro, "meterRegistry", meterRegistry);
+    }
+
+    // ===== RESULTADOS =====
+
+    @Test
+    void repeticionDevuelveElResultadoSinEjecutarDeNuevo() {
+        assertEquals("reserva-1", registro.ejecutar("k", () -> contar("reserva-1")));
+        assertEquals("reserva-1", registro.ejecutar("k", () -> contar("reserva-2")));
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    void rechazoDeNegocioSeRepiteSinEjecutarDeNuevo() {
+        IllegalStateException original = assertThrows(IllegalStateException.class,
+            () -> registro.ejecutar("k", () -> fallar(new IllegalStateException("Turno no disponible"))));
+
+        IllegalStateException repetido = assertThrows(IllegalStateException.class,
+            () -> registro.ejecutar("k", () -> contar("reserva")));
+
+        assertSame(original, repetido);
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    void errorInesperadoPermiteReintentar() {
+        assertThrows(RuntimeException.class,
+            () -> registro.ejecutar("k", () -> fallar(new RuntimeException("Conexión perdida"))));
+
+        assertEquals("reserva", registro.ejecutar("k", () -> contar("reserva")));
+        assertEquals(2, ejecuciones.get());
+    }
+
+    // ===== CAPACIDAD =====
+
+    @Test
+    void conCapacidadLlenaSeDescartanLasTerminadas() {
+        config.setCapacidad(1);
+        registro.ejecutar("a", () -> contar("a"));
+
+        assertEquals("b", registro.ejecutar("b", () -> contar("b")));
+        // "a" se descartó: se ejecuta de nuevo
+        assertEquals("a", registro.ejecutar("a", () -> contar("a")));
+        assertEquals(3, ejecuciones.get());
+    }
+
+    @Test
+    void conCapacidadLlenaDeEntradasEnCursoSeRechazanClavesNuevas() throws Exception {
+        config.setCapacidad(1);
+        CountDownLatch empezada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<String> enCurso = CompletableFuture.supplyAsync(() -> registro.ejecutar("a", () -> {
+            empezada.countDown();
+            esperar(liberar);
+            return contar("a");
+        }));
+        assertTrue(empezada.await(5, TimeUnit.SECONDS));
+
+        assertThrows(IllegalStateException.class, () -> registro.ejecutar("b", () -> contar("b")));
+
+        // La entrada en curso no se descartó: la repetición espera al original
+        CompletableFuture<String> repetida = CompletableFuture.supplyAsync(() -> registro.ejecutar("a", () -> contar("otra")));
+        long limite = System.currentTimeMillis() + 5000;
+        while (meterRegistry.counter("idempotencia.repeticiones").count() < 1 && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        liberar.countDown();
+        assertEquals("a", enCurso.get(5, TimeUnit.SECONDS));
+        assertEquals("a", repetida.get(5, TimeUnit.SECONDS));
+        assertEquals(1, ejecuciones.get());
+    }
+
+    // ===== AUXILIARES =====
+
+    private String contar(String valor) {
+        ejecuciones.incrementAndGet();
+        return valor;
+    }
+
+    private String fallar(RuntimeException e) {
+        ejecuciones.incrementAndGet();
+        throw e;
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
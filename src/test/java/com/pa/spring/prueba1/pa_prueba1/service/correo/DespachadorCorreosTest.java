@@ -0,0 +1,223 @@
+package com.pa.spring.prueba1.pa_prueba1.service.correo;
+
+import com.pa.spring.prueba1.pa_prueba1.config.CorreoConfigProperties;
+import com.pa.spring.prueba1.pa_prueba1.model.CorreoPendiente;
+import com.pa.spring.prueba1.pa_prueba1.repository.CorreoPendienteRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Transiciones de {@link DespachadorCorreos} con un JavaMailSender simulado: la
+ * "BD" es un mapa de correos y los UPDATE condicionales se aplican sobre él.
+ */
+class DespachadorCorreosTest {
+
+    private static final String TOKEN = "lote-1";
+
+    private final Map<Long, CorreoPendiente> bandeja = new HashMap<>();
+    private JavaMailSender mailSender;
+    private CorreoPendienteRepository repositorio;
+    private CorreoConfigProperties config;
+    private SimpleMeterRegistry meterRegistry;
+    private DespachadorCorreos despachador;
+
+    @BeforeEach
+    void preparar() {
+        mailSender = mock(JavaMailSender.class);
+        when(mailSender.createMimeMessage()).thenAnswer(inv -> new MimeMessage((Session) null));
+
+        EnvioSmtpMasivo envioSmtpMasivo = new EnvioSmtpMasivo();
+        ReflectionTestUtils.setField(envioSmtpMasivo, "mailSender", mailSender);
+        ReflectionTestUtils.setField(envioSmtpMasivo, "fromEmail", "barberia@example.com");
+
+        repositorio = mock(CorreoPendienteRepository.class);
+        when(repositorio.findAllById(anyList())).thenAnswer(inv -> {
+            List<CorreoPendiente> correos = new ArrayList<>();
+            for (Long id : inv.<List<Long>>getArgument(0)) {
+                correos.add(bandeja.get(id));
+            }
+            return correos;
+        });
+        when(repositorio.registrarResultado(any(), anyString(), any(), anyInt(), any(), any(), any()))
+            .thenAnswer(inv -> {
+                CorreoPendiente correo = bandeja.get(inv.<Long>getArgument(0));
+                if (!inv.<String>getArgument(1).equals(correo.getTokenReserva())) {
+                    return 0;
+                }
+                correo.setEstado(inv.getArgument(2));
+                correo.setIntentos(inv.getArgument(3));
+                correo.setProximoIntento(inv.getArgument(4));
+                correo.setFechaEnvio(inv.getArgument(5));
+                correo.setUltimoError(inv.getArgument(6));
+                correo.setTokenReserva(null);
+                return 1;
+            });
+
+        config = new CorreoConfigProperties();
+        config.setMaxIntentos(3);
+        config.setEsperaBaseSegundos(30);
+        config.setEsperaMaximaSegundos(100);
+
+        meterRegistry = new SimpleMeterRegistry();
+
+        despachador = new DespachadorCorreos();
+        ReflectionTestUtils.setField(despachador, "correoPendienteRepository", repositorio);
+        ReflectionTestUtils.setField(despachador, "envioSmtpMasivo", envioSmtpMasivo);
+        ReflectionTestUtils.setField(despachador, "config", config);
+        ReflectionTestUtils.setField(despachador, "meterRegistry", meterRegistry);
+        despachador.init();
+    }
+
+    @AfterEach
+    void cerrar() throws InterruptedException {
+        despachador.cerrar();
+    }
+
+    // ===== TRANSICIONES =====
+
+    @Test
+    void envioCorrectoMarcaEnviado() {
+        CorreoPendiente correo = enviando(1L, 0, TOKEN);
+
+        despachador.enviarLote(List.of(1L), TOKEN);
+
+        assertEquals(CorreoPendiente.EstadoCorreo.ENVIADO, correo.getEstado());
+        assertEquals(1, correo.getIntentos());
+        assertNull(correo.getUltimoError());
+        assertEquals(1.0, meterRegistry.counter("correos.enviados").count());
+        verify(repositorio).renovarReserva(eq(List.of(1L)), eq(TOKEN), eq(CorreoPendiente.EstadoCorreo.ENVIANDO),
+            any(LocalDateTime.class));
+    }
+
+    @Test
+    void falloDeSmtpReintentaConEsperaExponencial() {
+        CorreoPendiente primero = enviando(1L, 0, TOKEN);
+        CorreoPendiente segundo = enviando(2L, 1, TOKEN);
+        doThrow(new MailSendException("SMTP caído")).when(mailSender).send(any(MimeMessage[].class));
+
+        LocalDateTime antes = LocalDateTime.now();
+        despachador.enviarLote(List.of(1L, 2L), TOKEN);
+        LocalDateTime despues = LocalDateTime.now();
+
+        assertEquals(CorreoPendiente.EstadoCorreo.PENDIENTE, primero.getEstado());
+        assertEquals(1, primero.getIntentos());
+        assertEquals("SMTP caído", primero.getUltimoError());
+        assertEntre(antes.plusSeconds(30), despues.plusSeconds(30), primero.getProximoIntento());
+
+        // Segundo fallo: la espera se duplica
+        assertEquals(2, segundo.getIntentos());
+        assertEntre(antes.plusSeconds(60), despues.plusSeconds(60), segundo.getProximoIntento());
+        assertEquals(2.0, meterRegistry.counter("correos.reintentos").count());
+    }
+
+    @Test
+    void esperaEntreReintentosTieneTope() {
+        config.setMaxIntentos(10);
+        CorreoPendiente correo = enviando(1L, 5, TOKEN);
+        doThrow(new MailSendException("SMTP caído")).when(mailSender).send(any(MimeMessage[].class));
+
+        LocalDateTime antes = LocalDateTime.now();
+        despachador.enviarLote(List.of(1L), TOKEN);
+        LocalDateTime despues = LocalDateTime.now();
+
+        // 30 << 5 = 960 s, limitado a 100 s
+        assertEntre(antes.plusSeconds(100), despues.plusSeconds(100), correo.getProximoIntento());
+    }
+
+    @Test
+    void agotarLosIntentosMarcaFallido() {
+        CorreoPendiente correo = enviando(1L, 2, TOKEN);
+        doThrow(new MailSendException("Buzón inexistente")).when(mailSender).send(any(MimeMessage[].class));
+
+        despachador.enviarLote(List.of(1L), TOKEN);
+
+        assertEquals(CorreoPendiente.EstadoCorreo.FALLIDO, correo.getEstado());
+        assertEquals(3, correo.getIntentos());
+        assertEquals("Buzón inexistente", correo.getUltimoError());
+        assertEquals(1.0, meterRegistry.counter("correos.fallidos").count());
+        assertEquals(0.0, meterRegistry.counter("correos.reintentos").count());
+    }
+
+    // ===== RESERVA =====
+
+    @Test
+    void correoRetomadoPorOtroLoteNoSeEnvia() {
+        CorreoPendiente correo = enviando(1L, 0, "lote-2");
+
+        despachador.enviarLote(List.of(1L), TOKEN);
+
+        verify(mailSender, never()).send(any(MimeMessage[].class));
+        assertEquals(CorreoPendiente.EstadoCorreo.ENVIANDO, correo.getEstado());
+        assertEquals("lote-2", correo.getTokenReserva());
+    }
+
+    @Test
+    void resultadoTardioNoPisaAlLoteQueLoRetomo() {
+        CorreoPendiente correo = enviando(1L, 0, TOKEN);
+        // Mientras se enviaba, la reserva venció y otro lote lo tomó
+        doThrow(new MailSendException("Timeout")).when(mailSender).send(any(MimeMessage[].class));
+        when(mailSender.createMimeMessage()).thenAnswer(inv -> {
+            correo.setTokenReserva("lote-2");
+            return new MimeMessage((Session) null);
+        });
+
+        despachador.enviarLote(List.of(1L), TOKEN);
+
+        assertEquals(CorreoPendiente.EstadoCorreo.ENVIANDO, correo.getEstado());
+        assertEquals(0, correo.getIntentos());
+        assertEquals("lote-2", correo.getTokenReserva());
+        assertEquals(0.0, meterRegistry.counter("correos.reintentos").count());
+    }
+
+    // ===== AUXILIARES =====
+
+    private CorreoPendiente enviando(Long id, int intentos, String token) {
+        CorreoPendiente correo = new CorreoPendiente();
+        correo.setIdCorreo(id);
+        correo.setDestinatario("cliente" + id + "@example.com");
+        correo.setAsunto("Reserva confirmada");
+        correo.setCuerpo("<p>Hola</p>");
+        correo.setHtml(true);
+        correo.setEstado(CorreoPendiente.EstadoCorreo.ENVIANDO);
+        correo.setIntentos(intentos);
+        correo.setProximoIntento(LocalDateTime.now().plusMinutes(2));
+        correo.setTokenReserva(token);
+        bandeja.put(id, correo);
+        return correo;
+    }
+
+    private static void assertEntre(LocalDateTime desde, LocalDateTime hasta, LocalDateTime valor) {
+        assertTrue(!valor.isBefore(desde) && !valor.isAfter(hasta),
+            valor + " fuera de [" + desde + ", " + hasta + "]");
+    }
+}
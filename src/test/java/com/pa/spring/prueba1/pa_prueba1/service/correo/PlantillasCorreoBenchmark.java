@@ -0,0 +1,50 @@
+package com.pa.spring.prueba1.pa_prueba1.service.correo;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mide cuántos correos de confirmación por segundo renderiza {@link PlantillasCorreo}.
+ * No es un test (no lo ejecuta surefire): se lanza a mano desde el IDE o con
+ * {@code java -cp target/classes:target/test-classes:<dependencias> ...PlantillasCorreoBenchmark [cantidad]}.
+ */
+public class PlantillasCorreoBenchmark {
+
+    private static final int CALENTAMIENTO = 2_000;
+
+    public static void main(String[] args) {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+
+        PlantillasCorreo plantillas = new PlantillasCorreo();
+        plantillas.configurar("Barbería Estilo", "http://localhost:8586");
+
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            plantillas.renderizar(PlantillasCorreo.CONFIRMACION, variables(i));
+        }
+
+        long bytes = 0;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < cantidad; i++) {
+            bytes += plantillas.renderizar(PlantillasCorreo.CONFIRMACION, variables(i)).length();
+        }
+        long nanos = System.nanoTime() - inicio;
+
+        double ms = nanos / 1_000_000.0;
+        System.out.printf("%d correos de confirmación en %.1f ms (%.0f correos/s, %.1f µs/correo, %d KB de HTML)%n",
+            cantidad, ms, cantidad / (ms / 1000.0), nanos / 1000.0 / cantidad, bytes / 1024);
+    }
+
+    private static Map<String, Object> variables(int i) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("clienteNombre", "Cliente " + i);
+        variables.put("fecha", "15/11/2025");
+        variables.put("hora", String.format("%02d:%02d", 9 + (i % 9), (i % 4) * 15));
+        variables.put("servicio", "Corte Clásico");
+        variables.put("duracion", 30);
+        variables.put("barberoNombre", "Juan");
+        variables.put("barberoApellido", "Pérez");
+        variables.put("precio", 20.0 + (i % 5));
+        variables.put("urlCancelar", "http://localhost:8586/reserva/cancelar/" + i);
+        return variables;
+    }
+}
@@ -0,0 +1,195 @@
+package com.pa.spring.prueba1.pa_prueba1.service.disponibilidad;
+
+import com.pa.spring.prueba1.pa_prueba1.config.DisponibilidadConfigProperties;
+import com.pa.spring.prueba1.pa_prueba1.model.Barbero;
+import com.pa.spring.prueba1.pa_prueba1.model.Turno;
+import com.pa.spring.prueba1.pa_prueba1.repository.BarberoRepository;
+import com.pa.spring.prueba1.pa_prueba1.repository.TurnoRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Lógica de bits de {@link IndiceDisponibilidad} contra repositorios simulados:
+ * la "BD" es una lista de turnos que se filtra por el rango pedido.
+ */
+class IndiceDisponibilidadTest {
+
+    private static final Long BARBERO = 7L;
+    private static final LocalDate DIA = LocalDate.of(2030, 3, 4);
+
+    private final List<Object[]> turnos = new ArrayList<>();
+    private TurnoRepository turnoRepository;
+    private Barbero barbero;
+    private IndiceDisponibilidad indice;
+    private long siguienteId = 1;
+
+    @BeforeEach
+    void preparar() {
+        barbero = new Barbero();
+        barbero.setIdBarbero(BARBERO);
+
+        BarberoRepository barberoRepository = mock(BarberoRepository.class);
+        when(barberoRepository.findById(BARBERO)).thenAnswer(inv -> Optional.of(barbero));
+
+        turnoRepository = mock(TurnoRepository.class);
+        when(turnoRepository.findSlotsByBarberoAndRango(eq(BARBERO), any(), any())).thenAnswer(inv -> {
+            LocalDateTime desde = inv.getArgument(1);
+            LocalDateTime hasta = inv.getArgument(2);
+            List<Object[]> filas = new ArrayList<>();
+            for (Object[] fila : turnos) {
+                LocalDateTime fechaHora = (LocalDateTime) fila[1];
+                if (!fechaHora.isBefore(desde) && fechaHora.isBefore(hasta)) {
+                    filas.add(fila);
+                }
+            }
+            return filas;
+        });
+
+        indice = new IndiceDisponibilidad();
+        ReflectionTestUtils.setField(indice, "turnoRepository", turnoRepository);
+        ReflectionTestUtils.setField(indice, "barberoRepository", barberoRepository);
+        ReflectionTestUtils.setField(indice, "config", new DisponibilidadConfigProperties());
+    }
+
+    // ===== BITS =====
+
+    @Test
+    void iniciosDeRachasCruzaElLimiteEntrePalabras() {
+        long[] libres = new long[2];
+        for (int slot : new int[] {62, 63, 64, 65}) {
+            libres[slot >>> 6] |= 1L << (slot & 63);
+        }
+
+        long[] inicios = IndiceDisponibilidad.iniciosDeRachas(libres, 3);
+
+        assertArrayEquals(new long[] {(1L << 62) | (1L << 63), 0L}, inicios);
+    }
+
+    @Test
+    void iniciosDeRachasNoSeSaleDelDia() {
+        long[] libres = new long[2];
+        int ultimo = IndiceDisponibilidad.SLOTS_POR_DIA - 1;
+        libres[ultimo >>> 6] |= 1L << (ultimo & 63);
+
+        assertArrayEquals(libres, IndiceDisponibilidad.iniciosDeRachas(libres, 1));
+        assertArrayEquals(new long[2], IndiceDisponibilidad.iniciosDeRachas(libres, 2));
+    }
+
+    // ===== BÚSQUEDA =====
+
+    @Test
+    void rachasDeVariosBloquesRespetanElAlmuerzo() {
+        barbero.setHoraFin(LocalTime.of(20, 0));
+        barbero.setHoraInicioAlmuerzo(LocalTime.of(12, 0));
+        barbero.setHoraFinAlmuerzo(LocalTime.of(13, 0));
+        for (LocalTime hora = LocalTime.of(9, 0); hora.isBefore(LocalTime.of(14, 0)); hora = hora.plusMinutes(15)) {
+            disponible(DIA.atTime(hora));
+        }
+
+        List<LocalTime> inicios = horas(buscar(30, DIA.atTime(8, 0)));
+
+        List<LocalTime> esperados = new ArrayList<>();
+        for (LocalTime hora = LocalTime.of(9, 0); !hora.isAfter(LocalTime.of(11, 30)); hora = hora.plusMinutes(15)) {
+            esperados.add(hora);
+        }
+        esperados.addAll(List.of(LocalTime.of(13, 0), LocalTime.of(13, 15), LocalTime.of(13, 30)));
+        assertEquals(esperados, inicios);
+    }
+
+    @Test
+    void rachasNoCruzanLaMedianoche() {
+        disponible(DIA.atTime(23, 30));
+        disponible(DIA.atTime(23, 45));
+        disponible(DIA.plusDays(1).atStartOfDay());
+
+        assertEquals(List.of(LocalTime.of(23, 30)), horas(buscar(30, DIA.atTime(8, 0))));
+        assertEquals(List.of(), buscar(45, DIA.atTime(8, 0)));
+    }
+
+    @Test
+    void cambiosDeEstadoEnciendenYApaganBits() {
+        Long t900 = disponible(DIA.atTime(9, 0));
+        Long t915 = disponible(DIA.atTime(9, 15));
+        disponible(DIA.atTime(9, 30));
+        assertEquals(List.of(LocalTime.of(9, 0), LocalTime.of(9, 15)), horas(buscar(30, DIA.atTime(8, 0))));
+
+        indice.registrarCambio(BARBERO, t915, DIA.atTime(9, 15), Turno.EstadoTurno.NO_DISPONIBLE);
+        assertEquals(List.of(), buscar(30, DIA.atTime(8, 0)));
+
+        indice.registrarCambio(BARBERO, t915, DIA.atTime(9, 15), Turno.EstadoTurno.DISPONIBLE);
+        assertEquals(List.of(LocalTime.of(9, 0), LocalTime.of(9, 15)), horas(buscar(30, DIA.atTime(8, 0))));
+
+        indice.registrarEliminacion(BARBERO, t900);
+        assertEquals(List.of(LocalTime.of(9, 15)), horas(buscar(30, DIA.atTime(8, 0))));
+    }
+
+    @Test
+    void cambioDeDiaDescartaLosDiasPasadosYCargaLosNuevos() {
+        Long ayer = disponible(DIA.atTime(23, 45));
+        disponible(DIA.plusDays(1).atStartOfDay());
+        disponible(DIA.plusDays(1).atTime(0, 15));
+        disponible(DIA.plusDays(2).atTime(10, 0));
+
+        LocalDateTime antes = DIA.atTime(23, 40);
+        assertEquals(List.of(DIA.atTime(23, 45), DIA.plusDays(1).atStartOfDay(), DIA.plusDays(1).atTime(0, 15)),
+            fechas(indice.buscarTurnosConsecutivos(BARBERO, 15, antes, DIA.plusDays(2).atStartOfDay(), antes)));
+
+        // Pasada la medianoche: el día anterior sale del índice y el horario ya pasado no se ofrece
+        LocalDateTime despues = DIA.plusDays(1).atTime(0, 5);
+        assertEquals(List.of(DIA.plusDays(1).atTime(0, 15), DIA.plusDays(2).atTime(10, 0)),
+            fechas(indice.buscarTurnosConsecutivos(BARBERO, 15, DIA.atStartOfDay(), DIA.plusDays(3).atStartOfDay(), despues)));
+        // Solo se carga el día que faltaba al final de la ventana
+        verify(turnoRepository).findSlotsByBarberoAndRango(BARBERO,
+            DIA.plusDays(3).atStartOfDay(), DIA.plusDays(4).atStartOfDay());
+
+        // Un cambio tardío de un turno del día descartado no lo vuelve a meter
+        indice.registrarCambio(BARBERO, ayer, DIA.atTime(23, 45), Turno.EstadoTurno.DISPONIBLE);
+        assertEquals(List.of(DIA.plusDays(1).atTime(0, 15), DIA.plusDays(2).atTime(10, 0)),
+            fechas(indice.buscarTurnosConsecutivos(BARBERO, 15, DIA.atStartOfDay(), DIA.plusDays(3).atStartOfDay(), despues)));
+    }
+
+    @Test
+    void turnosFueraDeLaRejillaDesactivanElIndice() {
+        disponible(DIA.atTime(9, 10));
+
+        assertNull(buscar(15, DIA.atTime(8, 0)));
+    }
+
+    // ===== AUXILIARES =====
+
+    private Long disponible(LocalDateTime fechaHora) {
+        Long id = siguienteId++;
+        turnos.add(new Object[] {id, fechaHora, Turno.EstadoTurno.DISPONIBLE});
+        return id;
+    }
+
+    private List<Turno> buscar(int duracionMinutos, LocalDateTime ahora) {
+        return indice.buscarTurnosConsecutivos(BARBERO, duracionMinutos, ahora, ahora.plusDays(2), ahora);
+    }
+
+    private static List<LocalDateTime> fechas(List<Turno> turnos) {
+        return turnos.stream().map(Turno::getFechaHora).toList();
+    }
+
+    private static List<LocalTime> horas(List<Turno> turnos) {
+        return turnos.stream().map(t -> t.getFechaHora().toLocalTime()).toList();
+    }
+}